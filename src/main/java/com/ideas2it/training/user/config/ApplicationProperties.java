@@ -2,6 +2,8 @@ package com.ideas2it.training.user.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 /**
  * Properties specific to User Application.
  * <p>
@@ -13,12 +15,24 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Cache cache = new Cache();
+
+    private final Bulk bulk = new Bulk();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +47,816 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    /**
+     * Bulk user creation. Rows are inserted in chunks, each in its own transaction.
+     */
+    public static class Bulk {
+
+        private int chunkSize = 500;
+
+        private int maxRows = 10_000;
+
+        private final CsvImport csvImport = new CsvImport();
+
+        private final Export export = new Export();
+
+        private final Hashing hashing = new Hashing();
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxRows() {
+            return maxRows;
+        }
+
+        public void setMaxRows(int maxRows) {
+            this.maxRows = maxRows;
+        }
+
+        public CsvImport getCsvImport() {
+            return csvImport;
+        }
+
+        public Export getExport() {
+            return export;
+        }
+
+        public Hashing getHashing() {
+            return hashing;
+        }
+
+        /**
+         * Password hashing for bulk creation and imports. Hashes are computed on {@code threads}
+         * dedicated threads; when {@code queue-capacity} hashes are waiting the caller hashes itself.
+         */
+        public static class Hashing {
+
+            private int threads = Runtime.getRuntime().availableProcessors();
+
+            private int queueCapacity = 10_000;
+
+            public int getThreads() {
+                return threads;
+            }
+
+            public void setThreads(int threads) {
+                this.threads = threads;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+        }
+
+        /**
+         * CSV import jobs. Uploaded files are kept in {@code directory} so that a job can be
+         * restarted, on any replica sharing the directory, from its last committed chunk.
+         */
+        public static class CsvImport {
+
+            private String directory = System.getProperty("java.io.tmpdir") + "/user-imports";
+
+            private int chunkSize = 2_000;
+
+            private int queueCapacity = 4;
+
+            private Duration staleAfter = Duration.ofMinutes(5);
+
+            public String getDirectory() {
+                return directory;
+            }
+
+            public void setDirectory(String directory) {
+                this.directory = directory;
+            }
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public Duration getStaleAfter() {
+                return staleAfter;
+            }
+
+            public void setStaleAfter(Duration staleAfter) {
+                this.staleAfter = staleAfter;
+            }
+        }
+
+        /**
+         * Export jobs. Users are read through a cursor of {@code fetch-size} rows and
+         * encoded and compressed in chunks of {@code chunk-size} users on {@code threads} threads.
+         */
+        public static class Export {
+
+            private String directory = System.getProperty("java.io.tmpdir") + "/user-exports";
+
+            private int fetchSize = 1_000;
+
+            private int chunkSize = 5_000;
+
+            private int threads = Runtime.getRuntime().availableProcessors();
+
+            private int jobs = 1;
+
+            private int queueCapacity = 2;
+
+            private Duration retention = Duration.ofHours(24);
+
+            public String getDirectory() {
+                return directory;
+            }
+
+            public void setDirectory(String directory) {
+                this.directory = directory;
+            }
+
+            public int getFetchSize() {
+                return fetchSize;
+            }
+
+            public void setFetchSize(int fetchSize) {
+                this.fetchSize = fetchSize;
+            }
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+
+            public int getThreads() {
+                return threads;
+            }
+
+            public void setThreads(int threads) {
+                this.threads = threads;
+            }
+
+            public int getJobs() {
+                return jobs;
+            }
+
+            public void setJobs(int jobs) {
+                this.jobs = jobs;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public Duration getRetention() {
+                return retention;
+            }
+
+            public void setRetention(Duration retention) {
+                this.retention = retention;
+            }
+        }
+    }
+
+    public static class Cache {
+
+        private final User user = new User();
+
+        private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+        private final Pages pages = new Pages();
+
+        private final Roles roles = new Roles();
+
+        private Duration commandTimeout = Duration.ofMillis(100);
+
+        private Duration connectTimeout = Duration.ofSeconds(1);
+
+        public User getUser() {
+            return user;
+        }
+
+        public CircuitBreaker getCircuitBreaker() {
+            return circuitBreaker;
+        }
+
+        public Pages getPages() {
+            return pages;
+        }
+
+        public Roles getRoles() {
+            return roles;
+        }
+
+        public Duration getCommandTimeout() {
+            return commandTimeout;
+        }
+
+        public void setCommandTimeout(Duration commandTimeout) {
+            this.commandTimeout = commandTimeout;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        /**
+         * Caching of paged listings. Pages hold entity IDs only and are keyed by a
+         * per-entity generation that is bumped whenever entities are added or removed.
+         * Approximate counts are kept in Redis and recounted once their time to live expires.
+         */
+        public static class Pages {
+
+            private boolean enabled = true;
+
+            private Duration timeToLive = Duration.ofMinutes(1);
+
+            private Duration approximateCountTimeToLive = Duration.ofMinutes(10);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+
+            public Duration getApproximateCountTimeToLive() {
+                return approximateCountTimeToLive;
+            }
+
+            public void setApproximateCountTimeToLive(Duration approximateCountTimeToLive) {
+                this.approximateCountTimeToLive = approximateCountTimeToLive;
+            }
+        }
+
+        /**
+         * The in-memory role registry and the channel used to refresh it on every replica.
+         */
+        public static class Roles {
+
+            private String channel = "role-registry-refresh";
+
+            public String getChannel() {
+                return channel;
+            }
+
+            public void setChannel(String channel) {
+                this.channel = channel;
+            }
+        }
+
+        public static class CircuitBreaker {
+
+            private boolean enabled = true;
+
+            private float failureRateThreshold = 50;
+
+            private float slowCallRateThreshold = 80;
+
+            private Duration slowCallDurationThreshold = Duration.ofMillis(50);
+
+            private int slidingWindowSize = 50;
+
+            private int minimumNumberOfCalls = 10;
+
+            private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+
+            private int permittedCallsInHalfOpenState = 5;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public float getFailureRateThreshold() {
+                return failureRateThreshold;
+            }
+
+            public void setFailureRateThreshold(float failureRateThreshold) {
+                this.failureRateThreshold = failureRateThreshold;
+            }
+
+            public float getSlowCallRateThreshold() {
+                return slowCallRateThreshold;
+            }
+
+            public void setSlowCallRateThreshold(float slowCallRateThreshold) {
+                this.slowCallRateThreshold = slowCallRateThreshold;
+            }
+
+            public Duration getSlowCallDurationThreshold() {
+                return slowCallDurationThreshold;
+            }
+
+            public void setSlowCallDurationThreshold(Duration slowCallDurationThreshold) {
+                this.slowCallDurationThreshold = slowCallDurationThreshold;
+            }
+
+            public int getSlidingWindowSize() {
+                return slidingWindowSize;
+            }
+
+            public void setSlidingWindowSize(int slidingWindowSize) {
+                this.slidingWindowSize = slidingWindowSize;
+            }
+
+            public int getMinimumNumberOfCalls() {
+                return minimumNumberOfCalls;
+            }
+
+            public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+                this.minimumNumberOfCalls = minimumNumberOfCalls;
+            }
+
+            public Duration getWaitDurationInOpenState() {
+                return waitDurationInOpenState;
+            }
+
+            public void setWaitDurationInOpenState(Duration waitDurationInOpenState) {
+                this.waitDurationInOpenState = waitDurationInOpenState;
+            }
+
+            public int getPermittedCallsInHalfOpenState() {
+                return permittedCallsInHalfOpenState;
+            }
+
+            public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+                this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+            }
+        }
+
+        public static class User {
+
+            private final NearCache nearCache = new NearCache();
+
+            private final SingleFlight singleFlight = new SingleFlight();
+
+            private final EarlyRefresh earlyRefresh = new EarlyRefresh();
+
+            private final UsernameFilter usernameFilter = new UsernameFilter();
+
+            private final AsyncWrite asyncWrite = new AsyncWrite();
+
+            private final WarmUp warmUp = new WarmUp();
+
+            private Duration negativeTimeToLive = Duration.ofSeconds(30);
+
+            private Duration timeToLive = Duration.ofMinutes(1);
+
+            private Duration timeToLiveJitter = Duration.ofSeconds(10);
+
+            private String invalidationChannel = "user-cache-invalidation";
+
+            private Serializer serializer = Serializer.JSON;
+
+            private Storage storage = Storage.VALUE;
+
+            public NearCache getNearCache() {
+                return nearCache;
+            }
+
+            public SingleFlight getSingleFlight() {
+                return singleFlight;
+            }
+
+            public EarlyRefresh getEarlyRefresh() {
+                return earlyRefresh;
+            }
+
+            public UsernameFilter getUsernameFilter() {
+                return usernameFilter;
+            }
+
+            public AsyncWrite getAsyncWrite() {
+                return asyncWrite;
+            }
+
+            public WarmUp getWarmUp() {
+                return warmUp;
+            }
+
+            public Duration getNegativeTimeToLive() {
+                return negativeTimeToLive;
+            }
+
+            public void setNegativeTimeToLive(Duration negativeTimeToLive) {
+                this.negativeTimeToLive = negativeTimeToLive;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+
+            public Duration getTimeToLiveJitter() {
+                return timeToLiveJitter;
+            }
+
+            public void setTimeToLiveJitter(Duration timeToLiveJitter) {
+                this.timeToLiveJitter = timeToLiveJitter;
+            }
+
+            public Storage getStorage() {
+                return storage;
+            }
+
+            public void setStorage(Storage storage) {
+                this.storage = storage;
+            }
+
+            public Serializer getSerializer() {
+                return serializer;
+            }
+
+            public void setSerializer(Serializer serializer) {
+                this.serializer = serializer;
+            }
+
+            public String getInvalidationChannel() {
+                return invalidationChannel;
+            }
+
+            public void setInvalidationChannel(String invalidationChannel) {
+                this.invalidationChannel = invalidationChannel;
+            }
+        }
+
+        /**
+         * Value format of cached users in Redis.
+         */
+        /**
+         * How each cached user is laid out in Redis: one serialized value per user, or one
+         * hash per user with a field per property so that partial updates and projections
+         * only touch the fields involved.
+         */
+        public enum Storage {
+            VALUE,
+            HASH
+        }
+
+        /**
+         * How near cache entries are invalidated. {@code PUBSUB} relies on the invalidation
+         * messages replicas publish on writes; {@code TRACKING} additionally has Redis push
+         * invalidations over a RESP3 client tracking connection, and falls back to
+         * {@code PUBSUB} when the server does not support it.
+         */
+        public enum Invalidation {
+            PUBSUB,
+            TRACKING
+        }
+
+        public enum Serializer {
+            JSON,
+            BINARY
+        }
+
+        public static class WarmUp {
+
+            /**
+             * Where the hot set of users to warm up comes from.
+             */
+            public enum Source {
+                LAST_SHUTDOWN,
+                RECENTLY_MODIFIED
+            }
+
+            private boolean enabled = true;
+
+            private Source source = Source.LAST_SHUTDOWN;
+
+            private int maxUsers = 10_000;
+
+            private int batchSize = 500;
+
+            private Duration timeBudget = Duration.ofSeconds(30);
+
+            private String snapshotKey = "user:warm-up:ids";
+
+            private Duration snapshotTimeToLive = Duration.ofDays(7);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Source getSource() {
+                return source;
+            }
+
+            public void setSource(Source source) {
+                this.source = source;
+            }
+
+            public int getMaxUsers() {
+                return maxUsers;
+            }
+
+            public void setMaxUsers(int maxUsers) {
+                this.maxUsers = maxUsers;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public Duration getTimeBudget() {
+                return timeBudget;
+            }
+
+            public void setTimeBudget(Duration timeBudget) {
+                this.timeBudget = timeBudget;
+            }
+
+            public String getSnapshotKey() {
+                return snapshotKey;
+            }
+
+            public void setSnapshotKey(String snapshotKey) {
+                this.snapshotKey = snapshotKey;
+            }
+
+            public Duration getSnapshotTimeToLive() {
+                return snapshotTimeToLive;
+            }
+
+            public void setSnapshotTimeToLive(Duration snapshotTimeToLive) {
+                this.snapshotTimeToLive = snapshotTimeToLive;
+            }
+        }
+
+        public static class AsyncWrite {
+
+            private int threads = 2;
+
+            private int queueCapacity = 10_000;
+
+            public int getThreads() {
+                return threads;
+            }
+
+            public void setThreads(int threads) {
+                this.threads = threads;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+        }
+
+        public static class UsernameFilter {
+
+            private boolean enabled = true;
+
+            private long expectedInsertions = 1_000_000;
+
+            private double falsePositiveProbability = 0.01;
+
+            private Duration rebuildInterval = Duration.ofMinutes(30);
+
+            private String channel = "user-username-added";
+
+            private int fallbackLookupsPerSecond = 10;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getExpectedInsertions() {
+                return expectedInsertions;
+            }
+
+            public void setExpectedInsertions(long expectedInsertions) {
+                this.expectedInsertions = expectedInsertions;
+            }
+
+            public double getFalsePositiveProbability() {
+                return falsePositiveProbability;
+            }
+
+            public void setFalsePositiveProbability(double falsePositiveProbability) {
+                this.falsePositiveProbability = falsePositiveProbability;
+            }
+
+            public Duration getRebuildInterval() {
+                return rebuildInterval;
+            }
+
+            public void setRebuildInterval(Duration rebuildInterval) {
+                this.rebuildInterval = rebuildInterval;
+            }
+
+            public String getChannel() {
+                return channel;
+            }
+
+            public void setChannel(String channel) {
+                this.channel = channel;
+            }
+
+            public int getFallbackLookupsPerSecond() {
+                return fallbackLookupsPerSecond;
+            }
+
+            public void setFallbackLookupsPerSecond(int fallbackLookupsPerSecond) {
+                this.fallbackLookupsPerSecond = fallbackLookupsPerSecond;
+            }
+        }
+
+        public static class EarlyRefresh {
+
+            private boolean enabled = true;
+
+            private double beta = 1.0;
+
+            private Duration recomputeTime = Duration.ofMillis(100);
+
+            private int maxConcurrentRefreshes = 2;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public double getBeta() {
+                return beta;
+            }
+
+            public void setBeta(double beta) {
+                this.beta = beta;
+            }
+
+            public Duration getRecomputeTime() {
+                return recomputeTime;
+            }
+
+            public void setRecomputeTime(Duration recomputeTime) {
+                this.recomputeTime = recomputeTime;
+            }
+
+            public int getMaxConcurrentRefreshes() {
+                return maxConcurrentRefreshes;
+            }
+
+            public void setMaxConcurrentRefreshes(int maxConcurrentRefreshes) {
+                this.maxConcurrentRefreshes = maxConcurrentRefreshes;
+            }
+        }
+
+        public static class SingleFlight {
+
+            /**
+             * How concurrent cache misses for the same user are coalesced.
+             */
+            public enum Mode {
+                LOCAL,
+                REDIS
+            }
+
+            private Mode mode = Mode.LOCAL;
+
+            private Duration lockTimeToLive = Duration.ofSeconds(5);
+
+            private Duration waitTimeout = Duration.ofSeconds(2);
+
+            private Duration pollInterval = Duration.ofMillis(50);
+
+            public Mode getMode() {
+                return mode;
+            }
+
+            public void setMode(Mode mode) {
+                this.mode = mode;
+            }
+
+            public Duration getLockTimeToLive() {
+                return lockTimeToLive;
+            }
+
+            public void setLockTimeToLive(Duration lockTimeToLive) {
+                this.lockTimeToLive = lockTimeToLive;
+            }
+
+            public Duration getWaitTimeout() {
+                return waitTimeout;
+            }
+
+            public void setWaitTimeout(Duration waitTimeout) {
+                this.waitTimeout = waitTimeout;
+            }
+
+            public Duration getPollInterval() {
+                return pollInterval;
+            }
+
+            public void setPollInterval(Duration pollInterval) {
+                this.pollInterval = pollInterval;
+            }
+        }
+
+        public static class NearCache {
+
+            private boolean enabled = true;
+
+            private long maximumSize = 10_000;
+
+            private Duration timeToLive = Duration.ofSeconds(30);
+
+            private Invalidation invalidation = Invalidation.PUBSUB;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Invalidation getInvalidation() {
+                return invalidation;
+            }
+
+            public void setInvalidation(Invalidation invalidation) {
+                this.invalidation = invalidation;
+            }
+
+            public long getMaximumSize() {
+                return maximumSize;
+            }
+
+            public void setMaximumSize(long maximumSize) {
+                this.maximumSize = maximumSize;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -4,15 +4,26 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ideas2it.training.user.service.caching.UserInfoBinaryRedisSerializer;
+import com.ideas2it.training.user.service.caching.UserNearCache;
+import com.ideas2it.training.user.service.impl.KnownUsernameFilter;
+import com.ideas2it.training.user.service.impl.RoleRegistry;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisPassword;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
@@ -41,34 +52,81 @@ public class RedisCacheConfig {
      * Configures the Redis connection factory.
      * <p>
      * This method sets up a standalone Redis configuration with host, port,
-     * and password details.
+     * and password details. Commands and connection attempts are bounded by
+     * {@code application.cache.command-timeout} and {@code application.cache.connect-timeout}
+     * so a slow Redis fails fast instead of blocking request threads.
      * </p>
      *
+     * @param applicationProperties the application properties holding the timeouts
      * @return the RedisConnectionFactory bean
      */
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
+    public RedisConnectionFactory redisConnectionFactory(ApplicationProperties applicationProperties) {
         RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(redisHost, redisPort);
         config.setPassword(RedisPassword.of(redisPassword));
-        return new LettuceConnectionFactory(config);
+        return new LettuceConnectionFactory(config, lettuceClientConfiguration(applicationProperties.getCache()));
+    }
+
+    /**
+     * Builds the Lettuce client configuration with strict command and connect timeouts.
+     *
+     * @param cache the cache settings holding the timeouts
+     * @return the client configuration
+     */
+    public static LettuceClientConfiguration lettuceClientConfiguration(ApplicationProperties.Cache cache) {
+        ClientOptions clientOptions = ClientOptions.builder()
+                .socketOptions(SocketOptions.builder().connectTimeout(cache.getConnectTimeout()).build())
+                .timeoutOptions(TimeoutOptions.enabled(cache.getCommandTimeout()))
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .build();
+        return LettuceClientConfiguration.builder()
+                .commandTimeout(cache.getCommandTimeout())
+                .clientOptions(clientOptions)
+                .build();
     }
 
     /**
      * Configures the Redis template.
      * <p>
-     * This method sets up a Redis template with custom key and value serializers,
-     * including support for Java time module and polymorphic type handling.
+     * This method sets up a Redis template with custom key and value serializers.
+     * Values are written as JSON with Java time support and polymorphic type handling,
+     * or, when {@code application.cache.user.serializer} is {@code binary}, users are
+     * written in a compact binary format and everything else falls back to JSON. Hash
+     * fields and values are plain strings, as used by the hash storage of users.
      * </p>
      *
-     * @param factory the RedisConnectionFactory
+     * @param factory               the RedisConnectionFactory
+     * @param applicationProperties the application properties selecting the value format
      * @return the RedisTemplate bean
      */
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory,
+                                                       ApplicationProperties applicationProperties) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(factory);
         template.setKeySerializer(new StringRedisSerializer());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(new StringRedisSerializer());
 
+        RedisSerializer<Object> jsonSerializer = jsonRedisSerializer();
+        if (applicationProperties.getCache().getUser().getSerializer() == ApplicationProperties.Cache.Serializer.BINARY) {
+            template.setValueSerializer(new UserInfoBinaryRedisSerializer(jsonSerializer));
+        } else {
+            template.setValueSerializer(jsonSerializer);
+        }
+        return template;
+    }
+
+    /**
+     * Builds the JSON value serializer.
+     * <p>
+     * Registers the Java time module and enables default typing so that values can be
+     * read back as their concrete class.
+     * </p>
+     *
+     * @return the JSON RedisSerializer
+     */
+    public static RedisSerializer<Object> jsonRedisSerializer() {
         // Register Java Time Module
         Jackson2JsonRedisSerializer<Object> jsonSerializer = new Jackson2JsonRedisSerializer<>(Object.class);
         ObjectMapper mapper = new ObjectMapper();
@@ -80,7 +138,33 @@ public class RedisCacheConfig {
                 JsonTypeInfo.As.PROPERTY
         );
         jsonSerializer.setObjectMapper(mapper);
-        template.setValueSerializer(jsonSerializer);
-        return template;
+        return jsonSerializer;
+    }
+
+    /**
+     * Configures the Redis pub/sub listener container.
+     * <p>
+     * This method subscribes the user near cache to the invalidation channel so that
+     * writes on other replicas evict the local copy of the affected user. New usernames and
+     * role changes on other replicas are received the same way.
+     * </p>
+     *
+     * @param factory             the RedisConnectionFactory
+     * @param userNearCache       the near cache listening for invalidation messages
+     * @param knownUsernameFilter the username filter listening for new usernames
+     * @param roleRegistry        the role registry listening for role changes
+     * @return the RedisMessageListenerContainer bean
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory factory,
+                                                                       UserNearCache userNearCache,
+                                                                       KnownUsernameFilter knownUsernameFilter,
+                                                                       RoleRegistry roleRegistry) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(userNearCache, new ChannelTopic(userNearCache.getChannel()));
+        container.addMessageListener(knownUsernameFilter, new ChannelTopic(knownUsernameFilter.getChannel()));
+        container.addMessageListener(roleRegistry, new ChannelTopic(roleRegistry.getChannel()));
+        return container;
     }
 }
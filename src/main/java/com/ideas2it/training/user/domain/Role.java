@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serializable;
 import java.util.HashSet;
@@ -13,6 +15,8 @@ import java.util.Set;
  * Entity representing a Role in the system.
  * Includes attributes for role name and associated users.
  * Extends auditing functionality for tracking creation and modification details.
+ * Roles are held in the local second-level cache. They can still be edited, so cached entries
+ * are invalidated on change rather than being read-only.
  *
  * @author Alagu Nirmal Mahendran
  * @created 2025-04-21
@@ -20,11 +24,14 @@ import java.util.Set;
 @EqualsAndHashCode(callSuper = true, exclude = {"users"})
 @Entity
 @Table(name = "roles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "roles")
 @Data
 public class Role extends AbstractAuditingEntity<Long> implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator", sequenceName = "sequence_generator", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
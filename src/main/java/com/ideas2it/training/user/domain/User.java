@@ -3,6 +3,9 @@ package com.ideas2it.training.user.domain;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.EqualsAndHashCode;
 
 import java.io.Serializable;
@@ -24,7 +27,8 @@ import java.util.Set;
 public class User extends AbstractAuditingEntity<Long> implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator", sequenceName = "sequence_generator", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -40,7 +44,14 @@ public class User extends AbstractAuditingEntity<Long> implements Serializable {
     private String address;
     private String postalCode;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    /**
+     * Loaded lazily. Single-user lookups fetch roles through entity graphs, and paged lists
+     * initialize the roles of up to 100 users with one batched query instead of one per user.
+     * Loaded role IDs are kept in the second-level cache and resolved through the cached roles.
+     */
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "user-roles")
     @JoinTable(
             name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
@@ -0,0 +1,44 @@
+package com.ideas2it.training.user.domain;
+
+import com.ideas2it.training.user.enums.ImportStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.io.Serializable;
+
+/**
+ * Entity representing a CSV import of users.
+ * Tracks the progress of the import and its checkpoint, the number of data rows already
+ * handled, which is committed together with each chunk of imported users.
+ * Extends auditing functionality; the last modified date doubles as the heartbeat of a running job.
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "user_import_jobs")
+@Data
+public class UserImportJob extends AbstractAuditingEntity<Long> implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator", sequenceName = "sequence_generator", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String file;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ImportStatus status;
+
+    private long processedRows;
+    private long importedRows;
+    private long rejectedRows;
+
+    @Column(length = 1000)
+    private String error;
+
+}
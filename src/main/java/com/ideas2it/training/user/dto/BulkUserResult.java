@@ -0,0 +1,24 @@
+package com.ideas2it.training.user.dto;
+
+import com.ideas2it.training.user.enums.BulkStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Data Transfer Object for the result of one row of a bulk user creation.
+ * Carries the ID of the created user, or the reason the row was rejected.
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Getter
+@Builder
+public class BulkUserResult {
+
+    private final int index;
+    private final String username;
+    private final BulkStatus status;
+    private final Long id;
+    private final String error;
+
+}
@@ -0,0 +1,65 @@
+package com.ideas2it.training.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Data Transfer Object for a keyset (cursor) paginated response.
+ * Holds one page of items and the opaque cursor of the next page, which is null on the last page.
+ * <p>
+ * A cursor encodes the ID of the last item returned, so the next page is read with
+ * {@code id > cursor} on the primary key index and costs the same however deep it is.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    private List<T> items;
+    private String nextCursor;
+    private int size;
+
+    /**
+     * Encodes the ID of the last item of a page as an opaque cursor.
+     *
+     * @param lastId the ID of the last item returned
+     * @return the cursor
+     */
+    public static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor back to the ID after which the page starts.
+     *
+     * @param cursor the cursor, or null or blank for the first page
+     * @return the ID to read after; 0 for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(value.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.util.List;
 /**
  * Data Transfer Object for Paged Response.
  * Represents paginated response data for API results.
+ * The total is null when the listing was not counted, and an estimate when {@code totalApproximate} is set.
  *
  * @author Alagu Nirmal Mahendran
  * @created 2025-04-21
@@ -18,7 +19,13 @@ import java.util.List;
 @NoArgsConstructor
 public class PagedResponse<T> {
     private List<T> items;
-    private long totalElements;
+    private Long totalElements;
+    private boolean totalApproximate;
+    private boolean hasNext;
     private int page;
     private int size;
+
+    public PagedResponse(List<T> items, long totalElements, int page, int size) {
+        this(items, totalElements, false, (long) (page + 1) * size < totalElements, page, size);
+    }
 }
@@ -0,0 +1,30 @@
+package com.ideas2it.training.user.dto;
+
+import com.ideas2it.training.user.enums.ExportFormat;
+import com.ideas2it.training.user.enums.ExportStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object for the progress of a user export job.
+ * Rows per second is measured over the whole run, so far or until completion.
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Getter
+@Builder
+public class UserExportJobInfo {
+
+    private final String id;
+    private final ExportFormat format;
+    private final ExportStatus status;
+    private final long rows;
+    private final double rowsPerSecond;
+    private final String error;
+    private final Instant startedDate;
+    private final Instant finishedDate;
+
+}
@@ -0,0 +1,30 @@
+package com.ideas2it.training.user.dto;
+
+import com.ideas2it.training.user.enums.ImportStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object for the progress of a user import job.
+ * Processed rows is the checkpoint a restarted job resumes from; rejected rows are listed,
+ * with their reasons, in the rejects file next to the imported one.
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Getter
+@Builder
+public class UserImportJobInfo {
+
+    private final Long id;
+    private final ImportStatus status;
+    private final long processedRows;
+    private final long importedRows;
+    private final long rejectedRows;
+    private final String error;
+    private final Instant createdDate;
+    private final Instant lastModifiedDate;
+
+}
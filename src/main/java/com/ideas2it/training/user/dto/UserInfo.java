@@ -2,10 +2,13 @@ package com.ideas2it.training.user.dto;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 
 import java.time.Instant;
+import java.util.Collections;
 import java.util.Set;
 
 /**
@@ -18,6 +21,7 @@ import java.util.Set;
  */
 @Getter
 @Builder(toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 @JsonDeserialize(builder = UserInfo.UserInfoBuilder.class)
 public class UserInfo {
 
@@ -35,6 +39,20 @@ public class UserInfo {
     private final Instant lastModifiedDate;
     private final String lastModifiedBy;
 
+    /**
+     * Constructor used by the {@code select new} queries of {@code UserRepository}, which
+     * read users as DTOs with their role names aggregated into one comma-separated string.
+     *
+     * @param roles the comma-separated role names, or null if the user has no roles
+     */
+    public UserInfo(Long id, String username, String firstName, String lastName, String email, String mobile,
+                    String address, String postalCode, Instant createdDate, String createdBy,
+                    Instant lastModifiedDate, String lastModifiedBy, String roles) {
+        this(id, username, firstName, lastName, email, mobile, address, postalCode,
+                roles == null ? Collections.emptySet() : Set.of(roles.split(",")),
+                createdDate, createdBy, lastModifiedDate, lastModifiedBy);
+    }
+
     @JsonPOJOBuilder(withPrefix = "") // Tell Jackson builder methods have no prefix (e.g., "id()" not "withId()")
     public static class UserInfoBuilder {
     }
@@ -0,0 +1,13 @@
+package com.ideas2it.training.user.enums;
+
+/**
+ * Outcome of a single row of a bulk operation.
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+public enum BulkStatus {
+    CREATED,
+    FAILED;
+
+}
@@ -0,0 +1,16 @@
+package com.ideas2it.training.user.enums;
+
+/**
+ * How a paged listing reports its total number of elements.
+ * EXACT runs a count query, NONE skips counting and only reports whether a next page exists,
+ * and APPROXIMATE reports a cheap estimate that may lag behind recent changes.
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+public enum CountMode {
+    EXACT,
+    NONE,
+    APPROXIMATE;
+
+}
@@ -0,0 +1,14 @@
+package com.ideas2it.training.user.enums;
+
+/**
+ * File format of a user export. CSV lists roles in one column separated by {@code |},
+ * the same layout the CSV import reads; NDJSON writes one user object per line.
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+public enum ExportFormat {
+    CSV,
+    NDJSON;
+
+}
@@ -0,0 +1,14 @@
+package com.ideas2it.training.user.enums;
+
+/**
+ * Lifecycle of a user export job.
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+public enum ExportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED;
+
+}
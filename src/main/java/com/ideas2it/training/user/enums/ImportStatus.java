@@ -0,0 +1,17 @@
+package com.ideas2it.training.user.enums;
+
+/**
+ * Lifecycle of a user import job.
+ * A QUEUED job waits for its pipeline to start, RUNNING jobs commit chunks and advance their
+ * checkpoint, and a FAILED job can be restarted from its last checkpoint.
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+public enum ImportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED;
+
+}
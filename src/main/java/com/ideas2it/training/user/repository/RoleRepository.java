@@ -1,19 +1,32 @@
 package com.ideas2it.training.user.repository;
 
 import com.ideas2it.training.user.domain.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for {@link Role} entity.
  * Provides basic CRUD operations inherited from {@link JpaRepository}.
+ * Lookups by name go through the query cache, which Hibernate invalidates whenever the
+ * {@code roles} table changes.
  *
  * @author Alagu Nirmal Mahendran
  * @created 2025-04-21
  */
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "role-by-name")
+    })
     Optional<Role> findByName(String name); // Fetch Role by name
+
+    List<Role> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit); // Keyset page on the primary key, no count
 }
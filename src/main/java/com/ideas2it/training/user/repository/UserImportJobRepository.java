@@ -0,0 +1,43 @@
+package com.ideas2it.training.user.repository;
+
+import com.ideas2it.training.user.domain.UserImportJob;
+import com.ideas2it.training.user.enums.ImportStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Repository interface for {@link UserImportJob} entity.
+ * Progress is written with single update statements so that the checkpoint can be
+ * committed in the same transaction as the chunk of users it covers.
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Repository
+public interface UserImportJobRepository extends JpaRepository<UserImportJob, Long> {
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update UserImportJob j set j.status = :running, j.error = null, j.lastModifiedDate = :now "
+            + "where j.id = :id and (j.status <> :running or j.lastModifiedDate < :staleBefore)")
+    int claim(@Param("id") Long id, @Param("running") ImportStatus running, @Param("now") Instant now,
+              @Param("staleBefore") Instant staleBefore); // 1 if this caller now runs the job
+
+    @Modifying
+    @Query("update UserImportJob j set j.processedRows = :processedRows, j.importedRows = j.importedRows + :imported, "
+            + "j.rejectedRows = j.rejectedRows + :rejected, j.lastModifiedDate = :now where j.id = :id")
+    int checkpoint(@Param("id") Long id, @Param("processedRows") long processedRows, @Param("imported") long imported,
+                   @Param("rejected") long rejected, @Param("now") Instant now); // Joins the chunk transaction
+
+    @Transactional
+    @Modifying
+    @Query("update UserImportJob j set j.status = :status, j.error = :error, j.lastModifiedDate = :now where j.id = :id")
+    int finish(@Param("id") Long id, @Param("status") ImportStatus status, @Param("error") String error,
+               @Param("now") Instant now);
+}
@@ -1,19 +1,92 @@
 package com.ideas2it.training.user.repository;
 
 import com.ideas2it.training.user.domain.User;
+import com.ideas2it.training.user.dto.UserInfo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for {@link User} entity.
  * Provides basic CRUD operations inherited from {@link JpaRepository}.
+ * Roles are lazy: lookups that map roles join them through entity graphs, while paged
+ * queries rely on batch fetching, since joining a collection would page in memory.
+ * <p>
+ * Read paths use the {@code find*Info*} queries instead, which select {@link UserInfo} DTOs
+ * directly with the role names aggregated in SQL, grouped per user so that pages stay in the
+ * database. They never hydrate managed entities or read the password hash.
  *
  * @author Alagu Nirmal Mahendran
  * @created 2025-04-21
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsername(String username);
+
+    String SELECT_INFO = "select new com.ideas2it.training.user.dto.UserInfo(u.id, u.username, u.firstName, "
+            + "u.lastName, u.email, u.mobile, u.address, u.postalCode, u.createdDate, u.createdBy, "
+            + "u.lastModifiedDate, u.lastModifiedBy, listagg(r.name, ',') within group (order by r.name)) "
+            + "from User u left join u.roles r";
+
+    String GROUP_INFO = " group by u.id, u.username, u.firstName, u.lastName, u.email, u.mobile, u.address, "
+            + "u.postalCode, u.createdDate, u.createdBy, u.lastModifiedDate, u.lastModifiedBy";
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findByUsername(String username); // Roles joined, needed for authorities
+
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findById(Long id); // Roles joined, every caller maps the user with its roles
+
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    List<User> findAll(); // Single query, roles joined
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u from User u")
+    Stream<User> streamAll(); // Must be consumed inside a transaction; roles are batch fetched
+
+    @Query("select u.username from User u where u.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.username from User u")
+    Stream<String> streamAllUsernames(); // Must be consumed inside a transaction
+
+    @Query("select u.id from User u order by u.lastModifiedDate desc")
+    List<Long> findRecentlyModifiedIds(Pageable pageable);
+
+    @Query(SELECT_INFO + " where u.id = :id" + GROUP_INFO)
+    Optional<UserInfo> findInfoById(@Param("id") Long id);
+
+    @Query(SELECT_INFO + " where u.id in :ids" + GROUP_INFO)
+    List<UserInfo> findInfoByIdIn(@Param("ids") Collection<Long> ids); // Single IN query
+
+    @Query(SELECT_INFO + GROUP_INFO)
+    List<UserInfo> findAllInfo();
+
+    @Query(value = SELECT_INFO + GROUP_INFO + " order by u.id", countQuery = "select count(u) from User u")
+    Page<UserInfo> findAllInfo(Pageable pageable);
+
+    @Query(SELECT_INFO + GROUP_INFO + " order by u.id")
+    Slice<UserInfo> findInfoSlice(Pageable pageable); // Reads one extra row instead of running a count query
+
+    @Query(SELECT_INFO + " where u.id > :id" + GROUP_INFO + " order by u.id")
+    List<UserInfo> findInfoByIdGreaterThan(@Param("id") Long id, Limit limit); // Keyset page on the primary key, no count
 }
@@ -1,5 +1,6 @@
 package com.ideas2it.training.user.service;
 
+import com.ideas2it.training.user.dto.CursorPage;
 import com.ideas2it.training.user.dto.PagedResponse;
 import com.ideas2it.training.user.dto.RoleCreateDto;
 import com.ideas2it.training.user.dto.RoleInfo;
@@ -30,5 +31,7 @@ public interface RoleService {
 
     PagedResponse<RoleInfo> getAllPaged(int offset, int limit);
 
+    CursorPage<RoleInfo> getPageAfter(String cursor, int limit);
+
     void delete(Long id);
 }
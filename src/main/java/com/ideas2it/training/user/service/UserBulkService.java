@@ -0,0 +1,17 @@
+package com.ideas2it.training.user.service;
+
+import com.ideas2it.training.user.dto.BulkUserResult;
+import com.ideas2it.training.user.dto.UserCreateDto;
+
+import java.util.List;
+
+/**
+ * Service interface for creating users in bulk.
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+public interface UserBulkService {
+
+    List<BulkUserResult> createAll(List<UserCreateDto> dtos);
+}
@@ -0,0 +1,22 @@
+package com.ideas2it.training.user.service;
+
+import com.ideas2it.training.user.dto.UserExportJobInfo;
+import com.ideas2it.training.user.enums.ExportFormat;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Service interface for exporting users to compressed files.
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+public interface UserExportService {
+
+    UserExportJobInfo start(ExportFormat format);
+
+    Optional<UserExportJobInfo> getById(String id);
+
+    Optional<Path> getFile(String id);
+}
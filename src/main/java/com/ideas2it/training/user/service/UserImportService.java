@@ -0,0 +1,21 @@
+package com.ideas2it.training.user.service;
+
+import com.ideas2it.training.user.dto.UserImportJobInfo;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Service interface for importing users from CSV files.
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+public interface UserImportService {
+
+    UserImportJobInfo start(InputStream csv);
+
+    Optional<UserImportJobInfo> restart(Long id);
+
+    Optional<UserImportJobInfo> getById(Long id);
+}
@@ -1,12 +1,15 @@
 package com.ideas2it.training.user.service;
 
+import com.ideas2it.training.user.dto.CursorPage;
 import com.ideas2it.training.user.dto.PagedResponse;
 import com.ideas2it.training.user.dto.UserCreateDto;
 import com.ideas2it.training.user.dto.UserInfo;
 import com.ideas2it.training.user.dto.UserUpdateDto;
+import com.ideas2it.training.user.enums.CountMode;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service interface for managing users.
@@ -25,10 +28,18 @@ public interface UserService {
 
     Optional<UserInfo> getById(Long id);
 
+    List<UserInfo> getByIds(List<Long> ids);
+
     List<UserInfo> getAll();
 
+    void streamAll(Consumer<UserInfo> consumer);
+
     PagedResponse<UserInfo> getAllPaged(int offset, int limit);
 
+    PagedResponse<UserInfo> getAllPaged(int offset, int limit, CountMode countMode);
+
+    CursorPage<UserInfo> getPageAfter(String cursor, int limit);
+
     void delete(Long id);
 
 }
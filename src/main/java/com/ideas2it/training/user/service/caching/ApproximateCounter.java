@@ -0,0 +1,161 @@
+package com.ideas2it.training.user.service.caching;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Provides cheap, approximate entity counts for paged listings.
+ * <p>
+ * On PostgreSQL the planner statistics in {@code pg_class.reltuples} are read, which costs
+ * a single catalog lookup whatever the table size. Elsewhere, or while a table has not been
+ * analyzed yet, a counter is kept in Redis under {@code count:{entity}}: it is seeded from an
+ * exact count, adjusted after every commit that adds or removes entities, and recounted once
+ * its time to live expires so that drift stays bounded. Redis calls run through the
+ * {@link CacheGuard}; failures, and calls the guard rejects, fall back to an exact count.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Component
+public class ApproximateCounter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ApproximateCounter.class);
+
+    private static final String COUNT_KEY_PREFIX = "count:";
+
+    private static final String PLANNER_ESTIMATE = "select reltuples::bigint from pg_class where oid = to_regclass(?)";
+
+    /**
+     * Adjusts a counter only if it exists; a missing counter is seeded from an exact count on the next read.
+     */
+    private static final RedisScript<Long> ADD = new DefaultRedisScript<>("""
+            if redis.call('exists', KEYS[1]) == 1 then
+              return redis.call('incrby', KEYS[1], ARGV[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CacheGuard cacheGuard;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationProperties.Cache.Pages properties;
+
+    private volatile Boolean postgres;
+
+    /**
+     * Constructor to initialize dependencies.
+     *
+     * @param stringRedisTemplate   the template used to store counters
+     * @param cacheGuard            the guard every Redis call runs through
+     * @param jdbcTemplate          the template used to read planner statistics
+     * @param applicationProperties the application properties holding the counter time to live
+     */
+    public ApproximateCounter(StringRedisTemplate stringRedisTemplate, CacheGuard cacheGuard, JdbcTemplate jdbcTemplate,
+                              ApplicationProperties applicationProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cacheGuard = cacheGuard;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = applicationProperties.getCache().getPages();
+    }
+
+    /**
+     * Returns the approximate number of entities.
+     *
+     * @param entity the name of the counted entity, e.g. {@code user}
+     * @param table  the table holding the entities
+     * @param exact  runs an exact count, used to seed the counter
+     * @return the approximate count
+     */
+    public long count(String entity, String table, LongSupplier exact) {
+        Long estimate = plannerEstimate(table);
+        if (estimate != null) {
+            return estimate;
+        }
+        String key = COUNT_KEY_PREFIX + entity;
+        try {
+            String cached = cacheGuard.call(() -> stringRedisTemplate.opsForValue().get(key));
+            if (cached != null) {
+                return Long.parseLong(cached);
+            }
+        } catch (RuntimeException e) {
+            LOG.debug("Count cache read failed, counting in the database: {}", e.getMessage());
+            return exact.getAsLong();
+        }
+        long count = exact.getAsLong();
+        try {
+            cacheGuard.call(() -> stringRedisTemplate.opsForValue()
+                    .setIfAbsent(key, String.valueOf(count), properties.getApproximateCountTimeToLive()));
+        } catch (RuntimeException e) {
+            LOG.debug("Count cache write failed: {}", e.getMessage());
+        }
+        return count;
+    }
+
+    /**
+     * Adjusts the counter of an entity once the current transaction commits.
+     *
+     * @param entity the name of the counted entity
+     * @param delta  the number of entities added, negative for removed ones
+     */
+    public void add(String entity, long delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(entity, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(entity, delta);
+            }
+        });
+    }
+
+    private void apply(String entity, long delta) {
+        try {
+            cacheGuard.call(() -> stringRedisTemplate.execute(ADD, List.of(COUNT_KEY_PREFIX + entity), String.valueOf(delta)));
+        } catch (RuntimeException e) {
+            LOG.debug("Could not adjust the {} count: {}", entity, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the planner estimate on PostgreSQL; null elsewhere or if the table was never analyzed.
+     */
+    private Long plannerEstimate(String table) {
+        try {
+            if (!isPostgres()) {
+                return null;
+            }
+            Long estimate = jdbcTemplate.queryForObject(PLANNER_ESTIMATE, Long.class, table);
+            return estimate != null && estimate >= 0 ? estimate : null;
+        } catch (DataAccessException e) {
+            LOG.debug("Could not read planner statistics of {}: {}", table, e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean current = postgres;
+        if (current == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            current = "PostgreSQL".equalsIgnoreCase(product);
+            postgres = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ideas2it.training.user.service.caching;
+
+import java.util.function.Supplier;
+
+/**
+ * Guards Redis calls made outside {@link UserCacheService}, such as page caching, counters
+ * and load locks, with the same protection as the user cache, so an unavailable Redis is
+ * short-circuited on every path at once.
+ * <p>
+ * A guarded call either returns the result of the call or throws: the failure of the call
+ * itself, or an exception without touching Redis while the guard is rejecting calls. Callers
+ * fall back to the database as they would on any Redis failure.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+public interface CacheGuard {
+
+    /**
+     * A guard that runs every call directly.
+     */
+    CacheGuard NONE = new CacheGuard() {
+        @Override
+        public <T> T call(Supplier<T> call) {
+            return call.get();
+        }
+    };
+
+    /**
+     * Runs a Redis call through the guard.
+     *
+     * @param call the call to run
+     * @param <T>  the result type
+     * @return the result of the call
+     */
+    <T> T call(Supplier<T> call);
+
+    /**
+     * Runs a Redis call without a result through the guard.
+     *
+     * @param call the call to run
+     */
+    default void run(Runnable call) {
+        call(() -> {
+            call.run();
+            return null;
+        });
+    }
+}
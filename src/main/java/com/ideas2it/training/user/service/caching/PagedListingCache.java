@@ -0,0 +1,144 @@
+package com.ideas2it.training.user.service.caching;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.dto.PagedResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Caches paged listings as pages of entity IDs in Redis.
+ * <p>
+ * A page is stored under {@code page:{entity}:{generation}:{offset}:{limit}} together with
+ * its total count, so a hit skips both the content query and the {@code count(*)}. The
+ * generation is a per-entity counter bumped after every commit that adds or removes entities;
+ * pages of older generations are never read again and simply expire, so no key scan is needed.
+ * Pages hold IDs only and are hydrated by the caller, e.g. through the user cache, so they stay
+ * small and always show the latest state of each entity. Redis calls run through the
+ * {@link CacheGuard}; failures, and calls the guard rejects, fall back to the loader.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Component
+public class PagedListingCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PagedListingCache.class);
+
+    private static final String GENERATION_KEY_PREFIX = "page:generation:";
+
+    private static final String PAGE_KEY_PREFIX = "page:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CacheGuard cacheGuard;
+    private final ApplicationProperties.Cache.Pages properties;
+
+    /**
+     * Constructor to initialize dependencies.
+     *
+     * @param stringRedisTemplate   the template used to store generations and pages
+     * @param cacheGuard            the guard every Redis call runs through
+     * @param applicationProperties the application properties holding page cache settings
+     */
+    public PagedListingCache(StringRedisTemplate stringRedisTemplate, CacheGuard cacheGuard,
+                             ApplicationProperties applicationProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cacheGuard = cacheGuard;
+        this.properties = applicationProperties.getCache().getPages();
+    }
+
+    /**
+     * Returns a page from the cache, hydrating its IDs, or loads and caches it on a miss.
+     *
+     * @param entity  the name of the listed entity, e.g. {@code user}
+     * @param offset  the starting index of the page
+     * @param limit   the page size
+     * @param hydrate loads the items for the cached IDs, in the order given
+     * @param loader  loads the page from the database on a miss
+     * @param idOf    extracts the ID of an item
+     * @param <T>     the item type
+     * @return the page
+     */
+    public <T> PagedResponse<T> getPage(String entity, int offset, int limit, Function<List<Long>, List<T>> hydrate,
+                                        Supplier<PagedResponse<T>> loader, Function<T, Long> idOf) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        String key;
+        String cached;
+        try {
+            String generation = cacheGuard.call(() -> stringRedisTemplate.opsForValue().get(GENERATION_KEY_PREFIX + entity));
+            key = PAGE_KEY_PREFIX + entity + ":" + (generation != null ? generation : "0") + ":" + offset + ":" + limit;
+            cached = cacheGuard.call(() -> stringRedisTemplate.opsForValue().get(key));
+        } catch (RuntimeException e) {
+            LOG.debug("Page cache read failed, loading from the database: {}", e.getMessage());
+            return loader.get();
+        }
+        if (cached != null) {
+            return decode(cached, hydrate);
+        }
+        PagedResponse<T> page = loader.get();
+        try {
+            String value = encode(page, idOf);
+            cacheGuard.run(() -> stringRedisTemplate.opsForValue().set(key, value, properties.getTimeToLive()));
+        } catch (RuntimeException e) {
+            LOG.debug("Page cache write failed: {}", e.getMessage());
+        }
+        return page;
+    }
+
+    /**
+     * Bumps the generation of an entity once the current transaction commits, so that all
+     * cached pages of the entity are bypassed from then on.
+     *
+     * @param entity the name of the listed entity
+     */
+    public void invalidate(String entity) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(entity);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(entity);
+            }
+        });
+    }
+
+    private void bump(String entity) {
+        try {
+            cacheGuard.call(() -> stringRedisTemplate.opsForValue().increment(GENERATION_KEY_PREFIX + entity));
+        } catch (RuntimeException e) {
+            LOG.warn("Could not invalidate cached {} pages: {}", entity, e.getMessage());
+        }
+    }
+
+    /**
+     * Encodes a page as {@code totalElements:page:size:id,id,...}.
+     */
+    private static <T> String encode(PagedResponse<T> page, Function<T, Long> idOf) {
+        return page.getTotalElements() + ":" + page.getPage() + ":" + page.getSize() + ":"
+                + page.getItems().stream().map(item -> String.valueOf(idOf.apply(item))).collect(Collectors.joining(","));
+    }
+
+    private static <T> PagedResponse<T> decode(String value, Function<List<Long>, List<T>> hydrate) {
+        String[] parts = value.split(":", 4);
+        List<Long> ids = parts[3].isEmpty() ? List.of() : Arrays.stream(parts[3].split(",")).map(Long::valueOf).toList();
+        return new PagedResponse<>(ids.isEmpty() ? List.of() : hydrate.apply(ids), Long.parseLong(parts[0]),
+                Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+    }
+}
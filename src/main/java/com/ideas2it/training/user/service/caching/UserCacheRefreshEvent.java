@@ -0,0 +1,12 @@
+package com.ideas2it.training.user.service.caching;
+
+/**
+ * Published when a cached user is close enough to expiry that it should be reloaded
+ * in the background before it actually expires.
+ *
+ * @param userId the ID of the user to refresh
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+public record UserCacheRefreshEvent(Long userId) {
+}
@@ -2,10 +2,47 @@ package com.ideas2it.training.user.service.caching;
 
 import com.ideas2it.training.user.dto.UserInfo;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface UserCacheService {
     void saveUser(UserInfo user);
 
+    void populateUser(UserInfo user);
+
     UserInfo getUser(Long id);
 
+    UserNearCache.Entry getUserEntry(Long id);
+
+    void saveUserFields(UserInfo user, Collection<String> fields);
+
+    UserInfo getUserFields(Long id, Collection<String> fields);
+
     void deleteUser(Long id);
+
+    Map<Long, UserInfo> getUsers(Collection<Long> ids);
+
+    void saveUsers(Collection<UserInfo> users);
+
+    void populateUsers(Collection<UserInfo> users);
+
+    void deleteUsers(Collection<Long> ids);
+
+    void deleteAll();
+
+    void saveMissingUser(Long id);
+
+    boolean isMissingUser(Long id);
+
+    void saveMissingUsername(String username);
+
+    boolean isMissingUsername(String username);
+
+    void deleteMissingUsername(String username);
+
+    void deleteMissingUsernames(Collection<String> usernames);
+
+    Long getUserId(String username);
+
+    void moveUsername(Long id, String oldUsername, String newUsername);
 }
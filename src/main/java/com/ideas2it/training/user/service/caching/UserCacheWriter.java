@@ -0,0 +1,253 @@
+package com.ideas2it.training.user.service.caching;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.dto.UserInfo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies user cache writes after the surrounding transaction commits, off the request thread.
+ * <p>
+ * Writes requested inside a transaction are held until it commits and dropped if it rolls back,
+ * so the cache never sees uncommitted state and the database connection is not held across a
+ * Redis round-trip. The local near cache entry is evicted right after commit; only the Redis
+ * write runs on a small bounded pool. Writes to the same user coalesce: while one is queued, a
+ * newer write replaces it, so only the latest state reaches Redis; queued partial writes merge
+ * their changed fields. A user is applied by one thread at a time: a write arriving while the
+ * previous one is being applied waits for it and is applied next by the same thread, so writes
+ * to a user never reorder. When the queue is full the write runs on the calling thread instead
+ * of being lost.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Component
+public class UserCacheWriter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserCacheWriter.class);
+
+    private final UserCacheService userCacheService;
+    private final UserNearCache nearCache;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentMap<Long, Write> pending = new ConcurrentHashMap<>();
+    private final Set<Long> applying = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor to initialize dependencies, the write pool and its backlog gauge.
+     *
+     * @param applicationProperties the application properties holding the pool settings
+     * @param userCacheService      the cache the writes are applied to
+     * @param nearCache             the local cache evicted as soon as the transaction commits
+     * @param meterRegistry         the registry exposing the number of pending writes
+     */
+    public UserCacheWriter(ApplicationProperties applicationProperties, UserCacheService userCacheService,
+                           UserNearCache nearCache, MeterRegistry meterRegistry) {
+        this.userCacheService = userCacheService;
+        this.nearCache = nearCache;
+        ApplicationProperties.Cache.AsyncWrite properties = applicationProperties.getCache().getUser().getAsyncWrite();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()), runnable -> {
+            Thread thread = new Thread(runnable, "user-cache-write");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("cache.writes.pending", pending, Map::size)
+                .tag("cache", "user")
+                .description("The number of user cache writes waiting to be applied")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Caches a user once the current transaction commits.
+     *
+     * @param user the committed state of the user
+     */
+    public void saveUser(UserInfo user) {
+        afterCommit(() -> submit(user.getId(), new Write(user, null)));
+    }
+
+    /**
+     * Caches the changed fields of a user once the current transaction commits.
+     *
+     * @param user   the committed state of the user
+     * @param fields the names of the fields that changed
+     */
+    public void saveUserFields(UserInfo user, Collection<String> fields) {
+        afterCommit(() -> submit(user.getId(), new Write(user, Set.copyOf(fields))));
+    }
+
+    /**
+     * Evicts a user once the current transaction commits.
+     *
+     * @param id the ID of the deleted user
+     */
+    public void deleteUser(Long id) {
+        afterCommit(() -> submit(id, new Write(null, null)));
+    }
+
+    /**
+     * Runs a cache-related task on the write pool once the current transaction commits.
+     * Unlike user writes, these tasks are not coalesced.
+     *
+     * @param task the task to run
+     */
+    public void execute(Runnable task) {
+        afterCommit(() -> dispatch(task));
+    }
+
+    /**
+     * Applies the writes still queued and stops the write pool on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Evicts the local copy of the user and queues the write for the user. If a write for the
+     * same user is already queued the two are merged and no new task is scheduled; the queued
+     * task applies the merged write. If a write for the user is being applied, the new write
+     * is left for that task to apply next. Writes without a user ID cannot be keyed and are
+     * queued as they are.
+     */
+    private void submit(Long id, Write write) {
+        if (id == null) {
+            dispatch(() -> apply(id, write));
+            return;
+        }
+        nearCache.invalidate(id);
+        boolean[] queued = {false};
+        pending.compute(id, (key, previous) -> {
+            if (previous == null) {
+                queued[0] = !applying.contains(id);
+                return write;
+            }
+            return previous.then(write);
+        });
+        if (!queued[0]) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(id));
+        } catch (RejectedExecutionException e) {
+            drain(id);
+        }
+    }
+
+    private void dispatch(Runnable task) {
+        try {
+            executor.execute(() -> run(task));
+        } catch (RejectedExecutionException e) {
+            run(task);
+        }
+    }
+
+    /**
+     * Applies the queued writes of a user until none is left. The user stays marked as being
+     * applied until the last write finishes; both hand-overs happen inside {@code compute} on
+     * the user's entry, so they are atomic with {@link #submit(Long, Write)}.
+     */
+    private void drain(Long id) {
+        Write write = take(id);
+        while (write != null) {
+            Write current = write;
+            run(() -> apply(id, current));
+            write = take(id);
+        }
+    }
+
+    private Write take(Long id) {
+        Write[] taken = {null};
+        pending.compute(id, (key, write) -> {
+            if (write == null) {
+                applying.remove(id);
+            } else {
+                applying.add(id);
+                taken[0] = write;
+            }
+            return null;
+        });
+        return taken[0];
+    }
+
+    private void apply(Long id, Write write) {
+        if (write.user() == null) {
+            userCacheService.deleteUser(id);
+        } else if (write.fields() == null) {
+            userCacheService.saveUser(write.user());
+        } else {
+            userCacheService.saveUserFields(write.user(), write.fields());
+        }
+    }
+
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            LOG.warn("User cache write failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * A queued write: a delete when {@code user} is null, a full save when {@code fields}
+     * is null, otherwise a save of the given fields.
+     */
+    private record Write(UserInfo user, Set<String> fields) {
+
+        /**
+         * Merges a newer write into this one. A newer delete or full save wins; a newer
+         * partial save keeps a queued full save full and unions the fields of a queued
+         * partial save. A partial save after a delete becomes a full save.
+         */
+        Write then(Write next) {
+            if (next.user() == null || next.fields() == null) {
+                return next;
+            }
+            if (user == null || fields == null) {
+                return new Write(next.user(), null);
+            }
+            Set<String> merged = new HashSet<>(fields);
+            merged.addAll(next.fields());
+            return new Write(next.user(), merged);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.ideas2it.training.user.service.caching;
+
+import com.ideas2it.training.user.dto.UserInfo;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Compact, versioned binary Redis serializer for {@link UserInfo}.
+ * <p>
+ * Layout of version 1: a schema version byte, a two byte bitmap of the non-null fields,
+ * then each present field in declaration order. Numbers are written as varints, strings
+ * as a varint length followed by UTF-8 bytes, instants as epoch seconds plus nanos and
+ * roles as a varint count followed by the role names.
+ * </p>
+ * <p>
+ * Any other value, and any payload that does not start with a known version byte (for
+ * example JSON written before the switch), is delegated to the fallback serializer.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+public class UserInfoBinaryRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte VERSION_1 = 1;
+
+    private static final int ID = 0;
+    private static final int USERNAME = 1;
+    private static final int FIRST_NAME = 2;
+    private static final int LAST_NAME = 3;
+    private static final int EMAIL = 4;
+    private static final int MOBILE = 5;
+    private static final int ADDRESS = 6;
+    private static final int POSTAL_CODE = 7;
+    private static final int ROLES = 8;
+    private static final int CREATED_DATE = 9;
+    private static final int CREATED_BY = 10;
+    private static final int LAST_MODIFIED_DATE = 11;
+    private static final int LAST_MODIFIED_BY = 12;
+
+    private final RedisSerializer<Object> fallback;
+
+    /**
+     * Constructor to initialize the fallback serializer.
+     *
+     * @param fallback the serializer used for values that are not UserInfo
+     */
+    public UserInfoBinaryRedisSerializer(RedisSerializer<Object> fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (!(value instanceof UserInfo user)) {
+            return fallback.serialize(value);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        out.write(VERSION_1);
+        int presence = presence(user);
+        out.write(presence >>> 8);
+        out.write(presence);
+        if (user.getId() != null) writeVarLong(out, zigZag(user.getId()));
+        writeString(out, user.getUsername());
+        writeString(out, user.getFirstName());
+        writeString(out, user.getLastName());
+        writeString(out, user.getEmail());
+        writeString(out, user.getMobile());
+        writeString(out, user.getAddress());
+        writeString(out, user.getPostalCode());
+        if (user.getRoles() != null) {
+            writeVarLong(out, user.getRoles().size());
+            user.getRoles().forEach(role -> writeString(out, role));
+        }
+        writeInstant(out, user.getCreatedDate());
+        writeString(out, user.getCreatedBy());
+        writeInstant(out, user.getLastModifiedDate());
+        writeString(out, user.getLastModifiedBy());
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != VERSION_1) {
+            return fallback.deserialize(bytes);
+        }
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+            int presence = ((in.get() & 0xFF) << 8) | (in.get() & 0xFF);
+            UserInfo.UserInfoBuilder builder = UserInfo.builder();
+            if (has(presence, ID)) builder.id(unZigZag(readVarLong(in)));
+            if (has(presence, USERNAME)) builder.username(readString(in));
+            if (has(presence, FIRST_NAME)) builder.firstName(readString(in));
+            if (has(presence, LAST_NAME)) builder.lastName(readString(in));
+            if (has(presence, EMAIL)) builder.email(readString(in));
+            if (has(presence, MOBILE)) builder.mobile(readString(in));
+            if (has(presence, ADDRESS)) builder.address(readString(in));
+            if (has(presence, POSTAL_CODE)) builder.postalCode(readString(in));
+            if (has(presence, ROLES)) {
+                int count = (int) readVarLong(in);
+                Set<String> roles = new HashSet<>(Math.max(4, count * 2));
+                for (int i = 0; i < count; i++) {
+                    roles.add(readString(in));
+                }
+                builder.roles(roles);
+            }
+            if (has(presence, CREATED_DATE)) builder.createdDate(readInstant(in));
+            if (has(presence, CREATED_BY)) builder.createdBy(readString(in));
+            if (has(presence, LAST_MODIFIED_DATE)) builder.lastModifiedDate(readInstant(in));
+            if (has(presence, LAST_MODIFIED_BY)) builder.lastModifiedBy(readString(in));
+            return builder.build();
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new SerializationException("Could not read UserInfo: truncated or corrupt payload", e);
+        }
+    }
+
+    private static int presence(UserInfo user) {
+        int presence = 0;
+        presence |= bit(user.getId(), ID);
+        presence |= bit(user.getUsername(), USERNAME);
+        presence |= bit(user.getFirstName(), FIRST_NAME);
+        presence |= bit(user.getLastName(), LAST_NAME);
+        presence |= bit(user.getEmail(), EMAIL);
+        presence |= bit(user.getMobile(), MOBILE);
+        presence |= bit(user.getAddress(), ADDRESS);
+        presence |= bit(user.getPostalCode(), POSTAL_CODE);
+        presence |= bit(user.getRoles(), ROLES);
+        presence |= bit(user.getCreatedDate(), CREATED_DATE);
+        presence |= bit(user.getCreatedBy(), CREATED_BY);
+        presence |= bit(user.getLastModifiedDate(), LAST_MODIFIED_DATE);
+        presence |= bit(user.getLastModifiedBy(), LAST_MODIFIED_BY);
+        return presence;
+    }
+
+    private static int bit(Object value, int field) {
+        return value == null ? 0 : 1 << field;
+    }
+
+    private static boolean has(int presence, int field) {
+        return (presence & (1 << field)) != 0;
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in);
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException("String length " + length + " exceeds payload");
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void writeInstant(ByteArrayOutputStream out, Instant value) {
+        if (value == null) {
+            return;
+        }
+        writeVarLong(out, zigZag(value.getEpochSecond()));
+        writeVarLong(out, value.getNano());
+    }
+
+    private static Instant readInstant(ByteBuffer in) {
+        long seconds = unZigZag(readVarLong(in));
+        return Instant.ofEpochSecond(seconds, readVarLong(in));
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
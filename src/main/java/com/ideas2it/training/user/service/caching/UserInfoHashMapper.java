@@ -0,0 +1,142 @@
+package com.ideas2it.training.user.service.caching;
+
+import com.ideas2it.training.user.dto.UserInfo;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Converts {@link UserInfo} to and from the field/value pairs of a Redis hash.
+ * <p>
+ * Every field is stored as a string: roles are comma separated and instants use ISO-8601.
+ * Null fields are not stored. The hash also carries a {@value #VERSION} field maintained
+ * by the cache, which is incremented on every write.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+public final class UserInfoHashMapper {
+
+    public static final String VERSION = "version";
+
+    private static final Map<String, Field> FIELDS = Map.ofEntries(
+            field("id", u -> string(u.getId()), (b, v) -> b.id(Long.valueOf(v))),
+            field("username", UserInfo::getUsername, UserInfo.UserInfoBuilder::username),
+            field("firstName", UserInfo::getFirstName, UserInfo.UserInfoBuilder::firstName),
+            field("lastName", UserInfo::getLastName, UserInfo.UserInfoBuilder::lastName),
+            field("email", UserInfo::getEmail, UserInfo.UserInfoBuilder::email),
+            field("mobile", UserInfo::getMobile, UserInfo.UserInfoBuilder::mobile),
+            field("address", UserInfo::getAddress, UserInfo.UserInfoBuilder::address),
+            field("postalCode", UserInfo::getPostalCode, UserInfo.UserInfoBuilder::postalCode),
+            field("roles", u -> u.getRoles() == null ? null : String.join(",", u.getRoles()),
+                    (b, v) -> b.roles(v.isEmpty() ? Set.of() : new LinkedHashSet<>(Arrays.asList(v.split(","))))),
+            field("createdDate", u -> string(u.getCreatedDate()), (b, v) -> b.createdDate(Instant.parse(v))),
+            field("createdBy", UserInfo::getCreatedBy, UserInfo.UserInfoBuilder::createdBy),
+            field("lastModifiedDate", u -> string(u.getLastModifiedDate()), (b, v) -> b.lastModifiedDate(Instant.parse(v))),
+            field("lastModifiedBy", UserInfo::getLastModifiedBy, UserInfo.UserInfoBuilder::lastModifiedBy)
+    );
+
+    /**
+     * The names of all user fields stored in the hash.
+     */
+    public static final Set<String> FIELD_NAMES = Set.copyOf(FIELDS.keySet());
+
+    private UserInfoHashMapper() {
+    }
+
+    /**
+     * Returns the values of the given fields; fields whose value is null map to null.
+     *
+     * @param user   the user to read from
+     * @param fields the names of the fields to include
+     * @return the field values keyed by field name
+     * @throws IllegalArgumentException if a field name is unknown
+     */
+    public static Map<String, String> toHash(UserInfo user, Collection<String> fields) {
+        Map<String, String> hash = new HashMap<>();
+        for (String name : fields) {
+            hash.put(name, field(name).reader().apply(user));
+        }
+        return hash;
+    }
+
+    /**
+     * Builds a user from hash entries, ignoring the version and unknown fields.
+     *
+     * @param hash the hash entries as returned by HGETALL or HMGET
+     * @return the user, or null if the hash is empty
+     */
+    public static UserInfo fromHash(Map<?, ?> hash) {
+        if (hash == null || hash.isEmpty()) {
+            return null;
+        }
+        UserInfo.UserInfoBuilder builder = UserInfo.builder();
+        hash.forEach((name, value) -> {
+            Field field = FIELDS.get(String.valueOf(name));
+            if (field != null && value != null) {
+                field.writer().accept(builder, value.toString());
+            }
+        });
+        return builder.build();
+    }
+
+    /**
+     * Checks and normalizes requested field names.
+     *
+     * @param fields the requested field names
+     * @return the field names in request order, always including {@code id}
+     * @throws IllegalArgumentException if a field name is unknown
+     */
+    public static List<String> fieldNames(Collection<String> fields) {
+        Set<String> names = new LinkedHashSet<>();
+        names.add("id");
+        for (String name : fields) {
+            field(name);
+            names.add(name);
+        }
+        return List.copyOf(names);
+    }
+
+    /**
+     * Returns a copy of the user holding only the given fields.
+     *
+     * @param user   the full user
+     * @param fields the fields to keep
+     * @return the projected user
+     */
+    public static UserInfo project(UserInfo user, Collection<String> fields) {
+        return fromHash(toHash(user, fieldNames(fields)).entrySet().stream()
+                .filter(e -> e.getValue() != null)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+    }
+
+    private static Field field(String name) {
+        Field field = FIELDS.get(name);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown user field: " + name);
+        }
+        return field;
+    }
+
+    private static String string(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static Map.Entry<String, Field> field(String name, Function<UserInfo, String> reader,
+                                                  BiConsumer<UserInfo.UserInfoBuilder, String> writer) {
+        return Map.entry(name, new Field(reader, writer));
+    }
+
+    private record Field(Function<UserInfo, String> reader, BiConsumer<UserInfo.UserInfoBuilder, String> writer) {
+    }
+}
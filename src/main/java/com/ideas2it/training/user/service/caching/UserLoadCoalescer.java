@@ -0,0 +1,164 @@
+package com.ideas2it.training.user.service.caching;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.dto.UserInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent cache-miss loads of the same user (single-flight).
+ * <p>
+ * Within one JVM only the first caller for a user ID runs the loader; concurrent callers
+ * wait for and share its result. In {@code REDIS} mode the local leader additionally takes
+ * a short-lived {@code SET NX} lock so that only one replica loads a given user; the others
+ * poll the cache until the value or its not-found tombstone appears and fall back to loading
+ * it themselves after the wait timeout. The lock runs through the {@link CacheGuard}; while the
+ * guard rejects calls each replica loads the user itself.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Component
+public class UserLoadCoalescer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserLoadCoalescer.class);
+
+    private static final String LOCK_KEY_PREFIX = "user:lock:";
+
+    private static final RedisScript<Long> RELEASE_LOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final ConcurrentMap<Long, CompletableFuture<Optional<UserInfo>>> inFlight = new ConcurrentHashMap<>();
+
+    private final ApplicationProperties.Cache.SingleFlight properties;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final CacheGuard cacheGuard;
+
+    private final UserCacheService userCacheService;
+
+    /**
+     * Constructor to initialize the coalescing settings and Redis access.
+     *
+     * @param applicationProperties the application properties holding single-flight settings
+     * @param stringRedisTemplate   the template used for the cross-replica lock
+     * @param cacheGuard            the guard the lock calls run through
+     * @param userCacheService      the cache polled while another replica loads
+     */
+    public UserLoadCoalescer(ApplicationProperties applicationProperties, StringRedisTemplate stringRedisTemplate,
+                             CacheGuard cacheGuard, UserCacheService userCacheService) {
+        this.properties = applicationProperties.getCache().getUser().getSingleFlight();
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cacheGuard = cacheGuard;
+        this.userCacheService = userCacheService;
+    }
+
+    /**
+     * Loads a user, making sure concurrent calls for the same ID run the loader once.
+     *
+     * @param id     the ID of the user to load
+     * @param loader loads the user from the database and populates the cache
+     * @return the loaded user, shared by all concurrent callers
+     */
+    public Optional<UserInfo> load(Long id, Supplier<Optional<UserInfo>> loader) {
+        CompletableFuture<Optional<UserInfo>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<UserInfo>> leader = inFlight.putIfAbsent(id, mine);
+        if (leader != null) {
+            return await(leader);
+        }
+        try {
+            Optional<UserInfo> result = properties.getMode() == ApplicationProperties.Cache.SingleFlight.Mode.REDIS
+                    ? loadWithLock(id, loader)
+                    : loader.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    private Optional<UserInfo> loadWithLock(Long id, Supplier<Optional<UserInfo>> loader) {
+        String lockKey = LOCK_KEY_PREFIX + id;
+        String token = UUID.randomUUID().toString();
+        Boolean acquired;
+        try {
+            acquired = cacheGuard.call(() ->
+                    stringRedisTemplate.opsForValue().setIfAbsent(lockKey, token, properties.getLockTimeToLive()));
+        } catch (RuntimeException e) {
+            LOG.debug("Redis lock for user {} unavailable, loading locally: {}", id, e.getMessage());
+            return loader.get();
+        }
+        if (Boolean.TRUE.equals(acquired)) {
+            try {
+                UserNearCache.Entry cached = userCacheService.getUserEntry(id);
+                return cached != null ? Optional.ofNullable(cached.user()) : loader.get();
+            } finally {
+                releaseLock(lockKey, token);
+            }
+        }
+        Optional<UserInfo> loadedElsewhere = awaitCache(id);
+        return loadedElsewhere != null ? loadedElsewhere : loader.get();
+    }
+
+    private void releaseLock(String lockKey, String token) {
+        try {
+            cacheGuard.call(() -> stringRedisTemplate.execute(RELEASE_LOCK, List.of(lockKey), token));
+        } catch (RuntimeException e) {
+            LOG.debug("Could not release {}, it expires on its own: {}", lockKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Polls the cache while another replica loads the user. Returns the cached user, an empty
+     * Optional once the other replica has recorded that the user does not exist, or null if
+     * neither appeared before the wait timeout.
+     */
+    private Optional<UserInfo> awaitCache(Long id) {
+        long deadline = System.nanoTime() + properties.getWaitTimeout().toNanos();
+        Duration pollInterval = properties.getPollInterval();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(pollInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            UserNearCache.Entry cached = userCacheService.getUserEntry(id);
+            if (cached != null) {
+                return Optional.ofNullable(cached.user());
+            }
+        }
+        return null;
+    }
+
+    private static Optional<UserInfo> await(CompletableFuture<Optional<UserInfo>> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.ideas2it.training.user.service.caching;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.dto.UserInfo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * In-process (L1) cache of {@link UserInfo} kept in front of the Redis (L2) cache.
+ * <p>
+ * Entries are bounded by size and time-to-live. Writes on one replica are broadcast on a
+ * Redis pub/sub channel as {@code nodeId:userId[,userId...]} so that every other replica
+ * evicts its local copy; messages originating from this node are ignored.
+ * </p>
+ * <p>
+ * An entry without a user is a tombstone recording that the user does not exist.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Component
+public class UserNearCache implements MessageListener {
+
+    public static final String CACHE_NAME = "user-l1";
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserNearCache.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final boolean enabled;
+
+    private final String channel;
+
+    private final Cache<Long, Entry> cache;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * Constructor to build the bounded local cache and register its metrics.
+     *
+     * @param applicationProperties the application properties holding near cache settings
+     * @param stringRedisTemplate   the template used to publish invalidation messages
+     * @param meterRegistry         the registry exposing hit/miss statistics
+     */
+    public UserNearCache(ApplicationProperties applicationProperties, StringRedisTemplate stringRedisTemplate,
+                         MeterRegistry meterRegistry) {
+        ApplicationProperties.Cache.User properties = applicationProperties.getCache().getUser();
+        this.enabled = properties.getNearCache().isEnabled();
+        this.channel = properties.getInvalidationChannel();
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getNearCache().getMaximumSize())
+                .expireAfterWrite(properties.getNearCache().getTimeToLive())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * A locally cached user together with the time its Redis copy expires.
+     *
+     * @param user            the cached user, or null for a tombstone
+     * @param expiresAtMillis epoch millis at which the Redis entry expires, or {@link Long#MAX_VALUE} if unknown
+     */
+    public record Entry(UserInfo user, long expiresAtMillis) {
+    }
+
+    /**
+     * Retrieves a user from the local cache.
+     *
+     * @param id the ID of the user
+     * @return the cached UserInfo, or null if absent or the near cache is disabled
+     */
+    public UserInfo get(Long id) {
+        Entry entry = getEntry(id);
+        return entry != null ? entry.user() : null;
+    }
+
+    /**
+     * Retrieves a user and the expiry of its Redis copy from the local cache.
+     *
+     * @param id the ID of the user
+     * @return the cached entry, or null if absent or the near cache is disabled
+     */
+    public Entry getEntry(Long id) {
+        return enabled ? cache.getIfPresent(id) : null;
+    }
+
+    /**
+     * Retrieves the users present in the local cache.
+     *
+     * @param ids the IDs of the users
+     * @return the cached users keyed by ID; absent IDs are omitted
+     */
+    public Map<Long, UserInfo> getAll(Collection<Long> ids) {
+        if (!enabled) {
+            return Map.of();
+        }
+        return cache.getAllPresent(ids).entrySet().stream()
+                .filter(e -> e.getValue().user() != null)
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().user()));
+    }
+
+    /**
+     * Stores a user in the local cache only, without a known Redis expiry.
+     *
+     * @param user the UserInfo to cache
+     */
+    public void put(UserInfo user) {
+        put(user, Long.MAX_VALUE);
+    }
+
+    /**
+     * Stores a user in the local cache only.
+     *
+     * @param user            the UserInfo to cache
+     * @param expiresAtMillis epoch millis at which the Redis copy expires
+     */
+    public void put(UserInfo user, long expiresAtMillis) {
+        if (enabled) {
+            cache.put(user.getId(), new Entry(user, expiresAtMillis));
+        }
+    }
+
+    /**
+     * Records locally that a user does not exist.
+     *
+     * @param id              the ID of the missing user
+     * @param expiresAtMillis epoch millis at which the tombstone expires
+     */
+    public void putMissing(Long id, long expiresAtMillis) {
+        if (enabled) {
+            cache.put(id, new Entry(null, expiresAtMillis));
+        }
+    }
+
+    /**
+     * Checks for an unexpired local tombstone.
+     *
+     * @param id the ID of the user
+     * @return true if the user is known locally not to exist
+     */
+    public boolean isMissing(Long id) {
+        Entry entry = getEntry(id);
+        return entry != null && entry.user() == null && entry.expiresAtMillis() > System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the IDs of the most frequently used users in the local cache.
+     *
+     * @param limit the maximum number of IDs to return
+     * @return the hottest cached user IDs, hottest first; tombstones are skipped
+     */
+    public List<Long> hottestIds(int limit) {
+        if (!enabled) {
+            return List.of();
+        }
+        return cache.policy().eviction()
+                .map(eviction -> eviction.hottest(limit).entrySet().stream()
+                        .filter(e -> e.getValue().user() != null)
+                        .map(Map.Entry::getKey)
+                        .toList())
+                .orElse(List.of());
+    }
+
+    /**
+     * Evicts a user from the local cache only.
+     *
+     * @param id the ID of the user to evict
+     */
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Evicts all users from the local cache.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Asks every other replica to evict the given user from its local cache.
+     *
+     * @param id the ID of the user that changed
+     */
+    public void publishInvalidation(Long id) {
+        publishInvalidation(List.of(id));
+    }
+
+    /**
+     * Asks every other replica to evict the given users from its local cache
+     * using a single pub/sub message.
+     *
+     * @param ids the IDs of the users that changed
+     */
+    public void publishInvalidation(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String payload = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        stringRedisTemplate.convertAndSend(channel, nodeId + ":" + payload);
+    }
+
+    /**
+     * Returns the name of the pub/sub channel used for invalidation messages.
+     *
+     * @return the channel name
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Handles an invalidation message published by another replica.
+     *
+     * @param message the pub/sub message in {@code nodeId:userId[,userId...]} form
+     * @param pattern the matched pattern, unused
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator < 0 || nodeId.equals(body.substring(0, separator))) {
+            return;
+        }
+        try {
+            for (String id : body.substring(separator + 1).split(",")) {
+                invalidate(Long.valueOf(id));
+            }
+        } catch (NumberFormatException e) {
+            LOG.warn("Ignoring malformed user cache invalidation message: {}", body);
+        }
+    }
+}
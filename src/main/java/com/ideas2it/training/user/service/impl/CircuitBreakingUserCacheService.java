@@ -0,0 +1,488 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.dto.UserInfo;
+import com.ideas2it.training.user.service.caching.CacheGuard;
+import com.ideas2it.training.user.service.caching.UserCacheService;
+import com.ideas2it.training.user.service.caching.UserInfoHashMapper;
+import com.ideas2it.training.user.service.caching.UserNearCache;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerOnStateTransitionEvent;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * {@link UserCacheService} guarded by a circuit breaker, so a slow or unavailable Redis
+ * degrades the service to database-only instead of stalling it.
+ * <p>
+ * Every cache call is bounded by the Redis command timeout. Failures and slow calls are
+ * counted by a Resilience4j circuit breaker; once it opens, reads are answered from the local
+ * near cache or report a cache miss (so callers go straight to the repository) and writes are
+ * skipped without touching Redis. Users and usernames whose writes were skipped or failed are
+ * evicted once the breaker is closed, so Redis does not keep serving values that changed during
+ * the outage. If more writes were skipped than can be remembered, the whole user key space is
+ * cleared instead.
+ * </p>
+ * <p>
+ * Eviction runs on a background thread rather than on the request that closed the breaker, and
+ * is retried until it succeeds. Until then, reads of the affected users and usernames are
+ * answered as if the breaker were still open (from the near cache or as a miss), and after an
+ * overflow every read is, so entries known to be stale are never read from Redis.
+ * </p>
+ * <p>
+ * The same breaker guards the other Redis calls of the user service (listing pages, counters
+ * and load locks) through {@link CacheGuard}, so they count towards it and are short-circuited
+ * together with the cache while it is open.
+ * </p>
+ * <p>
+ * Breaker state, call outcomes and state transitions are exported as
+ * {@code resilience4j.circuitbreaker.*} and {@code cache.circuit.transitions} meters.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Service
+@Primary
+public class CircuitBreakingUserCacheService implements UserCacheService, CacheGuard {
+
+    public static final String CIRCUIT_BREAKER_NAME = "user-cache";
+
+    private static final Logger LOG = LoggerFactory.getLogger(CircuitBreakingUserCacheService.class);
+
+    private static final int MAX_STALE_ENTRIES = 10_000;
+
+    private static final Duration EVICTION_RETRY_DELAY = Duration.ofSeconds(1);
+
+    private final UserCacheService delegate;
+    private final UserNearCache nearCache;
+    private final CircuitBreaker circuitBreaker;
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+    private final Set<Long> staleUserIds = ConcurrentHashMap.newKeySet();
+    private final Set<String> staleUsernames = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean staleOverflow = new AtomicBoolean();
+    private final AtomicLong staleMarks = new AtomicLong();
+    private final AtomicBoolean evictionScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * Constructor to build the circuit breaker, register its metrics and start the eviction thread.
+     *
+     * @param delegate              the Redis-backed cache being guarded
+     * @param nearCache             the local cache answering reads while the breaker is open
+     * @param applicationProperties the application properties holding circuit breaker settings
+     * @param meterRegistry         the registry exposing breaker state and transitions
+     */
+    public CircuitBreakingUserCacheService(UserCacheServiceImpl delegate, UserNearCache nearCache,
+                                           ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.nearCache = nearCache;
+        this.meterRegistry = meterRegistry;
+        ApplicationProperties.Cache.CircuitBreaker properties = applicationProperties.getCache().getCircuitBreaker();
+        this.enabled = properties.isEnabled();
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(properties.getFailureRateThreshold())
+                .slowCallRateThreshold(properties.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(properties.getSlowCallDurationThreshold())
+                .slidingWindowSize(properties.getSlidingWindowSize())
+                .minimumNumberOfCalls(properties.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(properties.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(properties.getPermittedCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .ignoreExceptions(IllegalArgumentException.class)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        this.circuitBreaker = registry.circuitBreaker(CIRCUIT_BREAKER_NAME);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-cache-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.circuitBreaker.getEventPublisher().onStateTransition(this::onStateTransition);
+    }
+
+    /**
+     * Stops the eviction thread on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        evictor.shutdownNow();
+    }
+
+    /**
+     * Returns the circuit breaker guarding the cache.
+     *
+     * @return the circuit breaker
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Runs a Redis call through the breaker. While the breaker is open the call is not made
+     * and a {@link io.github.resilience4j.circuitbreaker.CallNotPermittedException} is thrown.
+     *
+     * @param call the call to run
+     * @param <T>  the result type
+     * @return the result of the call
+     */
+    @Override
+    public <T> T call(Supplier<T> call) {
+        return enabled ? circuitBreaker.executeSupplier(call) : call.get();
+    }
+
+    @Override
+    public void saveUser(UserInfo user) {
+        write(() -> delegate.saveUser(user), () -> markStale(List.of(user.getId())));
+    }
+
+    @Override
+    public void populateUser(UserInfo user) {
+        // A skipped backfill leaves nothing stale: the database did not change
+        write(() -> delegate.populateUser(user), () -> { });
+    }
+
+    @Override
+    public UserInfo getUser(Long id) {
+        if (isStale(id)) {
+            return nearCache.get(id);
+        }
+        return read(() -> delegate.getUser(id), () -> nearCache.get(id));
+    }
+
+    @Override
+    public UserNearCache.Entry getUserEntry(Long id) {
+        if (isStale(id)) {
+            return localEntry(id);
+        }
+        return read(() -> delegate.getUserEntry(id), () -> localEntry(id));
+    }
+
+    @Override
+    public void saveUserFields(UserInfo user, Collection<String> fields) {
+        write(() -> delegate.saveUserFields(user, fields), () -> markStale(List.of(user.getId())));
+    }
+
+    @Override
+    public UserInfo getUserFields(Long id, Collection<String> fields) {
+        Supplier<UserInfo> local = () -> {
+            UserInfo user = nearCache.get(id);
+            return user != null ? UserInfoHashMapper.project(user, UserInfoHashMapper.fieldNames(fields)) : null;
+        };
+        return isStale(id) ? local.get() : read(() -> delegate.getUserFields(id, fields), local);
+    }
+
+    @Override
+    public void deleteUser(Long id) {
+        write(() -> delegate.deleteUser(id), () -> markStale(List.of(id)));
+    }
+
+    @Override
+    public Map<Long, UserInfo> getUsers(Collection<Long> ids) {
+        if (!staleOverflow.get() && staleUserIds.isEmpty()) {
+            return read(() -> delegate.getUsers(ids), () -> nearCache.getAll(ids));
+        }
+        Map<Boolean, List<Long>> byStaleness = ids.stream().collect(Collectors.partitioningBy(this::isStale));
+        List<Long> stale = byStaleness.get(true);
+        List<Long> current = byStaleness.get(false);
+        Map<Long, UserInfo> found = new HashMap<>(nearCache.getAll(stale));
+        if (!current.isEmpty()) {
+            found.putAll(read(() -> delegate.getUsers(current), () -> nearCache.getAll(current)));
+        }
+        return found;
+    }
+
+    @Override
+    public void saveUsers(Collection<UserInfo> users) {
+        write(() -> delegate.saveUsers(users), () -> markStale(users.stream().map(UserInfo::getId).toList()));
+    }
+
+    @Override
+    public void populateUsers(Collection<UserInfo> users) {
+        write(() -> delegate.populateUsers(users), () -> { });
+    }
+
+    @Override
+    public void deleteUsers(Collection<Long> ids) {
+        write(() -> delegate.deleteUsers(ids), () -> markStale(ids));
+    }
+
+    @Override
+    public void deleteAll() {
+        write(delegate::deleteAll, () -> {
+            nearCache.invalidateAll();
+            markOverflow();
+            scheduleEvictionIfClosed();
+        });
+    }
+
+    @Override
+    public void saveMissingUser(Long id) {
+        write(() -> delegate.saveMissingUser(id), () -> {
+        });
+    }
+
+    @Override
+    public boolean isMissingUser(Long id) {
+        if (isStale(id)) {
+            return nearCache.isMissing(id);
+        }
+        return read(() -> delegate.isMissingUser(id), () -> nearCache.isMissing(id));
+    }
+
+    @Override
+    public void saveMissingUsername(String username) {
+        write(() -> delegate.saveMissingUsername(username), () -> {
+        });
+    }
+
+    @Override
+    public boolean isMissingUsername(String username) {
+        if (staleOverflow.get() || staleUsernames.contains(username)) {
+            return false;
+        }
+        return read(() -> delegate.isMissingUsername(username), () -> false);
+    }
+
+    @Override
+    public void deleteMissingUsername(String username) {
+        write(() -> delegate.deleteMissingUsername(username), () -> markStaleUsernames(List.of(username)));
+    }
+
+    @Override
+    public void deleteMissingUsernames(Collection<String> usernames) {
+        write(() -> delegate.deleteMissingUsernames(usernames), () -> markStaleUsernames(usernames));
+    }
+
+    @Override
+    public Long getUserId(String username) {
+        return read(() -> delegate.getUserId(username), () -> null);
+    }
+
+    @Override
+    public void moveUsername(Long id, String oldUsername, String newUsername) {
+        // A stale mapping is harmless: callers check the username of the user it resolves to
+        write(() -> delegate.moveUsername(id, oldUsername, newUsername), () -> { });
+    }
+
+    /**
+     * Runs a cache read through the breaker, returning the fallback when the breaker is
+     * open or the call fails.
+     */
+    private <T> T read(Supplier<T> call, Supplier<T> fallback) {
+        if (!enabled) {
+            return call.get();
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return fallback.get();
+        }
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (IllegalArgumentException e) {
+            circuitBreaker.releasePermission();
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            LOG.debug("User cache read failed, falling back to the database: {}", e.getMessage());
+            return fallback.get();
+        }
+    }
+
+    /**
+     * Runs a cache write through the breaker. A write that is skipped or fails runs
+     * {@code onSkipped} so the affected entries can be evicted once Redis recovers.
+     */
+    private void write(Runnable call, Runnable onSkipped) {
+        if (!enabled) {
+            call.run();
+            return;
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            onSkipped.run();
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            call.run();
+            circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            circuitBreaker.releasePermission();
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            LOG.debug("User cache write failed and was skipped: {}", e.getMessage());
+            onSkipped.run();
+        }
+    }
+
+    /**
+     * Returns the near cache entry of a user, skipping expired tombstones.
+     */
+    private UserNearCache.Entry localEntry(Long id) {
+        UserNearCache.Entry entry = nearCache.getEntry(id);
+        return entry != null && (entry.user() != null || entry.expiresAtMillis() > System.currentTimeMillis())
+                ? entry : null;
+    }
+
+    private boolean isStale(Long id) {
+        return staleOverflow.get() || id != null && staleUserIds.contains(id);
+    }
+
+    /**
+     * Records users whose cached entries may be stale and drops their local copies.
+     */
+    private void markStale(Collection<Long> ids) {
+        synchronized (staleUserIds) {
+            for (Long id : ids) {
+                if (id == null) {
+                    continue;
+                }
+                nearCache.invalidate(id);
+                if (staleUserIds.size() < MAX_STALE_ENTRIES) {
+                    staleUserIds.add(id);
+                } else {
+                    markOverflow();
+                }
+            }
+            staleMarks.incrementAndGet();
+        }
+        scheduleEvictionIfClosed();
+    }
+
+    private void markStaleUsernames(Collection<String> usernames) {
+        synchronized (staleUserIds) {
+            for (String username : usernames) {
+                if (staleUsernames.size() < MAX_STALE_ENTRIES) {
+                    staleUsernames.add(username);
+                } else {
+                    markOverflow();
+                }
+            }
+            staleMarks.incrementAndGet();
+        }
+        scheduleEvictionIfClosed();
+    }
+
+    /**
+     * Records that skipped writes can no longer be tracked one by one, so the whole user key
+     * space is cleared once the breaker closes.
+     */
+    private void markOverflow() {
+        synchronized (staleUserIds) {
+            staleMarks.incrementAndGet();
+            if (staleOverflow.compareAndSet(false, true)) {
+                LOG.warn("More than {} user cache writes were skipped; the user cache will be cleared once Redis recovers",
+                        MAX_STALE_ENTRIES);
+            }
+        }
+    }
+
+    private void onStateTransition(CircuitBreakerOnStateTransitionEvent event) {
+        CircuitBreaker.StateTransition transition = event.getStateTransition();
+        LOG.warn("User cache circuit breaker moved from {} to {}", transition.getFromState(), transition.getToState());
+        Counter.builder("cache.circuit.transitions")
+                .tag("name", CIRCUIT_BREAKER_NAME)
+                .tag("from", transition.getFromState().name())
+                .tag("to", transition.getToState().name())
+                .description("The number of state transitions of the user cache circuit breaker")
+                .register(meterRegistry)
+                .increment();
+        if (transition.getToState() == CircuitBreaker.State.CLOSED) {
+            scheduleEviction(Duration.ZERO);
+        }
+    }
+
+    /**
+     * Schedules an eviction for writes that failed while the breaker was closed; writes skipped
+     * while it is open or half-open are evicted once it closes.
+     */
+    private void scheduleEvictionIfClosed() {
+        if (circuitBreaker.getState() == CircuitBreaker.State.CLOSED) {
+            scheduleEviction(Duration.ZERO);
+        }
+    }
+
+    private void scheduleEviction(Duration delay) {
+        if (evictionScheduled.compareAndSet(false, true)) {
+            evictor.schedule(this::evictStaleEntries, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Evicts entries whose writes were skipped, or clears the whole user key space if there
+     * were too many to track. A failed eviction is retried while the breaker stays closed; if
+     * it opens, the eviction runs again when it closes. Entries marked stale while an eviction
+     * runs are only forgotten by a later run that sees no new marks.
+     */
+    private void evictStaleEntries() {
+        evictionScheduled.set(false);
+        if (circuitBreaker.getState() != CircuitBreaker.State.CLOSED) {
+            return;
+        }
+        long marks = staleMarks.get();
+        boolean overflow = staleOverflow.get();
+        List<Long> ids = new ArrayList<>(staleUserIds);
+        List<String> usernames = new ArrayList<>(staleUsernames);
+        if (!overflow && ids.isEmpty() && usernames.isEmpty()) {
+            return;
+        }
+        try {
+            if (overflow) {
+                delegate.deleteAll();
+            } else {
+                delegate.deleteUsers(ids);
+                delegate.deleteMissingUsernames(usernames);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Could not evict stale user cache entries, retrying in {}: {}", EVICTION_RETRY_DELAY, e.getMessage());
+            scheduleEviction(EVICTION_RETRY_DELAY);
+            return;
+        }
+        synchronized (staleUserIds) {
+            if (staleMarks.get() != marks) {
+                scheduleEviction(Duration.ZERO);
+                return;
+            }
+            if (overflow) {
+                staleUserIds.clear();
+                staleUsernames.clear();
+                staleOverflow.set(false);
+            } else {
+                ids.forEach(staleUserIds::remove);
+                usernames.forEach(staleUsernames::remove);
+            }
+        }
+        if (overflow) {
+            LOG.warn("Cleared the user cache after too many skipped writes");
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.ideas2it.training.user.service.impl;
 
+import com.ideas2it.training.user.config.ApplicationProperties;
 import com.ideas2it.training.user.domain.User;
 import com.ideas2it.training.user.repository.UserRepository;
+import com.ideas2it.training.user.service.caching.UserCacheService;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,6 +13,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -18,6 +23,21 @@ import java.util.stream.Collectors;
  * This class implements the Spring Security `UserDetailsService` interface
  * to provide user authentication and authorization details.
  * </p>
+ * <p>
+ * Unknown usernames are rejected without a database query when the {@link KnownUsernameFilter}
+ * has not heard of them or a negative cache entry exists; usernames that miss the database get
+ * a negative cache entry. The filter learns about new usernames asynchronously, so before a
+ * filter miss is rejected the cached username index, which is written when a user is created,
+ * is checked for it. Users whose index entry was lost, for example while Redis was unavailable,
+ * are still looked up in the database, but only {@code fallback-lookups-per-second} times per
+ * second, so credential stuffing with random usernames cannot turn into database load.
+ * </p>
+ * <p>
+ * Existing users are read with a single lookup on the unique username column. The cached
+ * username index is not consulted here: password hashes are deliberately never cached, so the
+ * row has to be read anyway, and a primary-key lookup would cost the same as this one plus a
+ * Redis round-trip.
+ * </p>
  *
  * @author Alagu Nirmal Mahendran
  * @created 2025-06-05
@@ -26,19 +46,34 @@ import java.util.stream.Collectors;
 public class CustomUserDetailService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
+    private final KnownUsernameFilter knownUsernameFilter;
+    private final RateLimiter fallbackLookups;
 
     /**
-     * Constructor to initialize the UserRepository.
+     * Constructor to initialize the UserRepository and the negative lookup caches.
      *
-     * @param userRepository the repository for user persistence
+     * @param userRepository        the repository for user persistence
+     * @param userCacheService      the cache holding negative entries and the username index
+     * @param knownUsernameFilter   the Bloom filter of existing usernames
+     * @param applicationProperties the application properties holding the fallback lookup rate
      */
-    public CustomUserDetailService(UserRepository userRepository) {
+    public CustomUserDetailService(UserRepository userRepository, UserCacheService userCacheService,
+                                   KnownUsernameFilter knownUsernameFilter, ApplicationProperties applicationProperties) {
         this.userRepository = userRepository;
+        this.userCacheService = userCacheService;
+        this.knownUsernameFilter = knownUsernameFilter;
+        int lookupsPerSecond = applicationProperties.getCache().getUser().getUsernameFilter().getFallbackLookupsPerSecond();
+        this.fallbackLookups = lookupsPerSecond > 0 ? RateLimiter.of("username-filter-fallback", RateLimiterConfig.custom()
+                .limitForPeriod(lookupsPerSecond)
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(Duration.ZERO)
+                .build()) : null;
     }
 
     /**
      * Loads a user by username.
-     * Fetches the user from the database and maps their roles to granted authorities.
+     * Fetches the user from the database by username and maps their roles to granted authorities.
      *
      * @param username the username of the user to load
      * @return the UserDetails object containing user authentication details
@@ -49,8 +84,16 @@ public class CustomUserDetailService implements UserDetailsService {
         if (username == null || username.trim().isEmpty()) {
             throw new IllegalArgumentException("Username cannot be null or empty");
         }
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        boolean known = knownUsernameFilter.mightExist(username);
+        if ((!known && !mayBeNew(username)) || userCacheService.isMissingUsername(username)) {
+            throw new UsernameNotFoundException("User not found with username: " + username);
+        }
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            userCacheService.saveMissingUsername(username);
+            throw new UsernameNotFoundException("User not found with username: " + username);
+        }
+        if (!known) knownUsernameFilter.add(username); // Created after the filter was last updated
 
         Set<GrantedAuthority> authorities = user.getRoles().stream()
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName()))
@@ -62,4 +105,13 @@ public class CustomUserDetailService implements UserDetailsService {
                 .authorities(authorities)
                 .build();
     }
+
+    /**
+     * Decides whether a username the filter has not heard of is worth a database lookup:
+     * it is if the username index maps it, or while the fallback lookup rate has room.
+     */
+    private boolean mayBeNew(String username) {
+        return userCacheService.getUserId(username) != null
+                || fallbackLookups != null && fallbackLookups.acquirePermission();
+    }
 }
@@ -0,0 +1,199 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.repository.UserRepository;
+import com.ideas2it.training.user.service.caching.BloomFilter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of every known username, used to reject unknown usernames
+ * without touching the database.
+ * <p>
+ * The filter is loaded from the database once the application is ready and rebuilt
+ * periodically so that deleted usernames eventually drop out. New usernames are added
+ * locally and broadcast on a Redis pub/sub channel as {@code nodeId:username} so other
+ * replicas learn about them before their next rebuild. Until the first load completes,
+ * or when the filter is disabled, every username is reported as possibly known.
+ * </p>
+ * <p>
+ * Additions are applied after commit and broadcast on a best-effort channel, so the filter
+ * can briefly miss a username that exists. Callers confirm a miss against the username index,
+ * which is written on the same commit, before treating a username as unknown.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Service
+public class KnownUsernameFilter implements MessageListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KnownUsernameFilter.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ApplicationProperties.Cache.UsernameFilter properties;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+
+    /**
+     * Constructor to initialize dependencies and the rebuild scheduler.
+     *
+     * @param applicationProperties the application properties holding filter settings
+     * @param userRepository        the repository usernames are loaded from
+     * @param transactionManager    the transaction manager used to stream usernames
+     * @param stringRedisTemplate   the template used to broadcast new usernames
+     */
+    public KnownUsernameFilter(ApplicationProperties applicationProperties, UserRepository userRepository,
+                               PlatformTransactionManager transactionManager, StringRedisTemplate stringRedisTemplate) {
+        this.properties = applicationProperties.getCache().getUser().getUsernameFilter();
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "known-username-filter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads the filter once the application is ready and schedules periodic rebuilds.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long interval = properties.getRebuildInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::rebuild, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the rebuild scheduler on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Checks whether a username may exist.
+     *
+     * @param username the username to check
+     * @return false if the username was unknown when the filter last heard of it
+     */
+    public boolean mightExist(String username) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(username);
+    }
+
+    /**
+     * Records a new username locally and on every other replica.
+     *
+     * @param username the username that now exists
+     */
+    public void add(String username) {
+        addLocally(username);
+        if (properties.isEnabled()) {
+            stringRedisTemplate.convertAndSend(properties.getChannel(), nodeId + ":" + username);
+        }
+    }
+
+    /**
+     * Records several new usernames locally and on every other replica with a single message.
+     *
+     * @param usernames the usernames that now exist
+     */
+    public void addAll(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return;
+        }
+        usernames.forEach(this::addLocally);
+        if (properties.isEnabled()) {
+            stringRedisTemplate.convertAndSend(properties.getChannel(), nodeId + ":" + String.join("\n", usernames));
+        }
+    }
+
+    /**
+     * Returns the name of the pub/sub channel used to broadcast new usernames.
+     *
+     * @return the channel name
+     */
+    public String getChannel() {
+        return properties.getChannel();
+    }
+
+    /**
+     * Handles a new username published by another replica.
+     *
+     * @param message the pub/sub message in {@code nodeId:username} form, with several
+     *                usernames separated by line breaks
+     * @param pattern the matched pattern, unused
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        if (separator < 0 || nodeId.equals(body.substring(0, separator))) {
+            return;
+        }
+        body.substring(separator + 1).lines().forEach(this::addLocally);
+    }
+
+    /**
+     * Builds a fresh filter from the database and swaps it in. Usernames added while
+     * the rebuild is running go into both filters so none are lost by the swap.
+     */
+    void rebuild() {
+        try {
+            long expected = Math.max(properties.getExpectedInsertions(), userRepository.count() * 2);
+            BloomFilter next = BloomFilter.create(expected, properties.getFalsePositiveProbability());
+            building = next;
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+                    usernames.forEach(next::put);
+                }
+            });
+            filter = next;
+        } catch (RuntimeException e) {
+            LOG.warn("Rebuilding the known username filter failed: {}", e.getMessage());
+        } finally {
+            building = null;
+        }
+    }
+
+    private void addLocally(String username) {
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(username);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(username);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashes passwords of bulk creations and imports in parallel on a dedicated pool.
+ * <p>
+ * Password hashing is deliberately CPU-heavy. Running it on the common fork-join pool would
+ * let one large batch starve every other parallel stream and {@code CompletableFuture} of the
+ * application, so it runs on its own pool of {@code application.bulk.hashing.threads} threads
+ * instead. When the queue is full the calling thread hashes the password itself, which slows
+ * the batch down instead of queueing without bound.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Constructor to initialize dependencies and the hashing pool.
+     *
+     * @param passwordEncoder       the encoder for user passwords
+     * @param applicationProperties the application properties holding the pool settings
+     */
+    public PasswordHasher(PasswordEncoder passwordEncoder, ApplicationProperties applicationProperties) {
+        this.passwordEncoder = passwordEncoder;
+        ApplicationProperties.Bulk.Hashing properties = applicationProperties.getBulk().getHashing();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()), runnable -> {
+            Thread thread = new Thread(runnable, "password-hash");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Hashes the given passwords in parallel.
+     *
+     * @param passwords the raw passwords
+     * @return the hashes, in the order of the given passwords
+     */
+    public List<String> encodeAll(List<String> passwords) {
+        List<CompletableFuture<String>> hashes = passwords.stream()
+                .map(password -> CompletableFuture.supplyAsync(() -> passwordEncoder.encode(password), executor))
+                .toList();
+        try {
+            return hashes.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stops the hashing pool on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
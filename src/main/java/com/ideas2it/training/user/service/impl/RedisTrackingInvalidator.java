@@ -0,0 +1,233 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.service.caching.UserNearCache;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.protocol.ProtocolVersion;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.stereotype.Service;
+
+import java.net.SocketAddress;
+import java.util.List;
+
+/**
+ * Keeps the user near cache coherent with Redis using server-assisted client-side caching.
+ * <p>
+ * With {@code application.cache.user.near-cache.invalidation=tracking} a dedicated RESP3
+ * connection enables {@code CLIENT TRACKING} in broadcast mode for the {@code user:} prefix,
+ * so Redis pushes an invalidation whenever a user key is written, deleted or expires, whoever
+ * changed it. Broadcast mode is used because reads go through the shared and pipelined
+ * connections of the connection factory, which a per-connection tracking table would miss.
+ * Invalidations published by replicas on pub/sub are still honoured, so replicas that had to
+ * fall back keep working alongside tracking ones.
+ * </p>
+ * <p>
+ * Tracking is enabled with {@code NOLOOP}. It only suppresses invalidations for writes made on
+ * the tracking connection itself, which never writes, so this replica still receives the
+ * invalidations for its own writes through the factory connections. They are applied rather
+ * than filtered out: a replica cannot tell its own write from a concurrent write by another
+ * replica to the same key, and evicting an entry it has just written only costs one extra read.
+ * </p>
+ * <p>
+ * If the server does not speak RESP3 or rejects tracking, the invalidator logs a warning and
+ * the near cache stays on pub/sub invalidation. While the tracking connection is down the near
+ * cache may miss invalidations, so it is cleared on disconnect and again once tracking is
+ * re-enabled after a reconnect.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Service
+public class RedisTrackingInvalidator implements RedisConnectionStateListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RedisTrackingInvalidator.class);
+
+    private static final String USER_KEY_PREFIX = "user:";
+
+    private static final String USER_HASH_KEY_PREFIX = "user:h:";
+
+    private final UserNearCache nearCache;
+    private final RedisConnectionFactory connectionFactory;
+    private final ApplicationProperties.Cache properties;
+
+    private RedisClient client;
+    private StatefulRedisConnection<String, String> connection;
+    private volatile boolean active;
+
+    /**
+     * Constructor to initialize dependencies.
+     *
+     * @param applicationProperties the application properties selecting the invalidation mode
+     * @param nearCache             the near cache to invalidate
+     * @param connectionFactory     the connection factory whose server is tracked
+     */
+    public RedisTrackingInvalidator(ApplicationProperties applicationProperties, UserNearCache nearCache,
+                                    RedisConnectionFactory connectionFactory) {
+        this.properties = applicationProperties.getCache();
+        this.nearCache = nearCache;
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * Opens the tracking connection once the application is ready, falling back to
+     * pub/sub invalidation if the server does not support it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (properties.getUser().getNearCache().getInvalidation() != ApplicationProperties.Cache.Invalidation.TRACKING
+                || connection != null) {
+            return;
+        }
+        if (!(connectionFactory instanceof LettuceConnectionFactory lettuce)) {
+            LOG.warn("Redis client tracking needs a Lettuce connection factory; using pub/sub invalidation");
+            return;
+        }
+        try {
+            client = RedisClient.create(redisUri(lettuce.getStandaloneConfiguration()));
+            client.setOptions(ClientOptions.builder()
+                    .protocolVersion(ProtocolVersion.RESP3)
+                    .socketOptions(SocketOptions.builder().connectTimeout(properties.getConnectTimeout()).build())
+                    .timeoutOptions(TimeoutOptions.enabled(properties.getCommandTimeout()))
+                    .build());
+            connection = client.connect();
+            connection.addListener(this::onPushMessage);
+            connection.sync().clientTracking(trackingArgs());
+            connection.addListener(this);
+            active = true;
+            LOG.info("User near cache invalidated by Redis client tracking");
+        } catch (RuntimeException e) {
+            LOG.warn("Redis client tracking is not available, using pub/sub invalidation: {}", e.getMessage());
+            shutdown();
+        }
+    }
+
+    /**
+     * Closes the tracking connection on shutdown.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        active = false;
+        if (connection != null) {
+            connection.close();
+            connection = null;
+        }
+        if (client != null) {
+            client.shutdown();
+            client = null;
+        }
+    }
+
+    /**
+     * Returns whether the near cache currently receives invalidations from Redis.
+     *
+     * @return true while client tracking is enabled
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Clears the near cache when the tracking connection drops, since invalidations
+     * may be missed until tracking is enabled again.
+     *
+     * @param channelHandler the disconnected connection
+     */
+    @Override
+    public void onRedisDisconnected(RedisChannelHandler<?, ?> channelHandler) {
+        if (active) {
+            active = false;
+            nearCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Re-enables tracking on a reconnected connection; tracking state does not survive a reconnect.
+     *
+     * @param channelHandler the connected connection
+     * @param socketAddress  the remote address
+     */
+    @Override
+    public void onRedisConnected(RedisChannelHandler<?, ?> channelHandler, SocketAddress socketAddress) {
+        StatefulRedisConnection<String, String> current = connection;
+        if (current == null || active) {
+            return;
+        }
+        current.async().clientTracking(trackingArgs()).whenComplete((result, error) -> {
+            if (error != null) {
+                LOG.warn("Could not re-enable Redis client tracking: {}", error.getMessage());
+                return;
+            }
+            active = true;
+            nearCache.invalidateAll();
+        });
+    }
+
+    /**
+     * Applies an invalidation pushed by Redis. A null key list means the server flushed
+     * its tracking table, so everything is invalidated.
+     */
+    void onPushMessage(PushMessage message) {
+        if (!"invalidate".equals(message.getType())) {
+            return;
+        }
+        List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+        invalidate(content.size() > 1 ? content.get(1) : null);
+    }
+
+    void invalidate(Object keys) {
+        if (!(keys instanceof List<?> list)) {
+            nearCache.invalidateAll();
+            return;
+        }
+        for (Object key : list) {
+            Long id = userId(String.valueOf(key));
+            if (id != null) {
+                nearCache.invalidate(id);
+            }
+        }
+    }
+
+    /**
+     * Extracts the user ID from a {@code user:{id}} or {@code user:h:{id}} key.
+     */
+    private static Long userId(String key) {
+        String id = key.startsWith(USER_HASH_KEY_PREFIX) ? key.substring(USER_HASH_KEY_PREFIX.length())
+                : key.startsWith(USER_KEY_PREFIX) ? key.substring(USER_KEY_PREFIX.length()) : null;
+        try {
+            return id != null ? Long.valueOf(id) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static TrackingArgs trackingArgs() {
+        return TrackingArgs.Builder.enabled().bcast().noloop().prefixes(USER_KEY_PREFIX);
+    }
+
+    private static RedisURI redisUri(RedisStandaloneConfiguration configuration) {
+        RedisURI.Builder uri = RedisURI.builder()
+                .withHost(configuration.getHostName())
+                .withPort(configuration.getPort())
+                .withDatabase(configuration.getDatabase());
+        configuration.getPassword().toOptional().ifPresent(uri::withPassword);
+        return uri.build();
+    }
+}
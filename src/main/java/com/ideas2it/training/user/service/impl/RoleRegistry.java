@@ -0,0 +1,158 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.domain.Role;
+import com.ideas2it.training.user.enums.RoleType;
+import com.ideas2it.training.user.repository.RoleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory registry of the roles, keyed by {@link RoleType}.
+ * <p>
+ * Roles are a tiny, almost static set, so they are loaded once at startup and resolved with a
+ * map lookup instead of a query per role. The registry is reloaded after any role change
+ * commits, and the change is broadcast on a Redis pub/sub channel as the node ID so every
+ * other replica reloads too. The registered roles are detached entities; they are only
+ * referenced from user associations and never modified.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Service
+public class RoleRegistry implements MessageListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RoleRegistry.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final RoleRepository roleRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ApplicationProperties.Cache.Roles properties;
+
+    private volatile Map<RoleType, Role> roles;
+
+    /**
+     * Constructor to initialize dependencies.
+     *
+     * @param roleRepository        the repository roles are loaded from
+     * @param stringRedisTemplate   the template used to broadcast role changes
+     * @param applicationProperties the application properties holding the refresh channel
+     */
+    public RoleRegistry(RoleRepository roleRepository, StringRedisTemplate stringRedisTemplate,
+                        ApplicationProperties applicationProperties) {
+        this.roleRepository = roleRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = applicationProperties.getCache().getRoles();
+    }
+
+    /**
+     * Loads the roles once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reload();
+    }
+
+    /**
+     * Resolves a role type to its role. Falls back to the database, and reloads the
+     * registry, only for a role that is not registered yet.
+     *
+     * @param roleType the role type
+     * @return the role
+     * @throws IllegalArgumentException if no such role exists
+     */
+    public Role resolve(RoleType roleType) {
+        Map<RoleType, Role> current = roles;
+        if (current == null) {
+            current = reload();
+        }
+        Role role = current.get(roleType);
+        if (role != null) {
+            return role;
+        }
+        role = roleRepository.findByName(roleType.name())
+                .orElseThrow(() -> new IllegalArgumentException("Invalid role: " + roleType));
+        reload();
+        return role;
+    }
+
+    /**
+     * Reloads the registry on this and every other replica once the current transaction commits.
+     */
+    public void refresh() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reloadAndPublish();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reloadAndPublish();
+            }
+        });
+    }
+
+    /**
+     * Returns the name of the pub/sub channel used to broadcast role changes.
+     *
+     * @return the channel name
+     */
+    public String getChannel() {
+        return properties.getChannel();
+    }
+
+    /**
+     * Reloads the registry when another replica changed a role.
+     *
+     * @param message the pub/sub message holding the publishing node ID
+     * @param pattern the matched pattern, unused
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (!nodeId.equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+            reload();
+        }
+    }
+
+    /**
+     * Loads all roles whose name is a known {@link RoleType} and swaps them in.
+     */
+    Map<RoleType, Role> reload() {
+        Map<RoleType, Role> loaded = new EnumMap<>(RoleType.class);
+        for (Role role : roleRepository.findAll()) {
+            Arrays.stream(RoleType.values())
+                    .filter(type -> type.name().equals(role.getName()))
+                    .findFirst()
+                    .ifPresent(type -> loaded.put(type, role));
+        }
+        Map<RoleType, Role> registry = Collections.unmodifiableMap(loaded);
+        roles = registry;
+        return registry;
+    }
+
+    private void reloadAndPublish() {
+        try {
+            reload();
+            stringRedisTemplate.convertAndSend(properties.getChannel(), nodeId);
+        } catch (RuntimeException e) {
+            LOG.warn("Could not refresh the role registry: {}", e.getMessage());
+        }
+    }
+}
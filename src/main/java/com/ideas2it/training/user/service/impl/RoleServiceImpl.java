@@ -1,21 +1,28 @@
 package com.ideas2it.training.user.service.impl;
 
 import com.ideas2it.training.user.domain.Role;
+import com.ideas2it.training.user.dto.CursorPage;
 import com.ideas2it.training.user.dto.PagedResponse;
 import com.ideas2it.training.user.dto.RoleCreateDto;
 import com.ideas2it.training.user.dto.RoleInfo;
 import com.ideas2it.training.user.dto.RoleUpdateDto;
 import com.ideas2it.training.user.repository.RoleRepository;
 import com.ideas2it.training.user.service.RoleService;
+import com.ideas2it.training.user.service.caching.PagedListingCache;
 import com.ideas2it.training.user.service.mapper.RoleMapper;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service implementation for managing roles.
@@ -31,22 +38,32 @@ import java.util.Optional;
 @Transactional
 public class RoleServiceImpl implements RoleService {
 
+    private static final String ROLE_PAGES = "role";
+
     private final RoleRepository roleRepository;
     private final RoleMapper roleMapper;
+    private final PagedListingCache pagedListingCache;
+    private final RoleRegistry roleRegistry;
 
     /**
-     * Constructor to initialize RoleRepository and RoleMapper.
+     * Constructor to initialize RoleRepository, RoleMapper, the paged listing cache and the role registry.
      *
-     * @param roleRepository the repository for role persistence
-     * @param roleMapper     the mapper for converting between Role entities and DTOs
+     * @param roleRepository    the repository for role persistence
+     * @param roleMapper        the mapper for converting between Role entities and DTOs
+     * @param pagedListingCache the cache of paged role listings
+     * @param roleRegistry      the in-memory registry refreshed after role changes
      */
-    public RoleServiceImpl(RoleRepository roleRepository, RoleMapper roleMapper) {
+    public RoleServiceImpl(RoleRepository roleRepository, RoleMapper roleMapper, PagedListingCache pagedListingCache,
+                           RoleRegistry roleRegistry) {
         this.roleRepository = roleRepository;
         this.roleMapper = roleMapper;
+        this.pagedListingCache = pagedListingCache;
+        this.roleRegistry = roleRegistry;
     }
 
     /**
      * Creates a new role.
+     * The role registry of every replica is refreshed after commit, as for every role change.
      *
      * @param dto the RoleCreateDto containing role creation details
      * @return the created RoleInfo
@@ -54,7 +71,10 @@ public class RoleServiceImpl implements RoleService {
     @Override
     public RoleInfo create(@Valid RoleCreateDto dto) {
         Role role = roleMapper.toEntity(dto);
-        return roleMapper.toInfo(roleRepository.save(role));
+        RoleInfo roleInfo = roleMapper.toInfo(roleRepository.save(role));
+        pagedListingCache.invalidate(ROLE_PAGES);
+        roleRegistry.refresh();
+        return roleInfo;
     }
 
     /**
@@ -67,7 +87,9 @@ public class RoleServiceImpl implements RoleService {
     public RoleInfo update(RoleUpdateDto dto) {
         Role role = roleRepository.findById(dto.getId()).orElseThrow();
         role.setName(dto.getName().name());
-        return roleMapper.toInfo(roleRepository.save(role));
+        RoleInfo roleInfo = roleMapper.toInfo(roleRepository.save(role));
+        roleRegistry.refresh();
+        return roleInfo;
     }
 
     /**
@@ -81,7 +103,9 @@ public class RoleServiceImpl implements RoleService {
     public RoleInfo partialUpdate(RoleUpdateDto dto) {
         Role role = roleRepository.findById(dto.getId()).orElseThrow();
         if (dto.getName() != null) role.setName(dto.getName().name());
-        return roleMapper.toInfo(roleRepository.save(role));
+        RoleInfo roleInfo = roleMapper.toInfo(roleRepository.save(role));
+        roleRegistry.refresh();
+        return roleInfo;
     }
 
     /**
@@ -110,12 +134,26 @@ public class RoleServiceImpl implements RoleService {
 
     /**
      * Retrieves a paginated list of roles.
+     * Cached pages hold role IDs only and are hydrated with a single IN query, which
+     * skips the count query of a full page load.
      *
      * @param offset the starting index of the page
      * @param limit  the number of roles per page
      * @return a PagedResponse containing the paginated RoleInfo objects
      */
     public PagedResponse<RoleInfo> getAllPaged(int offset, int limit) {
+        return pagedListingCache.getPage(ROLE_PAGES, offset, limit, this::getByIds,
+                () -> loadPage(offset, limit), RoleInfo::getId);
+    }
+
+    private List<RoleInfo> getByIds(List<Long> ids) {
+        Map<Long, RoleInfo> found = roleRepository.findAllById(ids).stream()
+                .map(roleMapper::toInfo)
+                .collect(Collectors.toMap(RoleInfo::getId, Function.identity()));
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    private PagedResponse<RoleInfo> loadPage(int offset, int limit) {
         PageRequest pageRequest = PageRequest.of(offset / limit, limit);
         Page<Role> page = roleRepository.findAll(pageRequest);
 
@@ -131,6 +169,24 @@ public class RoleServiceImpl implements RoleService {
         );
     }
 
+    /**
+     * Retrieves the page of roles following a cursor, ordered by ID.
+     * Reads one row more than the limit to tell whether a next page exists, without a count query.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit  the number of roles per page
+     * @return the page of roles and the cursor of the next page
+     */
+    @Override
+    public CursorPage<RoleInfo> getPageAfter(String cursor, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("Limit must be positive");
+        List<Role> roles = roleRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.decodeCursor(cursor), Limit.of(limit + 1));
+        boolean hasNext = roles.size() > limit;
+        List<RoleInfo> roleInfos = roles.stream().limit(limit).map(roleMapper::toInfo).toList();
+        String nextCursor = hasNext ? CursorPage.encodeCursor(roleInfos.get(roleInfos.size() - 1).getId()) : null;
+        return new CursorPage<>(roleInfos, nextCursor, roleInfos.size());
+    }
+
     /**
      * Deletes a role by ID.
      *
@@ -139,5 +195,7 @@ public class RoleServiceImpl implements RoleService {
     @Override
     public void delete(Long id) {
         roleRepository.deleteById(id);
+        pagedListingCache.invalidate(ROLE_PAGES);
+        roleRegistry.refresh();
     }
 }
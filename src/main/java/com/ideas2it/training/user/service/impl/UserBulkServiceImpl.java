@@ -0,0 +1,296 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.domain.Role;
+import com.ideas2it.training.user.domain.User;
+import com.ideas2it.training.user.dto.BulkUserResult;
+import com.ideas2it.training.user.dto.UserCreateDto;
+import com.ideas2it.training.user.dto.UserInfo;
+import com.ideas2it.training.user.enums.BulkStatus;
+import com.ideas2it.training.user.enums.RoleType;
+import com.ideas2it.training.user.repository.UserRepository;
+import com.ideas2it.training.user.service.UserBulkService;
+import com.ideas2it.training.user.service.caching.ApproximateCounter;
+import com.ideas2it.training.user.service.caching.PagedListingCache;
+import com.ideas2it.training.user.service.caching.UserCacheService;
+import com.ideas2it.training.user.service.caching.UserCacheWriter;
+import com.ideas2it.training.user.service.mapper.UserMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service implementation for creating users in bulk.
+ * <p>
+ * The whole list is validated up front. Valid rows are then inserted in chunks of
+ * {@code application.bulk.chunk-size}, each in its own transaction: usernames that already
+ * exist are looked up with one query per chunk, passwords are hashed in parallel on the
+ * {@link PasswordHasher} pool and the users are inserted with JDBC batching. Roles are resolved once per request.
+ * If a chunk fails, its rows are retried one by one so that only the offending rows are
+ * rejected. Cache updates for a chunk are applied together once it commits.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Service
+public class UserBulkServiceImpl implements UserBulkService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserBulkServiceImpl.class);
+
+    private static final String USER_PAGES = "user";
+
+    private final UserRepository userRepository;
+    private final RoleRegistry roleRegistry;
+    private final UserMapper userMapper;
+    private final PasswordHasher passwordHasher;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final UserCacheService userCacheService;
+    private final UserCacheWriter userCacheWriter;
+    private final KnownUsernameFilter knownUsernameFilter;
+    private final PagedListingCache pagedListingCache;
+    private final ApproximateCounter approximateCounter;
+    private final ApplicationProperties.Bulk properties;
+
+    /**
+     * Constructor to initialize dependencies.
+     *
+     * @param userRepository        the repository for user entities
+     * @param roleRegistry          the registry resolving role types
+     * @param userMapper            the mapper for user entities and DTOs
+     * @param passwordHasher        the hasher of user passwords
+     * @param validator             the validator checking each user up front
+     * @param transactionManager    the transaction manager running one transaction per chunk
+     * @param userCacheService      the cache of users
+     * @param userCacheWriter       the writer applying cache updates after commit
+     * @param knownUsernameFilter   the filter of existing usernames
+     * @param pagedListingCache     the cache of paged listings
+     * @param approximateCounter    the approximate user counter
+     * @param applicationProperties the application properties holding the chunk size and row limit
+     */
+    public UserBulkServiceImpl(UserRepository userRepository, RoleRegistry roleRegistry, UserMapper userMapper,
+                               PasswordHasher passwordHasher, Validator validator,
+                               PlatformTransactionManager transactionManager, UserCacheService userCacheService,
+                               UserCacheWriter userCacheWriter, KnownUsernameFilter knownUsernameFilter,
+                               PagedListingCache pagedListingCache, ApproximateCounter approximateCounter,
+                               ApplicationProperties applicationProperties) {
+        this.userRepository = userRepository;
+        this.roleRegistry = roleRegistry;
+        this.userMapper = userMapper;
+        this.passwordHasher = passwordHasher;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userCacheService = userCacheService;
+        this.userCacheWriter = userCacheWriter;
+        this.knownUsernameFilter = knownUsernameFilter;
+        this.pagedListingCache = pagedListingCache;
+        this.approximateCounter = approximateCounter;
+        this.properties = applicationProperties.getBulk();
+    }
+
+    /**
+     * Creates users in bulk.
+     *
+     * @param dtos the users to create
+     * @return one result per given user, in the given order
+     * @throws IllegalArgumentException if the list is empty or longer than {@code application.bulk.max-rows}
+     */
+    @Override
+    public List<BulkUserResult> createAll(List<UserCreateDto> dtos) {
+        if (dtos == null || dtos.isEmpty()) throw new IllegalArgumentException("No users given");
+        if (dtos.size() > properties.getMaxRows()) {
+            throw new IllegalArgumentException("At most " + properties.getMaxRows() + " users can be created at once");
+        }
+        BulkUserResult[] results = new BulkUserResult[dtos.size()];
+        List<Row> rows = validate(dtos, results);
+        Map<RoleType, Role> roles = resolveRoles(rows, results);
+        rows.removeIf(row -> results[row.index()] != null);
+
+        int created = 0;
+        for (int from = 0; from < rows.size(); from += properties.getChunkSize()) {
+            created += insertChunk(rows.subList(from, Math.min(from + properties.getChunkSize(), rows.size())), roles, results);
+        }
+        if (created > 0) {
+            pagedListingCache.invalidate(USER_PAGES);
+            approximateCounter.add(USER_PAGES, created);
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Checks every row and rejects invalid ones and usernames repeated within the request.
+     */
+    private List<Row> validate(List<UserCreateDto> dtos, BulkUserResult[] results) {
+        List<Row> rows = new ArrayList<>(dtos.size());
+        Set<String> usernames = new HashSet<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            UserCreateDto dto = dtos.get(i);
+            String error = validate(validator, dto);
+            if (error == null && !usernames.add(dto.getUsername())) {
+                error = "Duplicate username in request";
+            }
+            if (error != null) {
+                results[i] = failed(i, dto, error);
+            } else {
+                rows.add(new Row(i, dto));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Checks a user to create, shared with the CSV import.
+     *
+     * @return the reason the user is invalid, or null if it is valid
+     */
+    static String validate(Validator validator, UserCreateDto dto) {
+        if (dto == null) return "User is missing";
+        Set<ConstraintViolation<UserCreateDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (dto.getUsername().isBlank()) return "username must not be blank";
+        if (dto.getPassword() == null || dto.getPassword().isEmpty()) return "password must not be empty";
+        return null;
+    }
+
+    /**
+     * Resolves each role used in the request once, rejecting rows that use an unknown role.
+     */
+    private Map<RoleType, Role> resolveRoles(List<Row> rows, BulkUserResult[] results) {
+        Map<RoleType, Role> roles = new EnumMap<>(RoleType.class);
+        Map<RoleType, String> unknown = new EnumMap<>(RoleType.class);
+        rows.stream()
+                .map(row -> row.dto().getRoles())
+                .filter(Objects::nonNull)
+                .flatMap(Collection::stream)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(roleType -> {
+                    try {
+                        roles.put(roleType, roleRegistry.resolve(roleType));
+                    } catch (IllegalArgumentException e) {
+                        unknown.put(roleType, e.getMessage());
+                    }
+                });
+        for (Row row : rows) {
+            if (row.dto().getRoles() == null) continue;
+            row.dto().getRoles().stream()
+                    .filter(unknown::containsKey)
+                    .findFirst()
+                    .ifPresent(roleType -> results[row.index()] = failed(row.index(), row.dto(), unknown.get(roleType)));
+        }
+        return roles;
+    }
+
+    /**
+     * Inserts one chunk in its own transaction, falling back to one transaction per row if it fails.
+     *
+     * @return the number of users created
+     */
+    private int insertChunk(List<Row> chunk, Map<RoleType, Role> roles, BulkUserResult[] results) {
+        Set<String> existing = userRepository.findExistingUsernames(chunk.stream().map(row -> row.dto().getUsername()).toList());
+        List<Row> fresh = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (existing.contains(row.dto().getUsername())) {
+                results[row.index()] = failed(row.index(), row.dto(), "Username already exists");
+            } else {
+                fresh.add(row);
+            }
+        }
+        if (fresh.isEmpty()) return 0;
+
+        List<String> hashes = passwordHasher.encodeAll(fresh.stream().map(row -> row.dto().getPassword()).toList());
+        List<UserInfo> created = new ArrayList<>(fresh.size());
+        try {
+            List<User> saved = transactionTemplate.execute(status -> userRepository.saveAll(toEntities(fresh, hashes, roles)));
+            for (int i = 0; i < fresh.size(); i++) {
+                created.add(succeeded(fresh.get(i), userMapper.toInfo(saved.get(i)), results));
+            }
+        } catch (RuntimeException e) {
+            LOG.debug("Bulk chunk of {} users failed, inserting them one by one: {}", fresh.size(), e.getMessage());
+            for (int i = 0; i < fresh.size(); i++) {
+                Row row = fresh.get(i);
+                List<User> user = toEntities(List.of(row), List.of(hashes.get(i)), roles);
+                try {
+                    User saved = transactionTemplate.execute(status -> userRepository.save(user.get(0)));
+                    created.add(succeeded(row, userMapper.toInfo(saved), results));
+                } catch (RuntimeException rowFailure) {
+                    results[row.index()] = failed(row.index(), row.dto(), NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+        cacheCreated(created);
+        return created.size();
+    }
+
+    private List<User> toEntities(List<Row> rows, List<String> hashes, Map<RoleType, Role> roles) {
+        List<User> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            UserCreateDto dto = rows.get(i).dto();
+            User user = userMapper.toEntity(dto);
+            user.setPassword(hashes.get(i));
+            user.setRoles(dto.getRoles() == null ? new HashSet<>() : dto.getRoles().stream()
+                    .filter(Objects::nonNull)
+                    .map(roles::get)
+                    .collect(Collectors.toSet()));
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * Caches the users of a committed chunk with a single pipelined write and makes their
+     * usernames visible to authentication lookups.
+     */
+    private void cacheCreated(List<UserInfo> users) {
+        if (users.isEmpty()) return;
+        List<String> usernames = users.stream().map(UserInfo::getUsername).toList();
+        userCacheWriter.execute(() -> {
+            userCacheService.saveUsers(users);
+            userCacheService.deleteMissingUsernames(usernames);
+            knownUsernameFilter.addAll(usernames);
+        });
+    }
+
+    private static UserInfo succeeded(Row row, UserInfo user, BulkUserResult[] results) {
+        results[row.index()] = BulkUserResult.builder()
+                .index(row.index())
+                .username(user.getUsername())
+                .status(BulkStatus.CREATED)
+                .id(user.getId())
+                .build();
+        return user;
+    }
+
+    private static BulkUserResult failed(int index, UserCreateDto dto, String error) {
+        return BulkUserResult.builder()
+                .index(index)
+                .username(dto == null ? null : dto.getUsername())
+                .status(BulkStatus.FAILED)
+                .error(error)
+                .build();
+    }
+
+    private record Row(int index, UserCreateDto dto) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.dto.UserInfo;
+import com.ideas2it.training.user.repository.UserRepository;
+import com.ideas2it.training.user.service.caching.UserCacheRefreshEvent;
+import com.ideas2it.training.user.service.caching.UserCacheService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads cached users in the background when the cache asks for an early refresh.
+ * <p>
+ * Refreshes run on a small bounded pool and at most one refresh per user is in flight.
+ * A refresh is best effort: when the queue is full the request is dropped and the entry
+ * simply expires as it would have without early refresh.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Service
+public class UserCacheRefresher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserCacheRefresher.class);
+
+    private static final int QUEUE_CAPACITY = 1_000;
+
+    private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
+    private final ExecutorService executor;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor to initialize dependencies and the refresh pool.
+     *
+     * @param userRepository        the repository the fresh value is read from
+     * @param userCacheService      the cache being refreshed
+     * @param applicationProperties the application properties holding the pool size
+     */
+    public UserCacheRefresher(UserRepository userRepository, UserCacheService userCacheService,
+                              ApplicationProperties applicationProperties) {
+        this.userRepository = userRepository;
+        this.userCacheService = userCacheService;
+        int threads = applicationProperties.getCache().getUser().getEarlyRefresh().getMaxConcurrentRefreshes();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+            Thread thread = new Thread(runnable, "user-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Schedules a background reload of the user, unless one is already in flight.
+     *
+     * @param event the refresh request
+     */
+    @EventListener
+    public void onRefresh(UserCacheRefreshEvent event) {
+        Long id = event.userId();
+        if (!inFlight.add(id)) {
+            return;
+        }
+        try {
+            executor.execute(() -> refresh(id));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(id);
+            LOG.debug("Dropping early refresh of user {}: refresh queue is full", id);
+        }
+    }
+
+    /**
+     * Stops the refresh pool on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void refresh(Long id) {
+        try {
+            Optional<UserInfo> user = userRepository.findInfoById(id);
+            if (user.isPresent()) {
+                userCacheService.populateUser(user.get());
+            } else {
+                userCacheService.deleteUser(id);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Early refresh of user {} failed: {}", id, e.getMessage());
+        } finally {
+            inFlight.remove(id);
+        }
+    }
+}
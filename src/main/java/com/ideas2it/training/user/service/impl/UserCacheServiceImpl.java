@@ -1,16 +1,70 @@
 package com.ideas2it.training.user.service.impl;
 
+import com.ideas2it.training.user.config.ApplicationProperties;
 import com.ideas2it.training.user.dto.UserInfo;
+import com.ideas2it.training.user.service.caching.UserCacheRefreshEvent;
 import com.ideas2it.training.user.service.caching.UserCacheService;
+import com.ideas2it.training.user.service.caching.UserInfoHashMapper;
+import com.ideas2it.training.user.service.caching.UserNearCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service implementation for caching user data.
  * <p>
- * This class provides methods to save, retrieve, and delete user data in a Redis cache.
+ * This class provides methods to save, retrieve, and delete user data in a two-tier cache:
+ * an in-process {@link UserNearCache} (L1) in front of Redis (L2). Writes update both tiers
+ * and notify other replicas to drop their L1 copy; backfills of users read from the database
+ * ({@code populateUser}, {@code populateUsers}) update both tiers without notifying. Bulk variants read with a single MGET and
+ * write through a pipeline so a batch costs one round-trip. Hit/miss counts of the Redis tier are
+ * exported as {@code cache.gets} meters tagged {@code cache=user-l2}.
+ * </p>
+ * <p>
+ * Every write gets the configured time-to-live plus a random jitter so that users cached
+ * together do not expire together. Reads close to expiry may ask for a background refresh
+ * using probabilistic early expiration (XFetch): a read refreshes when
+ * {@code now - recomputeTime * beta * ln(random) >= expiry}, so hot users are reloaded
+ * before they expire while cold users are left to expire.
+ * </p>
+ * <p>
+ * Lookups of users and usernames that do not exist are remembered for a short negative
+ * time-to-live as tombstone markers in Redis (and in the near cache for IDs), so repeated
+ * lookups of unknown keys cost no database work. Tombstones are written with SET NX so they
+ * never replace a real entry, and a later save simply overwrites them.
+ * </p>
+ * <p>
+ * With {@code application.cache.user.storage=hash} each user is kept as a Redis hash under
+ * {@code user:h:{id}} with one field per property and a {@code version} field incremented on
+ * every write. Partial updates then write only the changed fields, and projections read only
+ * the requested fields with HMGET. Tombstones stay under {@code user:{id}}.
+ * </p>
+ * <p>
+ * A secondary index {@code username:id:{username} -> id} lets username lookups resolve the
+ * user ID from the cache. Renames move the mapping atomically in one script, and a mapping
+ * is only removed while it still points to the user being renamed or deleted.
  * </p>
  *
  * @author Alagu Nirmal Mahendran
@@ -21,43 +75,259 @@ public class UserCacheServiceImpl implements UserCacheService {
 
     private static final String USER_KEY_PREFIX = "user:";
 
+    private static final String USER_HASH_KEY_PREFIX = "user:h:";
+
+    /**
+     * Writes hash fields atomically. KEYS[1] is the user hash, KEYS[2] the value key holding
+     * any tombstone. ARGV is: require-existing flag, TTL in millis, number of fields to set,
+     * the field/value pairs to set, then the fields to delete. A partial write (flag 1) to a
+     * hash that has expired is refused, so a partial hash is never left behind.
+     */
+    private static final RedisScript<Long> WRITE_FIELDS = new DefaultRedisScript<>("""
+            if ARGV[1] == '1' then
+              if redis.call('exists', KEYS[1]) == 0 then return 0 end
+            else
+              redis.call('del', KEYS[2])
+            end
+            local sets = tonumber(ARGV[3])
+            for i = 0, sets - 1 do
+              redis.call('hset', KEYS[1], ARGV[4 + 2 * i], ARGV[5 + 2 * i])
+            end
+            for i = 4 + 2 * sets, #ARGV do
+              redis.call('hdel', KEYS[1], ARGV[i])
+            end
+            redis.call('hincrby', KEYS[1], 'version', 1)
+            redis.call('pexpire', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private static final String MISSING_USERNAME_KEY_PREFIX = "username:missing:";
+
+    private static final String USERNAME_KEY_PREFIX = "username:id:";
+
+    private static final String TOMBSTONE = "__missing__";
+
+    private static final String L2_CACHE_NAME = "user-l2";
+
+    private static final int DELETE_ALL_BATCH_SIZE = 500;
+
+    /**
+     * Moves a username mapping. KEYS[1] is the old mapping, KEYS[2] the new one. ARGV is: the
+     * user ID, the TTL in millis (empty to set no new mapping) and a flag to remove the old
+     * mapping, which is only removed while it still holds the user ID.
+     */
+    private static final RedisScript<Long> MOVE_USERNAME = new DefaultRedisScript<>("""
+            if ARGV[3] == '1' and redis.call('get', KEYS[1]) == ARGV[1] then
+              redis.call('del', KEYS[1])
+            end
+            if ARGV[2] ~= '' then
+              redis.call('set', KEYS[2], ARGV[1], 'px', ARGV[2])
+            end
+            return 1
+            """, Long.class);
+
     private final RedisTemplate<String, Object> redisTemplate;
+    private final UserNearCache nearCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApplicationProperties.Cache.User properties;
+    private final boolean hashStorage;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
 
     /**
-     * Constructor to initialize the RedisTemplate.
+     * Constructor to initialize the RedisTemplate, the near cache, the cache settings and the L2 meters.
      *
-     * @param redisTemplate the RedisTemplate for interacting with the Redis cache
+     * @param redisTemplate         the RedisTemplate for interacting with the Redis cache
+     * @param nearCache             the in-process cache kept in front of Redis
+     * @param applicationProperties the application properties holding TTL and early refresh settings
+     * @param eventPublisher        the publisher used to request background refreshes
+     * @param meterRegistry         the registry exposing L2 hit/miss counts
      */
-    public UserCacheServiceImpl(RedisTemplate<String, Object> redisTemplate) {
+    public UserCacheServiceImpl(RedisTemplate<String, Object> redisTemplate, UserNearCache nearCache,
+                                ApplicationProperties applicationProperties, ApplicationEventPublisher eventPublisher,
+                                MeterRegistry meterRegistry) {
         this.redisTemplate = redisTemplate;
+        this.nearCache = nearCache;
+        this.eventPublisher = eventPublisher;
+        this.properties = applicationProperties.getCache().getUser();
+        this.hashStorage = properties.getStorage() == ApplicationProperties.Cache.Storage.HASH;
+        this.l2Hits = cacheGets(meterRegistry, "hit");
+        this.l2Misses = cacheGets(meterRegistry, "miss");
     }
 
     /**
-     * Saves a user to the Redis cache with a time-to-live of 1 minute.
+     * Saves a changed user to the Redis cache with the configured time-to-live plus jitter.
+     * The local copy is refreshed and other replicas are told to evict theirs.
      *
      * @param user the UserInfo object to be cached
      */
     @Override
     public void saveUser(UserInfo user) {
-        redisTemplate.opsForValue().set(USER_KEY_PREFIX + user.getId(), user, Duration.ofMinutes(1));
+        populateUser(user);
+        nearCache.publishInvalidation(user.getId());
+    }
+
+    /**
+     * Caches a user read from the database, in Redis and in the local near cache, without
+     * notifying other replicas. Used to backfill the cache on reads, where other replicas'
+     * copies are still current.
+     *
+     * @param user the UserInfo object to be cached
+     */
+    @Override
+    public void populateUser(UserInfo user) {
+        Duration ttl = nextTimeToLive();
+        if (hashStorage) {
+            writeFields(user, UserInfoHashMapper.FIELD_NAMES, false, ttl);
+        } else {
+            redisTemplate.opsForValue().set(USER_KEY_PREFIX + user.getId(), user, ttl);
+        }
+        nearCache.put(user, System.currentTimeMillis() + ttl.toMillis());
     }
 
     /**
-     * Retrieves a user from the Redis cache by ID.
+     * Saves the changed fields of a user. In hash storage only those fields (and the version)
+     * are written; if the cached hash has expired the whole user is written instead. In value
+     * storage this is the same as {@link #saveUser(UserInfo)}.
+     *
+     * @param user   the full, current state of the user
+     * @param fields the names of the fields that changed
+     */
+    @Override
+    public void saveUserFields(UserInfo user, Collection<String> fields) {
+        if (!hashStorage) {
+            saveUser(user);
+            return;
+        }
+        Duration ttl = nextTimeToLive();
+        if (!writeFields(user, fields, true, ttl)) {
+            writeFields(user, UserInfoHashMapper.FIELD_NAMES, false, ttl);
+        }
+        nearCache.put(user, System.currentTimeMillis() + ttl.toMillis());
+        nearCache.publishInvalidation(user.getId());
+    }
+
+    /**
+     * Retrieves a user by ID, first from the near cache and then from Redis.
+     * A Redis hit is copied into the near cache. A hit close to expiry may trigger
+     * a background refresh.
      *
      * @param id the ID of the user to retrieve
      * @return the UserInfo object if found in the cache, otherwise null
      */
     @Override
     public UserInfo getUser(Long id) {
+        UserNearCache.Entry entry = getUserEntry(id);
+        return entry != null ? entry.user() : null;
+    }
+
+    /**
+     * Retrieves a user by ID together with whether it is known not to exist, in a single
+     * round-trip: in value storage the user and its tombstone share one key, and in hash
+     * storage the hash and the tombstone key are read in one pipeline. A Redis hit or
+     * tombstone is copied into the near cache. A hit close to expiry may trigger a
+     * background refresh.
+     *
+     * @param id the ID of the user to retrieve
+     * @return the cached user, an entry without a user if a tombstone is cached, or null if
+     * neither is cached
+     */
+    @Override
+    public UserNearCache.Entry getUserEntry(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        UserNearCache.Entry local = nearCache.getEntry(id);
+        if (local != null && local.user() == null && local.expiresAtMillis() > System.currentTimeMillis()) {
+            return local;
+        }
+        if (local != null && local.user() != null) {
+            refreshIfExpiring(id, local.expiresAtMillis());
+            return local;
+        }
+        String key = hashStorage ? USER_HASH_KEY_PREFIX + id : USER_KEY_PREFIX + id;
+        boolean earlyRefresh = properties.getEarlyRefresh().isEnabled();
+        Object value;
+        Object marker;
+        long expiresAtMillis = Long.MAX_VALUE;
+        if (hashStorage || earlyRefresh) {
+            List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    if (hashStorage) {
+                        operations.opsForHash().entries(key);
+                        operations.opsForValue().get(USER_KEY_PREFIX + id);
+                    } else {
+                        operations.opsForValue().get(key);
+                    }
+                    if (earlyRefresh) {
+                        operations.getExpire(key, TimeUnit.MILLISECONDS);
+                    }
+                    return null;
+                }
+            });
+            value = hashStorage ? UserInfoHashMapper.fromHash((Map<?, ?>) results.get(0)) : results.get(0);
+            marker = hashStorage ? results.get(1) : value;
+            if (earlyRefresh && results.get(results.size() - 1) instanceof Long remaining && remaining >= 0) {
+                expiresAtMillis = System.currentTimeMillis() + remaining;
+            }
+        } else {
+            value = redisTemplate.opsForValue().get(key);
+            marker = value;
+        }
+        if (value instanceof UserInfo user) {
+            l2Hits.increment();
+            nearCache.put(user, expiresAtMillis);
+            refreshIfExpiring(id, expiresAtMillis);
+            return new UserNearCache.Entry(user, expiresAtMillis);
+        }
+        l2Misses.increment();
+        if (!TOMBSTONE.equals(marker)) {
+            return null;
+        }
+        long tombstoneExpiresAt = expiresAtMillis != Long.MAX_VALUE && !hashStorage ? expiresAtMillis
+                : System.currentTimeMillis() + properties.getNegativeTimeToLive().toMillis();
+        nearCache.putMissing(id, tombstoneExpiresAt);
+        return new UserNearCache.Entry(null, tombstoneExpiresAt);
+    }
+
+    /**
+     * Retrieves only some fields of a user. In hash storage the fields are read from Redis
+     * with a single HMGET; otherwise the whole user is read and projected.
+     *
+     * @param id     the ID of the user to retrieve
+     * @param fields the names of the fields to return; {@code id} is always included
+     * @return a UserInfo holding only the requested fields, or null if not cached
+     */
+    @Override
+    public UserInfo getUserFields(Long id, Collection<String> fields) {
         if (id == null) {
             throw new IllegalArgumentException("User ID cannot be null");
         }
-        return (UserInfo) redisTemplate.opsForValue().get(USER_KEY_PREFIX + id);
+        List<String> names = UserInfoHashMapper.fieldNames(fields);
+        UserInfo local = nearCache.get(id);
+        if (local != null || !hashStorage) {
+            UserInfo user = local != null ? local : getUser(id);
+            return user != null ? UserInfoHashMapper.project(user, names) : null;
+        }
+        List<Object> values = redisTemplate.opsForHash().multiGet(USER_HASH_KEY_PREFIX + id, List.copyOf(names));
+        Map<String, Object> hash = new HashMap<>();
+        for (int i = 0; values != null && i < names.size(); i++) {
+            if (values.get(i) != null) {
+                hash.put(names.get(i), values.get(i));
+            }
+        }
+        if (hash.isEmpty()) {
+            l2Misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        return UserInfoHashMapper.fromHash(hash);
     }
 
     /**
-     * Deletes a user from the Redis cache by ID.
+     * Deletes a user from the Redis cache and from the near cache of every replica.
      *
      * @param id the ID of the user to delete
      */
@@ -66,6 +336,357 @@ public class UserCacheServiceImpl implements UserCacheService {
         if (id == null) {
             throw new IllegalArgumentException("User ID cannot be null");
         }
-        redisTemplate.delete(USER_KEY_PREFIX + id);
+        if (hashStorage) {
+            redisTemplate.delete(List.of(USER_HASH_KEY_PREFIX + id, USER_KEY_PREFIX + id));
+        } else {
+            redisTemplate.delete(USER_KEY_PREFIX + id);
+        }
+        nearCache.invalidate(id);
+        nearCache.publishInvalidation(id);
+    }
+
+    /**
+     * Retrieves several users at once, first from the near cache and then from Redis
+     * with a single MGET for the remaining IDs.
+     *
+     * @param ids the IDs of the users to retrieve
+     * @return the cached users keyed by ID; IDs not found in either tier are omitted
+     */
+    @Override
+    public Map<Long, UserInfo> getUsers(Collection<Long> ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("User IDs cannot be null");
+        }
+        Map<Long, UserInfo> found = new HashMap<>(nearCache.getAll(ids));
+        List<Long> remaining = ids.stream().distinct().filter(id -> !found.containsKey(id)).toList();
+        if (remaining.isEmpty()) {
+            return found;
+        }
+        List<Object> values;
+        if (hashStorage) {
+            values = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException {
+                    for (Long id : remaining) {
+                        operations.opsForHash().entries(USER_HASH_KEY_PREFIX + id);
+                    }
+                    return null;
+                }
+            }).stream().map(hash -> (Object) UserInfoHashMapper.fromHash((Map<?, ?>) hash)).toList();
+        } else {
+            values = redisTemplate.opsForValue().multiGet(remaining.stream().map(id -> USER_KEY_PREFIX + id).toList());
+        }
+        int hits = 0;
+        for (int i = 0; values != null && i < remaining.size(); i++) {
+            if (values.get(i) instanceof UserInfo user) {
+                found.put(remaining.get(i), user);
+                nearCache.put(user);
+                hits++;
+            }
+        }
+        l2Hits.increment(hits);
+        l2Misses.increment((double) remaining.size() - hits);
+        return found;
+    }
+
+    /**
+     * Saves several changed users to Redis in one pipelined round-trip, refreshes the local
+     * copies and notifies other replicas with a single invalidation message.
+     *
+     * @param users the UserInfo objects to be cached
+     */
+    @Override
+    public void saveUsers(Collection<UserInfo> users) {
+        if (users == null || users.isEmpty()) {
+            return;
+        }
+        populateUsers(users);
+        nearCache.publishInvalidation(users.stream().map(UserInfo::getId).toList());
+    }
+
+    /**
+     * Caches several users read from the database in one pipelined round-trip, without
+     * notifying other replicas.
+     *
+     * @param users the UserInfo objects to be cached
+     */
+    @Override
+    public void populateUsers(Collection<UserInfo> users) {
+        if (users == null || users.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                for (UserInfo user : users) {
+                    if (hashStorage) {
+                        writeHash(operations, user, nextTimeToLive());
+                    } else {
+                        operations.opsForValue().set(USER_KEY_PREFIX + user.getId(), user, nextTimeToLive());
+                    }
+                }
+                return null;
+            }
+        });
+        long minimumExpiresAt = System.currentTimeMillis() + properties.getTimeToLive().toMillis();
+        for (UserInfo user : users) {
+            nearCache.put(user, minimumExpiresAt);
+        }
+    }
+
+    /**
+     * Deletes several users from Redis with a single multi-key DEL and from the near
+     * cache of every replica.
+     *
+     * @param ids the IDs of the users to delete
+     */
+    @Override
+    public void deleteUsers(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        for (Long id : ids) {
+            keys.add(USER_KEY_PREFIX + id);
+            if (hashStorage) {
+                keys.add(USER_HASH_KEY_PREFIX + id);
+            }
+        }
+        redisTemplate.delete(keys);
+        ids.forEach(nearCache::invalidate);
+        nearCache.publishInvalidation(ids);
+    }
+
+    /**
+     * Deletes every cached user, tombstone and username mapping, scanning the key space in
+     * batches rather than blocking Redis with KEYS, and empties the local near cache.
+     */
+    @Override
+    public void deleteAll() {
+        for (String prefix : List.of(USER_KEY_PREFIX, MISSING_USERNAME_KEY_PREFIX, USERNAME_KEY_PREFIX)) {
+            List<String> keys = new ArrayList<>(DELETE_ALL_BATCH_SIZE);
+            try (Cursor<String> cursor = redisTemplate.scan(
+                    ScanOptions.scanOptions().match(prefix + "*").count(DELETE_ALL_BATCH_SIZE).build())) {
+                while (cursor.hasNext()) {
+                    keys.add(cursor.next());
+                    if (keys.size() == DELETE_ALL_BATCH_SIZE) {
+                        redisTemplate.delete(keys);
+                        keys.clear();
+                    }
+                }
+            }
+            if (!keys.isEmpty()) {
+                redisTemplate.delete(keys);
+            }
+        }
+        nearCache.invalidateAll();
+    }
+
+    /**
+     * Records that a user does not exist for the negative time-to-live, unless a real
+     * entry has been cached in the meantime.
+     *
+     * @param id the ID of the missing user
+     */
+    @Override
+    public void saveMissingUser(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        Duration ttl = properties.getNegativeTimeToLive();
+        redisTemplate.opsForValue().setIfAbsent(USER_KEY_PREFIX + id, TOMBSTONE, ttl);
+        nearCache.putMissing(id, System.currentTimeMillis() + ttl.toMillis());
+    }
+
+    /**
+     * Checks whether a user is known not to exist, first in the near cache and then in Redis.
+     *
+     * @param id the ID of the user
+     * @return true if a tombstone is cached for the user
+     */
+    @Override
+    public boolean isMissingUser(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        if (nearCache.isMissing(id)) {
+            return true;
+        }
+        if (!TOMBSTONE.equals(redisTemplate.opsForValue().get(USER_KEY_PREFIX + id))) {
+            return false;
+        }
+        nearCache.putMissing(id, System.currentTimeMillis() + properties.getNegativeTimeToLive().toMillis());
+        return true;
+    }
+
+    /**
+     * Records that a username does not exist for the negative time-to-live.
+     *
+     * @param username the unknown username
+     */
+    @Override
+    public void saveMissingUsername(String username) {
+        redisTemplate.opsForValue().setIfAbsent(MISSING_USERNAME_KEY_PREFIX + username, TOMBSTONE,
+                properties.getNegativeTimeToLive());
+    }
+
+    /**
+     * Checks whether a username is known not to exist.
+     *
+     * @param username the username to check
+     * @return true if a tombstone is cached for the username
+     */
+    @Override
+    public boolean isMissingUsername(String username) {
+        return TOMBSTONE.equals(redisTemplate.opsForValue().get(MISSING_USERNAME_KEY_PREFIX + username));
+    }
+
+    /**
+     * Clears the tombstone of a username that now exists.
+     *
+     * @param username the username that was created
+     */
+    @Override
+    public void deleteMissingUsername(String username) {
+        redisTemplate.delete(MISSING_USERNAME_KEY_PREFIX + username);
+    }
+
+    /**
+     * Clears the tombstones of several usernames that now exist, in a single command.
+     *
+     * @param usernames the usernames that were created
+     */
+    @Override
+    public void deleteMissingUsernames(Collection<String> usernames) {
+        if (usernames == null || usernames.isEmpty()) {
+            return;
+        }
+        redisTemplate.delete(usernames.stream().map(username -> MISSING_USERNAME_KEY_PREFIX + username).toList());
+    }
+
+    /**
+     * Resolves a username to a user ID through the username index.
+     *
+     * @param username the username to resolve
+     * @return the cached user ID, or null if the username is not indexed
+     */
+    @Override
+    public Long getUserId(String username) {
+        byte[] key = RedisSerializer.string().serialize(USERNAME_KEY_PREFIX + username);
+        byte[] value = redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(key));
+        return value != null ? Long.valueOf(new String(value, StandardCharsets.UTF_8)) : null;
+    }
+
+    /**
+     * Updates the username index in one atomic step: removes the old mapping if it still
+     * points to the user and maps the new username to the user.
+     *
+     * @param id          the ID of the user
+     * @param oldUsername the username to unmap, or null on create
+     * @param newUsername the username to map, or null on delete
+     */
+    @Override
+    public void moveUsername(Long id, String oldUsername, String newUsername) {
+        if (id == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        if (oldUsername == null && newUsername == null) {
+            return;
+        }
+        String oldKey = USERNAME_KEY_PREFIX + (oldUsername != null ? oldUsername : newUsername);
+        String newKey = USERNAME_KEY_PREFIX + (newUsername != null ? newUsername : oldUsername);
+        redisTemplate.execute(MOVE_USERNAME, RedisSerializer.string(), new GenericToStringSerializer<>(Long.class),
+                List.of(oldKey, newKey), String.valueOf(id),
+                newUsername != null ? String.valueOf(nextTimeToLive().toMillis()) : "",
+                oldUsername != null ? "1" : "0");
+    }
+
+    /**
+     * Writes the given fields of a user to its hash with {@link #WRITE_FIELDS}.
+     *
+     * @return false if a partial write was refused because the hash no longer exists
+     */
+    private boolean writeFields(UserInfo user, Collection<String> fields, boolean requireExisting, Duration ttl) {
+        List<String> sets = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        UserInfoHashMapper.toHash(user, fields).forEach((field, value) -> {
+            if (value != null) {
+                sets.add(field);
+                sets.add(value);
+            } else {
+                deletes.add(field);
+            }
+        });
+        List<String> args = new ArrayList<>();
+        args.add(requireExisting ? "1" : "0");
+        args.add(String.valueOf(ttl.toMillis()));
+        args.add(String.valueOf(sets.size() / 2));
+        args.addAll(sets);
+        args.addAll(deletes);
+        Long written = redisTemplate.execute(WRITE_FIELDS, RedisSerializer.string(),
+                new GenericToStringSerializer<>(Long.class),
+                List.of(USER_HASH_KEY_PREFIX + user.getId(), USER_KEY_PREFIX + user.getId()), args.toArray());
+        return written != null && written == 1L;
+    }
+
+    /**
+     * Queues a whole-user hash write on a pipelined connection: drops any tombstone,
+     * replaces all fields, bumps the version and sets the TTL.
+     */
+    @SuppressWarnings("unchecked")
+    private static void writeHash(RedisOperations operations, UserInfo user, Duration ttl) {
+        String key = USER_HASH_KEY_PREFIX + user.getId();
+        Map<String, String> sets = new HashMap<>();
+        List<Object> deletes = new ArrayList<>();
+        UserInfoHashMapper.toHash(user, UserInfoHashMapper.FIELD_NAMES).forEach((field, value) -> {
+            if (value != null) {
+                sets.put(field, value);
+            } else {
+                deletes.add(field);
+            }
+        });
+        operations.delete(USER_KEY_PREFIX + user.getId());
+        operations.opsForHash().putAll(key, sets);
+        if (!deletes.isEmpty()) {
+            operations.opsForHash().delete(key, deletes.toArray());
+        }
+        operations.opsForHash().increment(key, UserInfoHashMapper.VERSION, 1);
+        operations.expire(key, ttl);
+    }
+
+    /**
+     * Returns the configured time-to-live plus a uniformly random jitter.
+     */
+    private Duration nextTimeToLive() {
+        long jitterMillis = properties.getTimeToLiveJitter().toMillis();
+        if (jitterMillis <= 0) {
+            return properties.getTimeToLive();
+        }
+        return properties.getTimeToLive().plusMillis(ThreadLocalRandom.current().nextLong(jitterMillis + 1));
+    }
+
+    /**
+     * Requests a background refresh when XFetch decides this read should recompute the entry.
+     */
+    private void refreshIfExpiring(Long id, long expiresAtMillis) {
+        ApplicationProperties.Cache.EarlyRefresh earlyRefresh = properties.getEarlyRefresh();
+        if (!earlyRefresh.isEnabled() || expiresAtMillis == Long.MAX_VALUE) {
+            return;
+        }
+        double gap = earlyRefresh.getRecomputeTime().toMillis() * earlyRefresh.getBeta()
+                * -Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        if (System.currentTimeMillis() + gap >= expiresAtMillis) {
+            eventPublisher.publishEvent(new UserCacheRefreshEvent(id));
+        }
+    }
+
+    private static Counter cacheGets(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.gets")
+                .tag("cache", L2_CACHE_NAME)
+                .tag("result", result)
+                .description("The number of times the Redis user cache returned a cached value (hit) or nothing (miss)")
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,147 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.dto.UserInfo;
+import com.ideas2it.training.user.repository.UserRepository;
+import com.ideas2it.training.user.service.caching.UserCacheService;
+import com.ideas2it.training.user.service.caching.UserNearCache;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Warms the user cache with a hot set of users at startup, before the instance reports ready.
+ * <p>
+ * Spring Boot only switches the readiness state to {@code ACCEPTING_TRAFFIC} after all
+ * {@link ApplicationRunner}s have completed, so traffic is routed to this instance only once
+ * the warm-up has finished or used up its time budget. The hot set is either the IDs of the
+ * most used users snapshotted to Redis by the last instance that shut down, or the most
+ * recently modified users. Users are loaded in batches with one IN query each and written
+ * to the cache with a single pipelined round-trip per batch.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Component
+public class UserCacheWarmer implements ApplicationRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserCacheWarmer.class);
+
+    private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
+    private final UserNearCache userNearCache;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ApplicationProperties.Cache.WarmUp properties;
+
+    /**
+     * Constructor to initialize dependencies.
+     *
+     * @param userRepository        the repository the hot users are loaded from
+     * @param userCacheService      the cache being warmed
+     * @param userNearCache         the local cache whose hottest entries are snapshotted at shutdown
+     * @param stringRedisTemplate   the template used to store the snapshot
+     * @param applicationProperties the application properties holding warm-up settings
+     */
+    public UserCacheWarmer(UserRepository userRepository, UserCacheService userCacheService,
+                           UserNearCache userNearCache, StringRedisTemplate stringRedisTemplate,
+                           ApplicationProperties applicationProperties) {
+        this.userRepository = userRepository;
+        this.userCacheService = userCacheService;
+        this.userNearCache = userNearCache;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = applicationProperties.getCache().getUser().getWarmUp();
+    }
+
+    /**
+     * Loads the hot set into the cache in batches until done or the time budget runs out.
+     * The budget is checked between batches. Failures are logged and never block startup.
+     *
+     * @param args the application arguments, unused
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + properties.getTimeBudget().toNanos();
+        int warmed = 0;
+        try {
+            List<Long> ids = hotIds();
+            int batchSize = Math.max(1, properties.getBatchSize());
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                if (System.nanoTime() >= deadline) {
+                    LOG.warn("User cache warm-up stopped after its {} budget", properties.getTimeBudget());
+                    break;
+                }
+                List<UserInfo> users = userRepository.findInfoByIdIn(ids.subList(from, Math.min(from + batchSize, ids.size())));
+                userCacheService.populateUsers(users);
+                warmed += users.size();
+            }
+            LOG.info("Warmed {} of {} hot users into the cache in {} ms", warmed, ids.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            LOG.warn("User cache warm-up failed after {} users: {}", warmed, e.getMessage());
+        }
+    }
+
+    /**
+     * Stores the IDs of the most used users so the next instance can warm them up.
+     */
+    @PreDestroy
+    public void snapshot() {
+        if (!properties.isEnabled() || properties.getSource() != ApplicationProperties.Cache.WarmUp.Source.LAST_SHUTDOWN) {
+            return;
+        }
+        List<Long> ids = userNearCache.hottestIds(properties.getMaxUsers());
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            String value = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+            stringRedisTemplate.opsForValue().set(properties.getSnapshotKey(), value, properties.getSnapshotTimeToLive());
+        } catch (RuntimeException e) {
+            LOG.warn("Could not store the hot user snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the IDs to warm up, falling back to the most recently modified users when
+     * no shutdown snapshot is available.
+     */
+    List<Long> hotIds() {
+        if (properties.getSource() == ApplicationProperties.Cache.WarmUp.Source.LAST_SHUTDOWN) {
+            List<Long> snapshot = readSnapshot();
+            if (!snapshot.isEmpty()) {
+                return snapshot;
+            }
+        }
+        return userRepository.findRecentlyModifiedIds(PageRequest.of(0, properties.getMaxUsers()));
+    }
+
+    private List<Long> readSnapshot() {
+        try {
+            String value = stringRedisTemplate.opsForValue().get(properties.getSnapshotKey());
+            if (value == null || value.isBlank()) {
+                return List.of();
+            }
+            return Arrays.stream(value.split(","))
+                    .map(Long::valueOf)
+                    .limit(properties.getMaxUsers())
+                    .toList();
+        } catch (RuntimeException e) {
+            LOG.warn("Could not read the hot user snapshot: {}", e.getMessage());
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,496 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.dto.UserExportJobInfo;
+import com.ideas2it.training.user.dto.UserInfo;
+import com.ideas2it.training.user.enums.ExportFormat;
+import com.ideas2it.training.user.enums.ExportStatus;
+import com.ideas2it.training.user.service.UserExportService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service implementation for exporting all users with their roles to gzip-compressed CSV or
+ * NDJSON files in {@code application.bulk.export.directory}.
+ * <p>
+ * The export reads {@code users} joined with {@code user_roles} through one forward-only,
+ * read-only cursor of {@code fetch-size} rows, ordered by user ID so that the roles of a user
+ * are adjacent and can be folded into a single record. Records are grouped into chunks of
+ * {@code chunk-size} users; each chunk is encoded and compressed into its own gzip member on
+ * the {@code threads} worker threads, and the members are written to the file in order.
+ * Concatenated gzip members form a valid gzip file. At most twice as many chunks as there are
+ * workers are in flight, so memory use stays flat whatever the number of users.
+ * </p>
+ * <p>
+ * Each running job holds a database connection for its whole cursor scan, so at most
+ * {@code jobs} exports run at once and at most {@code queue-capacity} more wait for a free job
+ * thread; further starts are rejected rather than draining the connection pool.
+ * </p>
+ * <p>
+ * Jobs are kept in memory on the replica that runs them, since the file is written to its local
+ * disk. The file only appears under its final name once the export has completed. A finished
+ * job and its file are removed once {@code retention} has passed; files left behind by an
+ * earlier run of the application are removed on startup once they are older than that.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Service
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserExportServiceImpl.class);
+
+    private static final String EXPORT_QUERY = "select u.id, u.username, u.first_name, u.last_name, u.email, u.mobile, "
+            + "u.address, u.postal_code, u.created_by, u.created_date, u.last_modified_by, u.last_modified_date, "
+            + "r.name as role_name from users u left join user_roles ur on ur.user_id = u.id "
+            + "left join roles r on r.id = ur.role_id order by u.id";
+
+    private static final String[] CSV_HEADER = {"id", "username", "first_name", "last_name", "email", "mobile",
+            "address", "postal_code", "roles", "created_by", "created_date", "last_modified_by", "last_modified_date"};
+
+    private static final String ROLE_SEPARATOR = "|";
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private static final String FILE_PREFIX = "users-";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter csvWriter;
+    private final ApplicationProperties.Bulk.Export properties;
+    private final ExecutorService executor;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService cleaner;
+    private final ConcurrentMap<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor to initialize dependencies and the export threads.
+     *
+     * @param jdbcTemplate          the template running the export cursor
+     * @param transactionManager    the transaction manager keeping the cursor open
+     * @param objectMapper          the mapper writing NDJSON records
+     * @param applicationProperties the application properties holding the export settings
+     */
+    public UserExportServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.csvWriter = new CsvMapper().writerFor(String[].class);
+        this.properties = applicationProperties.getBulk().getExport();
+        BlockingQueue<Runnable> queue = properties.getQueueCapacity() > 0
+                ? new ArrayBlockingQueue<>(properties.getQueueCapacity()) : new SynchronousQueue<>();
+        this.executor = new ThreadPoolExecutor(properties.getJobs(), properties.getJobs(), 0L, TimeUnit.MILLISECONDS,
+                queue, runnable -> {
+                    Thread thread = new Thread(runnable, "user-export");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.workers = Executors.newFixedThreadPool(properties.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "user-export-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-export-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cleaner.execute(this::deleteExpiredFiles);
+    }
+
+    /**
+     * Starts exporting all users in the background.
+     *
+     * @param format the file format
+     * @return the running job
+     * @throws IllegalStateException if the maximum number of exports are already running or queued
+     */
+    @Override
+    public UserExportJobInfo start(ExportFormat format) {
+        Path directory;
+        try {
+            directory = Files.createDirectories(Path.of(properties.getDirectory()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String id = UUID.randomUUID().toString();
+        String extension = format == ExportFormat.CSV ? ".csv.gz" : ".ndjson.gz";
+        ExportJob job = new ExportJob(id, format, directory.resolve(FILE_PREFIX + id + extension));
+        jobs.put(id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            throw new IllegalStateException("Too many user exports running", e);
+        }
+        return job.toInfo();
+    }
+
+    /**
+     * Retrieves the progress of a job.
+     *
+     * @param id the ID of the job
+     * @return the job, or empty if not found on this replica
+     */
+    @Override
+    public Optional<UserExportJobInfo> getById(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(ExportJob::toInfo);
+    }
+
+    /**
+     * Retrieves the file of a completed job.
+     *
+     * @param id the ID of the job
+     * @return the file, or empty if the job is not found or has not completed
+     */
+    @Override
+    public Optional<Path> getFile(String id) {
+        return Optional.ofNullable(jobs.get(id))
+                .filter(job -> job.status == ExportStatus.COMPLETED)
+                .map(job -> job.file);
+    }
+
+    /**
+     * Stops the export threads on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        workers.shutdownNow();
+        cleaner.shutdownNow();
+    }
+
+    private void run(ExportJob job) {
+        Path part = job.file.resolveSibling(job.file.getFileName() + ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part))) {
+                Exporter exporter = new Exporter(job, out);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                        PreparedStatement statement = connection.prepareStatement(EXPORT_QUERY,
+                                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        statement.setFetchSize(properties.getFetchSize());
+                        return statement;
+                    }, exporter));
+                    exporter.finish();
+                } catch (RuntimeException | IOException e) {
+                    exporter.cancel();
+                    throw e;
+                }
+            }
+            Files.move(part, job.file, StandardCopyOption.REPLACE_EXISTING);
+            job.finish(ExportStatus.COMPLETED, null);
+            LOG.info("User export {} completed: {} rows at {} rows/s", job.id, job.rows,
+                    Math.round(job.toInfo().getRowsPerSecond()));
+        } catch (Exception e) {
+            String error = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            job.finish(ExportStatus.FAILED, error);
+            LOG.warn("User export {} failed after {} rows: {}", job.id, job.rows, error);
+            try {
+                Files.deleteIfExists(part);
+            } catch (IOException deleteFailure) {
+                LOG.debug("Could not delete {}: {}", part, deleteFailure.getMessage());
+            }
+        }
+        cleaner.schedule(() -> expire(job), properties.getRetention().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Forgets a finished job and deletes its file.
+     */
+    private void expire(ExportJob job) {
+        jobs.remove(job.id);
+        try {
+            Files.deleteIfExists(job.file);
+        } catch (IOException e) {
+            LOG.warn("Could not delete expired user export {}: {}", job.file, e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes export files older than the retention, which earlier runs of the application left
+     * without a job to expire them.
+     */
+    private void deleteExpiredFiles() {
+        Path directory = Path.of(properties.getDirectory());
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        FileTime expiry = FileTime.from(Instant.now().minus(properties.getRetention()));
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().startsWith(FILE_PREFIX)).forEach(file -> {
+                try {
+                    if (Files.getLastModifiedTime(file).compareTo(expiry) < 0) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (IOException e) {
+                    LOG.warn("Could not delete expired user export {}: {}", file, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            LOG.warn("Could not list user exports in {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Encodes and compresses a chunk of users into one gzip member.
+     */
+    private byte[] encode(ExportFormat format, List<UserInfo> users) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(users.size() * 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes, GZIP_BUFFER_SIZE)) {
+            if (format == ExportFormat.CSV) {
+                try (SequenceWriter rows = csvWriter.writeValues(gzip)) {
+                    for (UserInfo user : users) {
+                        rows.write(toCsv(user));
+                    }
+                }
+            } else {
+                for (UserInfo user : users) {
+                    gzip.write(objectMapper.writeValueAsBytes(user));
+                    gzip.write('\n');
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] encodeHeader() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(csvWriter.writeValueAsBytes(CSV_HEADER));
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Null columns are written as empty strings, since the CSV writer skips null array elements.
+     */
+    private static String[] toCsv(UserInfo user) {
+        return new String[]{String.valueOf(user.getId()), user.getUsername(), valueOf(user.getFirstName()),
+                valueOf(user.getLastName()), valueOf(user.getEmail()), valueOf(user.getMobile()),
+                valueOf(user.getAddress()), valueOf(user.getPostalCode()), String.join(ROLE_SEPARATOR, user.getRoles()),
+                valueOf(user.getCreatedBy()), valueOf(user.getCreatedDate()), valueOf(user.getLastModifiedBy()),
+                valueOf(user.getLastModifiedDate())};
+    }
+
+    private static String valueOf(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    /**
+     * Folds the joined rows of each user into one record, cuts the records into chunks and keeps
+     * a bounded number of chunks encoding on the workers, writing them out in order.
+     */
+    private final class Exporter implements RowCallbackHandler {
+
+        private final ExportJob job;
+        private final OutputStream out;
+        private final Deque<Future<byte[]>> inFlight = new ArrayDeque<>();
+        private final Deque<Integer> inFlightSizes = new ArrayDeque<>();
+        private final int maxInFlight = Math.max(1, properties.getThreads() * 2);
+
+        private List<UserInfo> chunk = new ArrayList<>(properties.getChunkSize());
+        private UserInfo.UserInfoBuilder user;
+        private Set<String> roles;
+        private long userId;
+
+        Exporter(ExportJob job, OutputStream out) throws IOException {
+            this.job = job;
+            this.out = out;
+            if (job.format == ExportFormat.CSV) {
+                out.write(encodeHeader());
+            }
+        }
+
+        @Override
+        public void processRow(ResultSet resultSet) throws SQLException {
+            long id = resultSet.getLong("id");
+            if (user == null || id != userId) {
+                completeUser();
+                userId = id;
+                roles = new TreeSet<>();
+                user = UserInfo.builder()
+                        .id(id)
+                        .username(resultSet.getString("username"))
+                        .firstName(resultSet.getString("first_name"))
+                        .lastName(resultSet.getString("last_name"))
+                        .email(resultSet.getString("email"))
+                        .mobile(resultSet.getString("mobile"))
+                        .address(resultSet.getString("address"))
+                        .postalCode(resultSet.getString("postal_code"))
+                        .createdBy(resultSet.getString("created_by"))
+                        .createdDate(toInstant(resultSet.getTimestamp("created_date")))
+                        .lastModifiedBy(resultSet.getString("last_modified_by"))
+                        .lastModifiedDate(toInstant(resultSet.getTimestamp("last_modified_date")));
+            }
+            String role = resultSet.getString("role_name");
+            if (role != null) {
+                roles.add(role);
+            }
+        }
+
+        /**
+         * Submits the last chunk and writes every chunk still in flight.
+         */
+        void finish() throws IOException {
+            completeUser();
+            submit();
+            while (!inFlight.isEmpty()) {
+                writeNext();
+            }
+            out.flush();
+        }
+
+        /**
+         * Cancels the chunks still encoding, so a failed export does not keep the workers busy.
+         */
+        void cancel() {
+            inFlight.forEach(chunk -> chunk.cancel(true));
+            inFlight.clear();
+            inFlightSizes.clear();
+        }
+
+        private void completeUser() {
+            if (user == null) {
+                return;
+            }
+            chunk.add(user.roles(roles).build());
+            user = null;
+            if (chunk.size() == properties.getChunkSize()) {
+                submit();
+            }
+        }
+
+        private void submit() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<UserInfo> users = chunk;
+            chunk = new ArrayList<>(properties.getChunkSize());
+            inFlight.add(workers.submit(() -> encode(job.format, users)));
+            inFlightSizes.add(users.size());
+            try {
+                while (inFlight.size() >= maxInFlight) {
+                    writeNext();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeNext() throws IOException {
+            try {
+                out.write(inFlight.removeFirst().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Export interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Encoding a chunk failed", e.getCause());
+            }
+            job.rows += inFlightSizes.removeFirst();
+            LOG.debug("User export {} wrote {} rows", job.id, job.rows);
+        }
+    }
+
+    /**
+     * State of an export, written by the job thread and read by progress requests.
+     */
+    private static final class ExportJob {
+
+        private final String id;
+        private final ExportFormat format;
+        private final Path file;
+        private final Instant startedDate = Instant.now();
+        private final long startedNanos = System.nanoTime();
+
+        private volatile ExportStatus status = ExportStatus.RUNNING;
+        private volatile long rows;
+        private volatile String error;
+        private volatile Instant finishedDate;
+        private volatile long elapsedNanos;
+
+        ExportJob(String id, ExportFormat format, Path file) {
+            this.id = id;
+            this.format = format;
+            this.file = file;
+        }
+
+        void finish(ExportStatus status, String error) {
+            this.elapsedNanos = System.nanoTime() - startedNanos;
+            this.finishedDate = Instant.now();
+            this.error = error;
+            this.status = status;
+        }
+
+        UserExportJobInfo toInfo() {
+            long elapsed = finishedDate != null ? elapsedNanos : System.nanoTime() - startedNanos;
+            return UserExportJobInfo.builder()
+                    .id(id)
+                    .format(format)
+                    .status(status)
+                    .rows(rows)
+                    .rowsPerSecond(elapsed > 0 ? rows * 1_000_000_000d / elapsed : 0)
+                    .error(error)
+                    .startedDate(startedDate)
+                    .finishedDate(finishedDate)
+                    .build();
+        }
+    }
+}
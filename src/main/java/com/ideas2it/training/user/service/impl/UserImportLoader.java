@@ -0,0 +1,188 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.Constants;
+import com.ideas2it.training.user.domain.Role;
+import com.ideas2it.training.user.domain.User;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Writes imported users and their roles straight to the {@code users} and {@code user_roles}
+ * tables, bypassing the persistence context.
+ * <p>
+ * IDs come from {@code sequence_generator} in blocks of {@value #ID_BLOCK}, the same pooled
+ * scheme Hibernate uses, so imported and regular users never collide. On PostgreSQL the rows
+ * are streamed with the {@code COPY} protocol; elsewhere they are sent as JDBC batches.
+ * Must be called inside a transaction, so that the rows commit together with the import checkpoint.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Component
+public class UserImportLoader {
+
+    /**
+     * Matches the increment of {@code sequence_generator} and the allocation size of the entities.
+     */
+    private static final int ID_BLOCK = 50;
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String USER_COLUMNS = "id, username, password, first_name, last_name, email, mobile, address, "
+            + "postal_code, created_by, created_date, last_modified_by, last_modified_date, row_version";
+
+    private static final String INSERT_USER = "insert into users (" + USER_COLUMNS + ") "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String INSERT_USER_ROLE = "insert into user_roles (user_id, role_id) values (?, ?)";
+
+    private static final String COPY_USERS = "COPY users (" + USER_COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+    private static final String COPY_USER_ROLES = "COPY user_roles (user_id, role_id) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String POSTGRES_IDS = "select nextval('sequence_generator') from generate_series(1, ?)";
+
+    private static final String IDS = "select next value for sequence_generator from system_range(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    /**
+     * Constructor to initialize dependencies.
+     *
+     * @param jdbcTemplate the template sharing the connection of the surrounding transaction
+     */
+    public UserImportLoader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Assigns IDs to the users and inserts them with their roles.
+     *
+     * @param users the users to insert, with hashed passwords and resolved roles
+     */
+    public void insert(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        assignIds(users);
+        Instant now = Instant.now();
+        List<long[]> userRoles = new ArrayList<>();
+        for (User user : users) {
+            user.setCreatedBy(Constants.SYSTEM);
+            user.setLastModifiedBy(Constants.SYSTEM);
+            user.setCreatedDate(now);
+            user.setLastModifiedDate(now);
+            for (Role role : user.getRoles()) {
+                userRoles.add(new long[]{user.getId(), role.getId()});
+            }
+        }
+        if (isPostgres()) {
+            copy(users, userRoles);
+        } else {
+            batch(users, userRoles);
+        }
+    }
+
+    /**
+     * Draws one sequence value per block of {@value #ID_BLOCK} users; a value {@code v}
+     * reserves the IDs {@code v - 49} to {@code v}.
+     */
+    private void assignIds(List<User> users) {
+        int blocks = (users.size() + ID_BLOCK - 1) / ID_BLOCK;
+        List<Long> highs = jdbcTemplate.queryForList(isPostgres() ? POSTGRES_IDS : IDS, Long.class, blocks);
+        Iterator<User> remaining = users.iterator();
+        for (Long high : highs) {
+            for (long id = high - ID_BLOCK + 1; id <= high && remaining.hasNext(); id++) {
+                remaining.next().setId(id);
+            }
+        }
+    }
+
+    private void copy(List<User> users, List<long[]> userRoles) {
+        StringBuilder rows = new StringBuilder(users.size() * 160);
+        for (User user : users) {
+            rows.append(user.getId());
+            for (String value : new String[]{user.getUsername(), user.getPassword(), user.getFirstName(),
+                    user.getLastName(), user.getEmail(), user.getMobile(), user.getAddress(), user.getPostalCode(),
+                    user.getCreatedBy(), user.getCreatedDate().toString(), user.getLastModifiedBy(),
+                    user.getLastModifiedDate().toString()}) {
+                rows.append(',');
+                appendCsv(rows, value);
+            }
+            rows.append(",0\n");
+        }
+        StringBuilder roles = new StringBuilder(userRoles.size() * 16);
+        for (long[] userRole : userRoles) {
+            roles.append(userRole[0]).append(',').append(userRole[1]).append('\n');
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try {
+                var copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                copyManager.copyIn(COPY_USERS, new StringReader(rows.toString()));
+                if (!userRoles.isEmpty()) {
+                    copyManager.copyIn(COPY_USER_ROLES, new StringReader(roles.toString()));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+    }
+
+    private void batch(List<User> users, List<long[]> userRoles) {
+        jdbcTemplate.batchUpdate(INSERT_USER, users, BATCH_SIZE, (statement, user) -> {
+            statement.setLong(1, user.getId());
+            statement.setString(2, user.getUsername());
+            statement.setString(3, user.getPassword());
+            statement.setString(4, user.getFirstName());
+            statement.setString(5, user.getLastName());
+            statement.setString(6, user.getEmail());
+            statement.setString(7, user.getMobile());
+            statement.setString(8, user.getAddress());
+            statement.setString(9, user.getPostalCode());
+            statement.setString(10, user.getCreatedBy());
+            statement.setTimestamp(11, Timestamp.from(user.getCreatedDate()));
+            statement.setString(12, user.getLastModifiedBy());
+            statement.setTimestamp(13, Timestamp.from(user.getLastModifiedDate()));
+        });
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE, userRoles, BATCH_SIZE, (statement, userRole) -> {
+            statement.setLong(1, userRole[0]);
+            statement.setLong(2, userRole[1]);
+        });
+    }
+
+    /**
+     * Appends a value in COPY CSV form: null stays unquoted, so it loads as NULL, anything
+     * else is quoted, so an empty string stays empty.
+     */
+    private static void appendCsv(StringBuilder rows, String value) {
+        if (value != null) {
+            rows.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean current = postgres;
+        if (current == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            current = "PostgreSQL".equalsIgnoreCase(product);
+            postgres = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,656 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.domain.Role;
+import com.ideas2it.training.user.domain.User;
+import com.ideas2it.training.user.domain.UserImportJob;
+import com.ideas2it.training.user.dto.UserCreateDto;
+import com.ideas2it.training.user.dto.UserImportJobInfo;
+import com.ideas2it.training.user.enums.ImportStatus;
+import com.ideas2it.training.user.enums.RoleType;
+import com.ideas2it.training.user.repository.UserImportJobRepository;
+import com.ideas2it.training.user.repository.UserRepository;
+import com.ideas2it.training.user.service.UserImportService;
+import com.ideas2it.training.user.service.caching.ApproximateCounter;
+import com.ideas2it.training.user.service.caching.PagedListingCache;
+import com.ideas2it.training.user.service.caching.UserCacheService;
+import com.ideas2it.training.user.service.caching.UserCacheWriter;
+import com.ideas2it.training.user.service.mapper.UserImportJobMapper;
+import com.ideas2it.training.user.service.mapper.UserMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Service implementation for importing users from CSV files of any size.
+ * <p>
+ * The uploaded file is stored in {@code application.bulk.csv-import.directory} and imported by
+ * three pipelined stages, each on its own thread, with bounded queues of
+ * {@code queue-capacity} chunks between them, so memory use does not depend on the file size:
+ * the parser streams the file, validates each row and cuts it into chunks of
+ * {@code chunk-size} rows; the hasher hashes the passwords of a chunk in parallel on the
+ * {@link PasswordHasher} pool; the writer rejects usernames that already exist and inserts the
+ * chunk through {@link UserImportLoader}, which uses {@code COPY} on PostgreSQL and JDBC batches elsewhere.
+ * A slow stage blocks the one before it instead of buffering.
+ * </p>
+ * <p>
+ * Each chunk commits together with the job checkpoint, the number of data rows handled so far.
+ * A failed job, or a running job whose heartbeat is older than {@code stale-after}, can be
+ * restarted and resumes after its checkpoint. Rejected rows are appended with their reason to a
+ * rejects file next to the import before the checkpoint covering them commits; a restarted job
+ * first drops the rejects after its checkpoint, so no reject is lost or written twice. A chunk
+ * that breaks a constraint, such as a username created while it was being imported, is retried
+ * row by row so that only the offending rows are rejected. Imported users are not written to
+ * the user cache; their usernames are published to the username filter and the missing-username
+ * markers are cleared once per chunk.
+ * </p>
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserImportServiceImpl.class);
+
+    private static final String USER_PAGES = "user";
+
+    private static final String ROLE_SEPARATOR = "\\|";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    /**
+     * Marks the end of the file; passed down the pipeline like a chunk.
+     */
+    private static final Chunk END = new Chunk(-1, List.of(), List.of(), null, null);
+
+    private final UserImportJobRepository jobRepository;
+    private final UserRepository userRepository;
+    private final UserImportLoader loader;
+    private final RoleRegistry roleRegistry;
+    private final UserMapper userMapper;
+    private final UserImportJobMapper jobMapper;
+    private final PasswordHasher passwordHasher;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final UserCacheService userCacheService;
+    private final UserCacheWriter userCacheWriter;
+    private final KnownUsernameFilter knownUsernameFilter;
+    private final PagedListingCache pagedListingCache;
+    private final ApproximateCounter approximateCounter;
+    private final ApplicationProperties.Bulk.CsvImport properties;
+    private final ObjectReader csvReader;
+    private final ObjectWriter csvWriter;
+    private final ExecutorService executor;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor to initialize dependencies and the pipeline threads.
+     *
+     * @param jobRepository         the repository holding job progress
+     * @param userRepository        the repository used to look up existing usernames
+     * @param loader                the loader inserting the imported users
+     * @param roleRegistry          the registry resolving role types
+     * @param userMapper            the mapper for user entities and DTOs
+     * @param jobMapper             the mapper for import jobs
+     * @param passwordHasher        the hasher of user passwords
+     * @param validator             the validator checking each row
+     * @param transactionManager    the transaction manager running one transaction per chunk
+     * @param userCacheService      the cache of users
+     * @param userCacheWriter       the writer applying cache updates off the pipeline
+     * @param knownUsernameFilter   the filter of existing usernames
+     * @param pagedListingCache     the cache of paged listings
+     * @param approximateCounter    the approximate user counter
+     * @param applicationProperties the application properties holding the import settings
+     */
+    public UserImportServiceImpl(UserImportJobRepository jobRepository, UserRepository userRepository,
+                                 UserImportLoader loader, RoleRegistry roleRegistry, UserMapper userMapper,
+                                 UserImportJobMapper jobMapper, PasswordHasher passwordHasher, Validator validator,
+                                 PlatformTransactionManager transactionManager, UserCacheService userCacheService,
+                                 UserCacheWriter userCacheWriter, KnownUsernameFilter knownUsernameFilter,
+                                 PagedListingCache pagedListingCache, ApproximateCounter approximateCounter,
+                                 ApplicationProperties applicationProperties) {
+        this.jobRepository = jobRepository;
+        this.userRepository = userRepository;
+        this.loader = loader;
+        this.roleRegistry = roleRegistry;
+        this.userMapper = userMapper;
+        this.jobMapper = jobMapper;
+        this.passwordHasher = passwordHasher;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userCacheService = userCacheService;
+        this.userCacheWriter = userCacheWriter;
+        this.knownUsernameFilter = knownUsernameFilter;
+        this.pagedListingCache = pagedListingCache;
+        this.approximateCounter = approximateCounter;
+        this.properties = applicationProperties.getBulk().getCsvImport();
+        CsvMapper csvMapper = CsvMapper.builder()
+                .enable(CsvParser.Feature.WRAP_AS_ARRAY)
+                .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+                .build();
+        this.csvReader = csvMapper.readerFor(String[].class);
+        this.csvWriter = csvMapper.writerFor(String[].class);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "user-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stores the CSV file and starts importing it in the background.
+     * The first line must be a header naming the columns; {@code username} and
+     * {@code password} are required, roles are separated by {@code |}.
+     *
+     * @param csv the CSV content
+     * @return the queued job
+     */
+    @Override
+    public UserImportJobInfo start(InputStream csv) {
+        Path file = null;
+        try {
+            Path directory = Files.createDirectories(Path.of(properties.getDirectory()));
+            file = Files.createTempFile(directory, "users-", ".csv");
+            Files.copy(csv, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException(e);
+        }
+        UserImportJob job = new UserImportJob();
+        job.setFile(file.toString());
+        job.setStatus(ImportStatus.QUEUED);
+        job = jobRepository.save(job);
+        launch(job.getId());
+        return jobMapper.toInfo(job);
+    }
+
+    /**
+     * Restarts a job from its checkpoint.
+     *
+     * @param id the ID of the job
+     * @return the restarted job, or empty if not found
+     * @throws IllegalStateException if the job has completed or is still running
+     */
+    @Override
+    public Optional<UserImportJobInfo> restart(Long id) {
+        Optional<UserImportJob> job = jobRepository.findById(id);
+        if (job.isEmpty()) {
+            return Optional.empty();
+        }
+        if (job.get().getStatus() == ImportStatus.COMPLETED) {
+            throw new IllegalStateException("Import job " + id + " has already completed");
+        }
+        launch(id);
+        return jobRepository.findById(id).map(jobMapper::toInfo);
+    }
+
+    /**
+     * Retrieves the progress of a job.
+     *
+     * @param id the ID of the job
+     * @return the job, or empty if not found
+     */
+    @Override
+    public Optional<UserImportJobInfo> getById(Long id) {
+        return jobRepository.findById(id).map(jobMapper::toInfo);
+    }
+
+    /**
+     * Interrupts running imports on shutdown; they are marked as failed and can be restarted.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Claims the job, so that no other caller or replica runs it too, and runs it in the background.
+     */
+    private void launch(Long id) {
+        Instant now = Instant.now();
+        if (!running.add(id)) {
+            throw new IllegalStateException("Import job " + id + " is already running");
+        }
+        if (jobRepository.claim(id, ImportStatus.RUNNING, now, now.minus(properties.getStaleAfter())) == 0) {
+            running.remove(id);
+            throw new IllegalStateException("Import job " + id + " is already running");
+        }
+        executor.execute(() -> {
+            try {
+                run(id);
+            } finally {
+                running.remove(id);
+            }
+        });
+    }
+
+    private void run(Long id) {
+        UserImportJob job = jobRepository.findById(id).orElseThrow();
+        LOG.info("User import {} started after row {}", id, job.getProcessedRows());
+        try {
+            pipeline(job);
+            jobRepository.finish(id, ImportStatus.COMPLETED, null, Instant.now());
+            LOG.info("User import {} completed", id);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            String error = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            LOG.warn("User import {} failed: {}", id, error);
+            jobRepository.finish(id, ImportStatus.FAILED,
+                    error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error, Instant.now());
+        }
+    }
+
+    /**
+     * Runs the parser and the hasher on pipeline threads and the writer on the job thread.
+     * If the writer stops early the other stages are interrupted.
+     */
+    private void pipeline(UserImportJob job) throws Exception {
+        BlockingQueue<Chunk> parsed = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        BlockingQueue<Chunk> hashed = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        Future<?> parser = executor.submit(() -> parse(job, parsed));
+        Future<?> hasher = executor.submit(() -> hash(parsed, hashed));
+        try {
+            write(job, hashed);
+        } finally {
+            parser.cancel(true);
+            hasher.cancel(true);
+        }
+    }
+
+    /**
+     * Streams the file, skipping the rows up to the checkpoint, and cuts it into validated chunks.
+     */
+    private void parse(UserImportJob job, BlockingQueue<Chunk> out) {
+        try {
+            try (Reader reader = Files.newBufferedReader(Path.of(job.getFile()));
+                 MappingIterator<String[]> records = csvReader.readValues(reader)) {
+                Columns columns = Columns.of(records.hasNext() ? records.next() : new String[0]);
+                RoleResolver roles = new RoleResolver();
+                List<Row> rows = new ArrayList<>();
+                List<Rejected> rejected = new ArrayList<>();
+                Set<String> usernames = new HashSet<>();
+                long number = 0;
+                while (records.hasNext()) {
+                    String[] record = records.next();
+                    if (++number <= job.getProcessedRows()) {
+                        continue;
+                    }
+                    parseRow(number, record, columns, roles, usernames, rows, rejected);
+                    if (rows.size() + rejected.size() == properties.getChunkSize()) {
+                        out.put(new Chunk(number, rows, rejected, null, null));
+                        rows = new ArrayList<>();
+                        rejected = new ArrayList<>();
+                        usernames = new HashSet<>();
+                    }
+                }
+                if (!rows.isEmpty() || !rejected.isEmpty()) {
+                    out.put(new Chunk(number, rows, rejected, null, null));
+                }
+            }
+            out.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            fail(out, e);
+        }
+    }
+
+    private void parseRow(long number, String[] record, Columns columns, RoleResolver roles, Set<String> usernames,
+                          List<Row> rows, List<Rejected> rejected) {
+        String username = columns.value(record, "username");
+        Set<Role> resolved = new HashSet<>();
+        String error = null;
+        String roleNames = columns.value(record, "roles");
+        if (roleNames != null) {
+            for (String roleName : roleNames.split(ROLE_SEPARATOR)) {
+                if (roleName.isBlank()) continue;
+                Role role = roles.resolve(roleName.trim());
+                if (role == null) {
+                    error = "Invalid role: " + roleName.trim();
+                    break;
+                }
+                resolved.add(role);
+            }
+        }
+        UserCreateDto dto = UserCreateDto.builder()
+                .username(username)
+                .password(columns.raw(record, "password"))
+                .firstName(columns.value(record, "firstname"))
+                .lastName(columns.value(record, "lastname"))
+                .email(columns.value(record, "email"))
+                .mobile(columns.value(record, "mobile"))
+                .address(columns.value(record, "address"))
+                .postalCode(columns.value(record, "postalcode"))
+                .build();
+        if (error == null) {
+            error = UserBulkServiceImpl.validate(validator, dto);
+        }
+        if (error == null && !usernames.add(username)) {
+            error = "Duplicate username in file";
+        }
+        if (error != null) {
+            rejected.add(new Rejected(number, username, error));
+        } else {
+            rows.add(new Row(number, dto, resolved));
+        }
+    }
+
+    /**
+     * Hashes the passwords of each chunk in parallel on the {@link PasswordHasher} pool.
+     */
+    private void hash(BlockingQueue<Chunk> in, BlockingQueue<Chunk> out) {
+        try {
+            while (true) {
+                Chunk chunk = in.take();
+                if (chunk == END || chunk.failure() != null) {
+                    out.put(chunk);
+                    return;
+                }
+                List<String> hashes = passwordHasher.encodeAll(chunk.rows().stream().map(row -> row.dto().getPassword()).toList());
+                out.put(new Chunk(chunk.lastRow(), chunk.rows(), chunk.rejected(), hashes, null));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            fail(out, e);
+        }
+    }
+
+    /**
+     * Commits each chunk with its checkpoint, then publishes its usernames. Rejects left in the
+     * rejects file by a previous run after its last checkpoint are dropped first.
+     */
+    private void write(UserImportJob job, BlockingQueue<Chunk> in) throws Exception {
+        Path rejects = rejectsFile(job);
+        trimRejects(rejects, job.getProcessedRows());
+        while (true) {
+            Chunk chunk = in.take();
+            if (chunk == END) {
+                return;
+            }
+            if (chunk.failure() != null) {
+                throw chunk.failure();
+            }
+            List<Rejected> rejected = new ArrayList<>(chunk.rejected());
+            List<User> users = insert(job.getId(), chunk, rejects, rejected);
+            publish(users);
+            LOG.debug("User import {} committed rows up to {}: {} imported, {} rejected",
+                    job.getId(), chunk.lastRow(), users.size(), rejected.size());
+        }
+    }
+
+    /**
+     * Inserts a chunk and commits it with its checkpoint. Rejects are appended to the rejects
+     * file before the checkpoint covering them commits. If the chunk breaks a constraint, for
+     * example a username created since it was checked, its rows are retried one by one.
+     */
+    private List<User> insert(Long id, Chunk chunk, Path rejects, List<Rejected> rejected) throws IOException {
+        Set<String> existing = chunk.rows().isEmpty() ? Set.of()
+                : userRepository.findExistingUsernames(chunk.rows().stream().map(row -> row.dto().getUsername()).toList());
+        List<Row> rows = new ArrayList<>(chunk.rows().size());
+        List<User> users = new ArrayList<>(chunk.rows().size());
+        for (int i = 0; i < chunk.rows().size(); i++) {
+            Row row = chunk.rows().get(i);
+            if (existing.contains(row.dto().getUsername())) {
+                rejected.add(new Rejected(row.number(), row.dto().getUsername(), "Username already exists"));
+                continue;
+            }
+            User user = userMapper.toEntity(row.dto());
+            user.setPassword(chunk.hashes().get(i));
+            user.setRoles(row.roles());
+            rows.add(row);
+            users.add(user);
+        }
+        rejected.sort(Comparator.comparingLong(Rejected::number));
+        appendRejects(rejects, rejected);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                loader.insert(users);
+                jobRepository.checkpoint(id, chunk.lastRow(), users.size(), rejected.size(), Instant.now());
+            });
+            return users;
+        } catch (DataIntegrityViolationException e) {
+            LOG.debug("User import {} rows up to {} broke a constraint, inserting them one by one: {}",
+                    id, chunk.lastRow(), e.getMessage());
+            return insertRows(id, chunk.lastRow(), rows, users, rejects, rejected);
+        }
+    }
+
+    /**
+     * Inserts the rows of a chunk one by one, each committed with a checkpoint at its row, so
+     * that only the rows breaking a constraint are rejected. Each checkpoint counts the rejects
+     * before its row that no earlier checkpoint counted.
+     */
+    private List<User> insertRows(Long id, long lastRow, List<Row> rows, List<User> users, Path rejects,
+                                  List<Rejected> rejected) throws IOException {
+        List<Rejected> earlier = List.copyOf(rejected);
+        List<User> inserted = new ArrayList<>(users.size());
+        int next = 0;
+        long uncounted = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            User user = users.get(i);
+            while (next < earlier.size() && earlier.get(next).number() < row.number()) {
+                next++;
+                uncounted++;
+            }
+            long counted = uncounted;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    loader.insert(List.of(user));
+                    jobRepository.checkpoint(id, row.number(), 1, counted, Instant.now());
+                });
+                inserted.add(user);
+                uncounted = 0;
+            } catch (DataIntegrityViolationException e) {
+                String error = e instanceof DuplicateKeyException ? "Username already exists"
+                        : String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                Rejected failed = new Rejected(row.number(), row.dto().getUsername(), error);
+                appendRejects(rejects, List.of(failed));
+                rejected.add(failed);
+                uncounted++;
+            }
+        }
+        long remaining = uncounted + earlier.size() - next;
+        transactionTemplate.executeWithoutResult(status ->
+                jobRepository.checkpoint(id, lastRow, 0, remaining, Instant.now()));
+        return inserted;
+    }
+
+    private void publish(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        List<String> usernames = users.stream().map(User::getUsername).toList();
+        userCacheWriter.execute(() -> {
+            userCacheService.deleteMissingUsernames(usernames);
+            knownUsernameFilter.addAll(usernames);
+        });
+        pagedListingCache.invalidate(USER_PAGES);
+        approximateCounter.add(USER_PAGES, users.size());
+    }
+
+    private void appendRejects(Path rejects, List<Rejected> rejected) throws IOException {
+        if (rejected.isEmpty()) {
+            return;
+        }
+        boolean created = Files.notExists(rejects);
+        try (Writer writer = Files.newBufferedWriter(rejects, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+             SequenceWriter rows = csvWriter.writeValues(writer)) {
+            if (created) {
+                rows.write(new String[]{"row", "username", "error"});
+            }
+            for (Rejected row : rejected) {
+                rows.write(new String[]{String.valueOf(row.number()), row.username(), row.error()});
+            }
+        }
+    }
+
+    /**
+     * Drops the rejects after the checkpoint; they were written by a run that stopped before
+     * committing them and are written again when their rows are imported.
+     */
+    private void trimRejects(Path rejects, long processedRows) throws IOException {
+        if (Files.notExists(rejects)) {
+            return;
+        }
+        List<String[]> kept = new ArrayList<>();
+        boolean trimmed = false;
+        try (Reader reader = Files.newBufferedReader(rejects);
+             MappingIterator<String[]> records = csvReader.readValues(reader)) {
+            if (records.hasNext()) {
+                kept.add(records.next());
+            }
+            while (records.hasNext()) {
+                String[] record = records.next();
+                if (Long.parseLong(record[0]) <= processedRows) {
+                    kept.add(record);
+                } else {
+                    trimmed = true;
+                }
+            }
+        }
+        if (!trimmed) {
+            return;
+        }
+        Path trimmedFile = rejects.resolveSibling(rejects.getFileName() + ".part");
+        try (Writer writer = Files.newBufferedWriter(trimmedFile);
+             SequenceWriter rows = csvWriter.writeValues(writer)) {
+            rows.writeAll(kept);
+        }
+        Files.move(trimmedFile, rejects, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Path rejectsFile(UserImportJob job) {
+        return Path.of(job.getFile().replaceFirst("\\.csv$", "") + "-rejected.csv");
+    }
+
+    private static void fail(BlockingQueue<Chunk> out, Exception failure) {
+        try {
+            out.put(new Chunk(-1, List.of(), List.of(), null, failure));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.debug("Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Resolves each role name once per job; unknown names resolve to null.
+     */
+    private final class RoleResolver {
+
+        private final Map<RoleType, Role> roles = new EnumMap<>(RoleType.class);
+
+        Role resolve(String name) {
+            RoleType roleType;
+            try {
+                roleType = RoleType.valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            if (!roles.containsKey(roleType)) {
+                Role role;
+                try {
+                    role = roleRegistry.resolve(roleType);
+                } catch (IllegalArgumentException e) {
+                    role = null;
+                }
+                roles.put(roleType, role);
+            }
+            return roles.get(roleType);
+        }
+    }
+
+    /**
+     * Maps header names to column indexes, ignoring case, spaces and underscores.
+     */
+    private record Columns(Map<String, Integer> indexes) {
+
+        static Columns of(String[] header) {
+            Map<String, Integer> indexes = new HashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                indexes.putIfAbsent(header[i].toLowerCase(Locale.ROOT).replaceAll("[^a-z]", ""), i);
+            }
+            if (!indexes.containsKey("username") || !indexes.containsKey("password")) {
+                throw new IllegalArgumentException("The CSV header must name the username and password columns");
+            }
+            return new Columns(indexes);
+        }
+
+        String value(String[] record, String column) {
+            String value = raw(record, column);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+
+        String raw(String[] record, String column) {
+            Integer index = indexes.get(column);
+            return index == null || index >= record.length || record[index].isEmpty() ? null : record[index];
+        }
+    }
+
+    private record Row(long number, UserCreateDto dto, Set<Role> roles) {
+    }
+
+    private record Rejected(long number, String username, String error) {
+    }
+
+    /**
+     * A run of consecutive data rows ending at {@code lastRow}; hashes are filled in by the hasher.
+     */
+    private record Chunk(long lastRow, List<Row> rows, List<Rejected> rejected, List<String> hashes,
+                         Exception failure) {
+    }
+}
@@ -2,31 +2,49 @@ package com.ideas2it.training.user.service.impl;
 
 import com.ideas2it.training.user.domain.Role;
 import com.ideas2it.training.user.domain.User;
+import com.ideas2it.training.user.dto.CursorPage;
 import com.ideas2it.training.user.dto.PagedResponse;
 import com.ideas2it.training.user.dto.UserCreateDto;
 import com.ideas2it.training.user.dto.UserInfo;
 import com.ideas2it.training.user.dto.UserUpdateDto;
+import com.ideas2it.training.user.enums.CountMode;
 import com.ideas2it.training.user.enums.RoleType;
-import com.ideas2it.training.user.repository.RoleRepository;
 import com.ideas2it.training.user.repository.UserRepository;
 import com.ideas2it.training.user.service.UserService;
+import com.ideas2it.training.user.service.caching.ApproximateCounter;
+import com.ideas2it.training.user.service.caching.PagedListingCache;
 import com.ideas2it.training.user.service.caching.UserCacheService;
+import com.ideas2it.training.user.service.caching.UserCacheWriter;
+import com.ideas2it.training.user.service.caching.UserLoadCoalescer;
+import com.ideas2it.training.user.service.caching.UserNearCache;
 import com.ideas2it.training.user.service.mapper.UserMapper;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service implementation for managing users.
- * Handles persistence logic and DTO conversion via MapStruct.
+ * Handles persistence logic and DTO conversion via MapStruct. Read paths select {@link UserInfo}
+ * projections directly, so they never hydrate managed entities.
+ * Cache writes caused by changes are applied after the transaction commits, through {@link UserCacheWriter}.
  *
  * @author Alagu Nirmal Mahendran
  * @since 05-06-2025
@@ -35,24 +53,42 @@ import java.util.stream.Collectors;
 @Transactional
 public class UserServiceImpl implements UserService {
 
+    private static final String USER_PAGES = "user";
+
+    private static final String USER_TABLE = "users";
+
+    private static final int STREAM_CHUNK_SIZE = 100;
+
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final UserCacheService userCacheService;
+    private final UserLoadCoalescer userLoadCoalescer;
+    private final KnownUsernameFilter knownUsernameFilter;
+    private final UserCacheWriter userCacheWriter;
+    private final PagedListingCache pagedListingCache;
+    private final ApproximateCounter approximateCounter;
+    private final EntityManager entityManager;
 
-    public UserServiceImpl(UserRepository userRepository, RoleRepository roleRepository, UserMapper userMapper, UserCacheService userCacheService, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, RoleRegistry roleRegistry, UserMapper userMapper, UserCacheService userCacheService, PasswordEncoder passwordEncoder, UserLoadCoalescer userLoadCoalescer, KnownUsernameFilter knownUsernameFilter, UserCacheWriter userCacheWriter, PagedListingCache pagedListingCache, ApproximateCounter approximateCounter, EntityManager entityManager) {
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
+        this.roleRegistry = roleRegistry;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
         this.userCacheService = userCacheService;
+        this.userLoadCoalescer = userLoadCoalescer;
+        this.knownUsernameFilter = knownUsernameFilter;
+        this.userCacheWriter = userCacheWriter;
+        this.pagedListingCache = pagedListingCache;
+        this.approximateCounter = approximateCounter;
+        this.entityManager = entityManager;
     }
 
     /**
      * Creates a new user.
      * Encodes the password, resolves roles, and saves the user to the database.
-     * Also caches the created user.
+     * Also caches the created user after commit, replacing any negative cache entries for it.
      *
      * @param dto the UserCreateDto containing user creation details
      * @return the created UserInfo
@@ -64,14 +100,17 @@ public class UserServiceImpl implements UserService {
         user.setRoles(resolveRoles(dto.getRoles()));
         User savedUser = userRepository.save(user);
         UserInfo userInfo = userMapper.toInfo(savedUser);
-        userCacheService.saveUser(userInfo);
+        userCacheWriter.saveUser(userInfo);
+        registerUsername(userInfo.getId(), null, userInfo.getUsername());
+        pagedListingCache.invalidate(USER_PAGES);
+        approximateCounter.add(USER_PAGES, 1);
         return userInfo;
     }
 
     /**
      * Updates an existing user.
      * Updates all fields and roles, then saves the user to the database.
-     * Also updates the cached user.
+     * Also updates the cached user after commit.
      *
      * @param dto the UserUpdateDto containing user update details
      * @return the updated UserInfo
@@ -79,6 +118,8 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserInfo update(UserUpdateDto dto) {
         User user = userRepository.findById(dto.getId()).orElseThrow();
+        String previousUsername = user.getUsername();
+        boolean renamed = !Objects.equals(previousUsername, dto.getUsername());
         user.setUsername(dto.getUsername());
         user.setFirstName(dto.getFirstName());
         user.setLastName(dto.getLastName());
@@ -89,14 +130,15 @@ public class UserServiceImpl implements UserService {
         user.setRoles(resolveRoles(dto.getRoles()));
         User updatedUser = userRepository.save(user);
         UserInfo userInfo = userMapper.toInfo(updatedUser);
-        userCacheService.saveUser(userInfo);
+        userCacheWriter.saveUser(userInfo);
+        if (renamed) registerUsername(userInfo.getId(), previousUsername, userInfo.getUsername());
         return userInfo;
     }
 
     /**
      * Partially updates an existing user.
      * Only updates non-null fields and roles, then saves the user to the database.
-     * Also updates the cached user.
+     * Also updates the changed fields of the cached user after commit.
      *
      * @param dto the UserUpdateDto containing partial user update details
      * @return the partially updated UserInfo
@@ -104,35 +146,71 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserInfo partialUpdate(UserUpdateDto dto) {
         User user = userRepository.findById(dto.getId()).orElseThrow();
-        if (dto.getFirstName() != null) user.setFirstName(dto.getFirstName());
-        if (dto.getLastName() != null) user.setLastName(dto.getLastName());
-        if (dto.getEmail() != null) user.setEmail(dto.getEmail());
-        if (dto.getMobile() != null) user.setMobile(dto.getMobile());
-        if (dto.getAddress() != null) user.setAddress(dto.getAddress());
-        if (dto.getPostalCode() != null) user.setPostalCode(dto.getPostalCode());
+        Set<String> changed = new HashSet<>(Set.of("lastModifiedDate", "lastModifiedBy"));
+        if (dto.getFirstName() != null) { user.setFirstName(dto.getFirstName()); changed.add("firstName"); }
+        if (dto.getLastName() != null) { user.setLastName(dto.getLastName()); changed.add("lastName"); }
+        if (dto.getEmail() != null) { user.setEmail(dto.getEmail()); changed.add("email"); }
+        if (dto.getMobile() != null) { user.setMobile(dto.getMobile()); changed.add("mobile"); }
+        if (dto.getAddress() != null) { user.setAddress(dto.getAddress()); changed.add("address"); }
+        if (dto.getPostalCode() != null) { user.setPostalCode(dto.getPostalCode()); changed.add("postalCode"); }
         if (dto.getPassword() != null) user.setPassword(passwordEncoder.encode(dto.getPassword()));
-        if (dto.getRoles() != null) user.setRoles(resolveRoles(dto.getRoles()));
+        if (dto.getRoles() != null) { user.setRoles(resolveRoles(dto.getRoles())); changed.add("roles"); }
         User updatedUser = userRepository.save(user);
         UserInfo userInfo = userMapper.toInfo(updatedUser);
-        userCacheService.saveUser(userInfo);
+        userCacheWriter.saveUserFields(userInfo, changed);
         return userInfo;
     }
 
     /**
      * Retrieves a user by ID.
      * First checks the cache, then the database if not found in the cache.
+     * Concurrent misses for the same ID are coalesced so only one caller queries the database.
+     * IDs found missing are remembered briefly so repeated lookups skip the database.
+     * Runs without a surrounding transaction so that waiting callers do not hold a connection.
      *
      * @param id the ID of the user to retrieve
      * @return an Optional containing the UserInfo if found
      */
     @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
     public Optional<UserInfo> getById(Long id) {
-        UserInfo cached = userCacheService.getUser(id);
-        if (cached != null) return Optional.of(cached);
+        UserNearCache.Entry cached = userCacheService.getUserEntry(id);
+        if (cached != null) return Optional.ofNullable(cached.user());
 
-        Optional<User> user = userRepository.findById(id);
-        user.ifPresent(u -> userCacheService.saveUser(userMapper.toInfo(u)));
-        return user.map(userMapper::toInfo);
+        return userLoadCoalescer.load(id, () -> {
+            Optional<UserInfo> user = userRepository.findInfoById(id);
+            if (user.isPresent()) {
+                userCacheService.populateUser(user.get());
+            } else {
+                userCacheService.saveMissingUser(id);
+            }
+            return user;
+        });
+    }
+
+    /**
+     * Retrieves several users by ID.
+     * Reads all IDs from the cache in one round-trip, loads only the misses with a single
+     * IN query (roles aggregated in the same query) and backfills the cache with them.
+     *
+     * @param ids the IDs of the users to retrieve
+     * @return the found UserInfo objects in request order; unknown IDs are skipped
+     */
+    @Override
+    public List<UserInfo> getByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) return List.of();
+
+        Map<Long, UserInfo> found = new HashMap<>(userCacheService.getUsers(ids));
+        List<Long> misses = ids.stream().distinct().filter(id -> !found.containsKey(id)).toList();
+        if (!misses.isEmpty()) {
+            List<UserInfo> loaded = userRepository.findInfoByIdIn(misses);
+            loaded.forEach(userInfo -> found.put(userInfo.getId(), userInfo));
+            userCacheService.populateUsers(loaded);
+        }
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     /**
@@ -142,14 +220,43 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public List<UserInfo> getAll() {
-        List<User> users = userRepository.findAll();
-        return users.stream()
-                .map(userMapper::toInfo)
-                .toList();
+        return userRepository.findAllInfo();
+    }
+
+    /**
+     * Passes every user to the consumer without holding them all in memory.
+     * Rows are read with a JDBC fetch size as read-only entities. Every
+     * {@value #STREAM_CHUNK_SIZE} users are mapped together, so their roles are loaded with
+     * one batched query, and then detached, so memory use does not grow with the table.
+     *
+     * @param consumer receives each user, in no particular order
+     */
+    @Override
+    public void streamAll(Consumer<UserInfo> consumer) {
+        try (Stream<User> users = userRepository.streamAll()) {
+            Iterator<User> iterator = users.iterator();
+            List<User> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    emit(chunk, consumer);
+                }
+            }
+            emit(chunk, consumer);
+        }
+    }
+
+    private void emit(List<User> chunk, Consumer<UserInfo> consumer) {
+        chunk.forEach(user -> consumer.accept(userMapper.toInfo(user)));
+        chunk.clear();
+        entityManager.clear();
     }
 
     /**
      * Retrieves a paginated list of users.
+     * Cached pages hold user IDs only and are hydrated through the user cache. On a miss the
+     * page is loaded from the database and its users are written to the cache in a single
+     * pipelined batch.
      *
      * @param offset the starting index of the page
      * @param limit  the number of users per page
@@ -157,12 +264,41 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public PagedResponse<UserInfo> getAllPaged(int offset, int limit) {
+        return getAllPaged(offset, limit, CountMode.EXACT);
+    }
+
+    /**
+     * Retrieves a paginated list of users, counting them as requested.
+     * EXACT pages go through the page cache as above. NONE and APPROXIMATE pages read one
+     * user more than the page size to report whether a next page exists and never run a
+     * count query; APPROXIMATE adds an estimate of the total from {@link ApproximateCounter}.
+     *
+     * @param offset    the starting index of the page
+     * @param limit     the number of users per page
+     * @param countMode how the total number of users is reported
+     * @return a PagedResponse containing the paginated UserInfo objects
+     */
+    @Override
+    public PagedResponse<UserInfo> getAllPaged(int offset, int limit, CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return pagedListingCache.getPage(USER_PAGES, offset, limit, this::getByIds,
+                    () -> loadPage(offset, limit), UserInfo::getId);
+        }
+        Slice<UserInfo> slice = userRepository.findInfoSlice(PageRequest.of(offset / limit, limit));
+        List<UserInfo> userInfos = slice.getContent();
+        userCacheService.populateUsers(userInfos);
+        Long total = countMode == CountMode.APPROXIMATE
+                ? approximateCounter.count(USER_PAGES, USER_TABLE, userRepository::count)
+                : null;
+        return new PagedResponse<>(userInfos, total, total != null, slice.hasNext(), slice.getNumber(), slice.getSize());
+    }
+
+    private PagedResponse<UserInfo> loadPage(int offset, int limit) {
         PageRequest pageRequest = PageRequest.of(offset / limit, limit);
-        Page<User> page = userRepository.findAll(pageRequest);
+        Page<UserInfo> page = userRepository.findAllInfo(pageRequest);
 
-        List<UserInfo> userInfos = page.getContent().stream()
-                .map(userMapper::toInfo)
-                .toList();
+        List<UserInfo> userInfos = page.getContent();
+        userCacheService.populateUsers(userInfos);
 
         return new PagedResponse<>(
                 userInfos,
@@ -172,21 +308,64 @@ public class UserServiceImpl implements UserService {
         );
     }
 
+    /**
+     * Retrieves the page of users following a cursor, ordered by ID.
+     * Reads one row more than the limit on the primary key index to tell whether a next
+     * page exists, so no count query is needed and every page costs the same.
+     * The page is written back to the cache in a single pipelined batch.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit  the number of users per page
+     * @return the page of users and the cursor of the next page
+     */
+    @Override
+    public CursorPage<UserInfo> getPageAfter(String cursor, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("Limit must be positive");
+        List<UserInfo> users = userRepository.findInfoByIdGreaterThan(CursorPage.decodeCursor(cursor), Limit.of(limit + 1));
+        boolean hasNext = users.size() > limit;
+        List<UserInfo> userInfos = hasNext ? users.subList(0, limit) : users;
+        userCacheService.populateUsers(userInfos);
+        String nextCursor = hasNext ? CursorPage.encodeCursor(userInfos.get(userInfos.size() - 1).getId()) : null;
+        return new CursorPage<>(userInfos, nextCursor, userInfos.size());
+    }
+
     /**
      * Deletes a user by ID.
-     * Removes the user from the database and the cache.
+     * Removes the user from the database, and from the cache after commit.
      *
      * @param id the ID of the user to delete
      */
     @Override
     public void delete(Long id) {
+        String username = userRepository.findById(id).map(User::getUsername).orElse(null);
         userRepository.deleteById(id);
-        userCacheService.deleteUser(id);
+        userCacheWriter.deleteUser(id);
+        if (username != null) userCacheWriter.execute(() -> userCacheService.moveUsername(id, username, null));
+        pagedListingCache.invalidate(USER_PAGES);
+        if (username != null) approximateCounter.add(USER_PAGES, -1);
+    }
+
+    /**
+     * Makes a new username visible to authentication lookups once the transaction commits.
+     * Moves the username index entry from the previous username, clears the negative cache
+     * entry and adds the username to the known username filter.
+     *
+     * @param id               the ID of the user
+     * @param previousUsername the username being replaced, or null on create
+     * @param username         the username that now exists
+     */
+    private void registerUsername(Long id, String previousUsername, String username) {
+        if (username == null) return;
+        userCacheWriter.execute(() -> {
+            if (id != null) userCacheService.moveUsername(id, previousUsername, username);
+            userCacheService.deleteMissingUsername(username);
+            knownUsernameFilter.add(username);
+        });
     }
 
     /**
      * Resolves roles from a set of RoleType enums.
-     * Fetches Role entities from the database based on the provided RoleType names.
+     * Looks the roles up in the in-memory {@link RoleRegistry}, so no query is issued.
      *
      * @param roleNames the set of RoleType enums
      * @return a set of resolved Role entities
@@ -194,11 +373,7 @@ public class UserServiceImpl implements UserService {
     private Set<Role> resolveRoles(Set<RoleType> roleNames) {
         if (roleNames == null || roleNames.isEmpty()) return new HashSet<>();
         return roleNames.stream()
-                .map(roleName -> {
-                    RoleType roleType = RoleType.valueOf(roleName.name().toUpperCase());
-                    return roleRepository.findByName(roleType.name())
-                            .orElseThrow(() -> new IllegalArgumentException("Invalid role: " + roleName));
-                })
+                .map(roleRegistry::resolve)
                 .collect(Collectors.toSet());
     }
 }
@@ -0,0 +1,23 @@
+package com.ideas2it.training.user.service.mapper;
+
+import com.ideas2it.training.user.domain.UserImportJob;
+import com.ideas2it.training.user.dto.UserImportJobInfo;
+import org.mapstruct.Mapper;
+
+/**
+ * Mapper for converting UserImportJob entities to DTOs.
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@Mapper(componentModel = "spring")
+public interface UserImportJobMapper {
+
+    /**
+     * Maps a UserImportJob entity to a UserImportJobInfo DTO.
+     *
+     * @param job the UserImportJob entity
+     * @return the mapped UserImportJobInfo DTO
+     */
+    UserImportJobInfo toInfo(UserImportJob job);
+}
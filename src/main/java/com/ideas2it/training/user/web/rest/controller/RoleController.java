@@ -1,6 +1,7 @@
 package com.ideas2it.training.user.web.rest.controller;
 
 import com.ideas2it.training.user.domain.Role;
+import com.ideas2it.training.user.dto.CursorPage;
 import com.ideas2it.training.user.dto.PagedResponse;
 import com.ideas2it.training.user.dto.RoleCreateDto;
 import com.ideas2it.training.user.dto.RoleInfo;
@@ -108,6 +109,19 @@ public class RoleController {
         return ResponseEntity.ok(service.getAllPaged(offset, limit));
     }
 
+    @Operation(summary = "List roles by cursor", description = "Returns roles ordered by ID after the given cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Roles retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPage.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping
+    public ResponseEntity<CursorPage<RoleInfo>> getPageAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(service.getPageAfter(cursor, limit));
+    }
+
     @Operation(summary = "Delete role by ID", description = "Deletes a role by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Role deleted successfully"),
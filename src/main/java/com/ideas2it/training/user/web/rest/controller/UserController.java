@@ -1,10 +1,17 @@
 package com.ideas2it.training.user.web.rest.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.ideas2it.training.user.domain.User;
+import com.ideas2it.training.user.dto.BulkUserResult;
+import com.ideas2it.training.user.dto.CursorPage;
 import com.ideas2it.training.user.dto.PagedResponse;
 import com.ideas2it.training.user.dto.UserCreateDto;
 import com.ideas2it.training.user.dto.UserInfo;
 import com.ideas2it.training.user.dto.UserUpdateDto;
+import com.ideas2it.training.user.enums.CountMode;
+import com.ideas2it.training.user.service.UserBulkService;
 import com.ideas2it.training.user.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,9 +19,13 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -30,10 +41,16 @@ import java.util.List;
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final UserService service;
+    private final UserBulkService bulkService;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserService service) {
+    public UserController(UserService service, UserBulkService bulkService, ObjectMapper objectMapper) {
         this.service = service;
+        this.bulkService = bulkService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "Create a new user", description = "Adds a new user entity to the system")
@@ -49,6 +66,18 @@ public class UserController {
         return ResponseEntity.ok(service.create(dto));
     }
 
+    @Operation(summary = "Create users in bulk", description = "Creates several users in chunked, batched transactions and reports the outcome of each user in request order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users processed, see the status of each result",
+                    content = @Content(schema = @Schema(implementation = BulkUserResult.class))),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized user list"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkUserResult>> createAll(@RequestBody List<UserCreateDto> dtos) {
+        return ResponseEntity.ok(bulkService.createAll(dtos));
+    }
+
     @Operation(summary = "Update an existing user", description = "Updates the details of an existing user")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User updated successfully",
@@ -87,6 +116,18 @@ public class UserController {
         return service.getById(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
+    @Operation(summary = "Get users by IDs", description = "Fetches several users in one call, in the order of the requested IDs; unknown IDs are skipped")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = UserInfo.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid user IDs"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<UserInfo>> getByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(service.getByIds(ids));
+    }
+
     @Operation(summary = "List all users", description = "Retrieves a list of all users in the system")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Users retrieved successfully",
@@ -98,7 +139,31 @@ public class UserController {
         return ResponseEntity.ok(service.getAll());
     }
 
-    @Operation(summary = "List paged users", description = "Returns users with pagination support")
+    @Operation(summary = "Stream all users", description = "Streams all users as newline-delimited JSON with constant memory use, whatever the number of users")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users streamed successfully",
+                    content = @Content(mediaType = NDJSON, schema = @Schema(implementation = UserInfo.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/all", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n").writeValues(out)) {
+                service.streamAll(user -> {
+                    try {
+                        writer.write(user);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    @Operation(summary = "List paged users", description = "Returns users with pagination support; countMode NONE skips the total and APPROXIMATE estimates it")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Paged users retrieved successfully",
                     content = @Content(schema = @Schema(implementation = PagedResponse.class))),
@@ -108,8 +173,23 @@ public class UserController {
     @GetMapping("/paged")
     public ResponseEntity<PagedResponse<UserInfo>> getAllPaged(
             @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "EXACT") CountMode countMode) {
+        return ResponseEntity.ok(service.getAllPaged(offset, limit, countMode));
+    }
+
+    @Operation(summary = "List users by cursor", description = "Returns users ordered by ID after the given cursor; every page costs the same however deep it is")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPage.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = Void.class)))
+    })
+    @GetMapping
+    public ResponseEntity<CursorPage<UserInfo>> getPageAfter(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int limit) {
-        return ResponseEntity.ok(service.getAllPaged(offset, limit));
+        return ResponseEntity.ok(service.getPageAfter(cursor, limit));
     }
 
     @Operation(summary = "Delete user by ID", description = "Deletes a user by its ID")
@@ -0,0 +1,91 @@
+package com.ideas2it.training.user.web.rest.controller;
+
+import com.ideas2it.training.user.dto.UserExportJobInfo;
+import com.ideas2it.training.user.enums.ExportFormat;
+import com.ideas2it.training.user.service.UserExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+/**
+ * REST controller for exporting users.
+ * Starts gzip-compressed CSV or NDJSON exports of all users with their roles, reports their
+ * progress and serves the finished files.
+ * <p>
+ * Exports run on the replica that received the request and are only known there.
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@RestController
+@RequestMapping("/api/users/exports")
+public class UserExportController {
+
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final UserExportService service;
+
+    public UserExportController(UserExportService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Export users", description = "Exports all users with their roles to a gzip-compressed file in the background. "
+            + "CSV roles are separated by |")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Export started",
+                    content = @Content(schema = @Schema(implementation = UserExportJobInfo.class))),
+            @ApiResponse(responseCode = "429", description = "Too many exports running"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping
+    public ResponseEntity<UserExportJobInfo> start(@RequestParam(defaultValue = "CSV") ExportFormat format) {
+        UserExportJobInfo job;
+        try {
+            job = service.start(format);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        return ResponseEntity.accepted().location(URI.create("/api/users/exports/" + job.getId())).body(job);
+    }
+
+    @Operation(summary = "Get user export progress", description = "Reports the status, row count and rows per second of an export")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = UserExportJobInfo.class))),
+            @ApiResponse(responseCode = "404", description = "Export not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<UserExportJobInfo> getById(@PathVariable String id) {
+        return service.getById(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Download a user export", description = "Streams the gzip-compressed file of a completed export")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File streamed successfully"),
+            @ApiResponse(responseCode = "404", description = "Export not found or not completed"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/{id}/file")
+    public ResponseEntity<Resource> getFile(@PathVariable String id) {
+        return service.getFile(id)
+                .map(file -> ResponseEntity.ok()
+                        .contentType(GZIP)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                .filename(file.getFileName().toString()).build().toString())
+                        .<Resource>body(new FileSystemResource(file)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,82 @@
+package com.ideas2it.training.user.web.rest.controller;
+
+import com.ideas2it.training.user.domain.UserImportJob;
+import com.ideas2it.training.user.dto.UserImportJobInfo;
+import com.ideas2it.training.user.service.UserImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.net.URI;
+
+/**
+ * REST controller for managing {@link UserImportJob}.
+ * Starts CSV imports of users, restarts failed ones and reports their progress.
+ * <p>
+ * The CSV file is sent as the raw request body and streamed to disk, so its size is not limited
+ * by multipart settings.
+ *
+ * @author Alagu Nirmal Mahendran
+ * @since 18-10-2026
+ */
+@RestController
+@RequestMapping("/api/users/imports")
+public class UserImportController {
+
+    private static final String CSV = "text/csv";
+
+    private final UserImportService service;
+
+    public UserImportController(UserImportService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Import users from CSV", description = "Stores a CSV file of users and imports it in the background. "
+            + "The header must name the username and password columns; roles are separated by |")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import started",
+                    content = @Content(schema = @Schema(implementation = UserImportJobInfo.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping(consumes = CSV)
+    public ResponseEntity<UserImportJobInfo> start(InputStream csv) {
+        UserImportJobInfo job = service.start(csv);
+        return ResponseEntity.accepted().location(URI.create("/api/users/imports/" + job.getId())).body(job);
+    }
+
+    @Operation(summary = "Restart a user import", description = "Resumes a failed or stalled import after its last committed row")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import restarted",
+                    content = @Content(schema = @Schema(implementation = UserImportJobInfo.class))),
+            @ApiResponse(responseCode = "404", description = "Import not found"),
+            @ApiResponse(responseCode = "409", description = "Import is running or has completed"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/{id}/restart")
+    public ResponseEntity<UserImportJobInfo> restart(@PathVariable Long id) {
+        try {
+            return service.restart(id).map(job -> ResponseEntity.accepted().body(job))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @Operation(summary = "Get user import progress", description = "Reports the status, checkpoint and row counts of an import")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = UserImportJobInfo.class))),
+            @ApiResponse(responseCode = "404", description = "Import not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<UserImportJobInfo> getById(@PathVariable Long id) {
+        return service.getById(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+}
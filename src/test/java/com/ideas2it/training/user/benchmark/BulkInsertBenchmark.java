@@ -0,0 +1,132 @@
+package com.ideas2it.training.user.benchmark;
+
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the bulk insert statements Hibernate issues for identity IDs and for pooled sequence IDs.
+ * <p>
+ * With identity IDs every user is inserted on its own as soon as it is persisted, to read back
+ * the generated key. With the pooled {@code sequence_generator} one sequence call reserves 50 IDs
+ * and the inserts are sent as JDBC batches of 50. Each operation inserts {@value #USERS} users
+ * in one transaction into H2 over its TCP server, so every statement is a network round trip as it
+ * is with PostgreSQL.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.ideas2it.training.user.benchmark.BulkInsertBenchmark}
+ * or from the IDE.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int USERS = 1_000;
+
+    private static final int BATCH_SIZE = 50;
+
+    private static final String COLUMNS = "username, password, email, first_name, last_name, created_by";
+
+    private Server server;
+    private Connection connection;
+    private long run;
+
+    @Setup
+    public void setUp() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        connection = DriverManager.getConnection("jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:bulk;DB_CLOSE_DELAY=-1");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table identity_users (id bigint generated by default as identity primary key, "
+                    + "username varchar(50), password varchar(60), email varchar(100), first_name varchar(50), "
+                    + "last_name varchar(50), created_by varchar(50))");
+            statement.execute("create table sequence_users (id bigint primary key, "
+                    + "username varchar(50), password varchar(60), email varchar(100), first_name varchar(50), "
+                    + "last_name varchar(50), created_by varchar(50))");
+            statement.execute("create sequence sequence_generator start with 1050 increment by " + BATCH_SIZE);
+        }
+        connection.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public long identity() throws SQLException {
+        long run = ++this.run;
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into identity_users (" + COLUMNS + ") values (?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < USERS; i++) {
+                bind(insert, run, i, 1);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    @Benchmark
+    public long pooledSequence() throws SQLException {
+        long run = ++this.run;
+        long nextId = 0;
+        long hi = 0;
+        try (PreparedStatement sequence = connection.prepareStatement("select next value for sequence_generator");
+             PreparedStatement insert = connection.prepareStatement(
+                     "insert into sequence_users (id, " + COLUMNS + ") values (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < USERS; i++) {
+                if (nextId == hi) {
+                    try (ResultSet value = sequence.executeQuery()) {
+                        value.next();
+                        hi = value.getLong(1);
+                    }
+                    nextId = hi - BATCH_SIZE;
+                }
+                insert.setLong(1, ++nextId);
+                bind(insert, run, i, 2);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return nextId;
+    }
+
+    private static void bind(PreparedStatement insert, long run, int i, int first) throws SQLException {
+        String username = "user_" + run + "_" + i;
+        insert.setString(first, username);
+        insert.setString(first + 1, "$2a$10$abcdefghijklmnopqrstuv");
+        insert.setString(first + 2, username + "@example.com");
+        insert.setString(first + 3, "First");
+        insert.setString(first + 4, "Last");
+        insert.setString(first + 5, "system");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BulkInsertBenchmark.class.getSimpleName()).build()).run();
+    }
+}
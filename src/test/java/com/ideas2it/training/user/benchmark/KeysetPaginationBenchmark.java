@@ -0,0 +1,110 @@
+package com.ideas2it.training.user.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares offset pagination with keyset (cursor) pagination on a users table.
+ * <p>
+ * Loads {@value #ROWS} users into an in-memory H2 database and reads a page of
+ * {@value #PAGE_SIZE} users at page 1 and page 10,000 both ways. Offset pagination has
+ * to walk past every skipped row, so its latency grows with the page number, while the
+ * keyset query seeks the primary key index and stays flat.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.ideas2it.training.user.benchmark.KeysetPaginationBenchmark}
+ * or from the IDE.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeysetPaginationBenchmark {
+
+    private static final int ROWS = 200_000;
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"1", "10000"})
+    private int page;
+
+    private Connection connection;
+    private PreparedStatement offsetQuery;
+    private PreparedStatement keysetQuery;
+    private long lastIdOfPreviousPage;
+
+    @Setup
+    public void setUp() throws SQLException {
+        // Result reuse is disabled so that every call actually runs the query
+        connection = DriverManager.getConnection("jdbc:h2:mem:keyset;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=0;OPTIMIZE_REUSE_RESULTS=FALSE");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists users (id bigint primary key, username varchar(50), "
+                    + "email varchar(100), first_name varchar(50), last_name varchar(50))");
+            statement.execute("truncate table users");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("insert into users values (?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= ROWS; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "user" + id);
+                insert.setString(3, "user" + id + "@example.com");
+                insert.setString(4, "First" + id);
+                insert.setString(5, "Last" + id);
+                insert.addBatch();
+                if (id % 1_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+        offsetQuery = connection.prepareStatement("select * from users order by id limit ? offset ?");
+        keysetQuery = connection.prepareStatement("select * from users where id > ? order by id limit ?");
+        lastIdOfPreviousPage = (long) (page - 1) * PAGE_SIZE;
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table users");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long offset() throws SQLException {
+        offsetQuery.setInt(1, PAGE_SIZE);
+        offsetQuery.setLong(2, (long) (page - 1) * PAGE_SIZE);
+        return read(offsetQuery);
+    }
+
+    @Benchmark
+    public long keyset() throws SQLException {
+        keysetQuery.setLong(1, lastIdOfPreviousPage);
+        keysetQuery.setInt(2, PAGE_SIZE);
+        return read(keysetQuery);
+    }
+
+    private static long read(PreparedStatement query) throws SQLException {
+        long lastId = 0;
+        try (ResultSet resultSet = query.executeQuery()) {
+            while (resultSet.next()) {
+                lastId = resultSet.getLong(1);
+            }
+        }
+        return lastId;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(KeysetPaginationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
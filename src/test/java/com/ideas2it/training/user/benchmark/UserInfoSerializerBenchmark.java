@@ -0,0 +1,93 @@
+package com.ideas2it.training.user.benchmark;
+
+import com.ideas2it.training.user.config.RedisCacheConfig;
+import com.ideas2it.training.user.dto.UserInfo;
+import com.ideas2it.training.user.service.caching.UserInfoBinaryRedisSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JSON Redis value serializer with {@link UserInfoBinaryRedisSerializer}.
+ * <p>
+ * Reports encode and decode ns/op; the payload size of each format is printed on start.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.ideas2it.training.user.benchmark.UserInfoSerializerBenchmark}
+ * or from the IDE.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserInfoSerializerBenchmark {
+
+    private RedisSerializer<Object> json;
+    private RedisSerializer<Object> binary;
+    private UserInfo user;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setUp() {
+        json = RedisCacheConfig.jsonRedisSerializer();
+        binary = new UserInfoBinaryRedisSerializer(json);
+        user = sampleUser();
+        jsonBytes = json.serialize(user);
+        binaryBytes = binary.serialize(user);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return json.serialize(user);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return binary.serialize(user);
+    }
+
+    @Benchmark
+    public Object decodeJson() {
+        return json.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public Object decodeBinary() {
+        return binary.deserialize(binaryBytes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        RedisSerializer<Object> json = RedisCacheConfig.jsonRedisSerializer();
+        UserInfo user = sampleUser();
+        System.out.printf("payload size: json=%d bytes, binary=%d bytes%n",
+                json.serialize(user).length, new UserInfoBinaryRedisSerializer(json).serialize(user).length);
+        new Runner(new OptionsBuilder().include(UserInfoSerializerBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static UserInfo sampleUser() {
+        return UserInfo.builder()
+                .id(123456L)
+                .username("john_doe")
+                .firstName("John")
+                .lastName("Doe")
+                .email("john.doe@example.com")
+                .mobile("+91-9876543210")
+                .address("42, Anna Salai, Chennai")
+                .postalCode("600002")
+                .roles(Set.of("USER", "MAINTAINER"))
+                .createdDate(Instant.parse("2025-04-21T10:15:30.123456Z"))
+                .createdBy("system")
+                .lastModifiedDate(Instant.parse("2025-06-05T08:00:00Z"))
+                .lastModifiedBy("admin")
+                .build();
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class RedisCacheConfigTest {
@@ -30,7 +32,7 @@ class RedisCacheConfigTest {
         redisCacheConfig.redisPort = 6379;
 
         // Act
-        RedisConnectionFactory factory = redisCacheConfig.redisConnectionFactory();
+        RedisConnectionFactory factory = redisCacheConfig.redisConnectionFactory(new ApplicationProperties());
 
         // Assert
         assertNotNull(factory);
@@ -38,6 +40,7 @@ class RedisCacheConfigTest {
         RedisStandaloneConfiguration config = ((LettuceConnectionFactory) factory).getStandaloneConfiguration();
         assertEquals("localhost", config.getHostName());
         assertEquals(6379, config.getPort());
+        assertEquals(Duration.ofMillis(100), ((LettuceConnectionFactory) factory).getClientConfiguration().getCommandTimeout());
     }
 
 }
\ No newline at end of file
@@ -2,10 +2,15 @@ package com.ideas2it.training.user.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ideas2it.training.user.config.SecurityConfig;
+import com.ideas2it.training.user.dto.BulkUserResult;
+import com.ideas2it.training.user.dto.CursorPage;
 import com.ideas2it.training.user.dto.PagedResponse;
 import com.ideas2it.training.user.dto.UserCreateDto;
 import com.ideas2it.training.user.dto.UserInfo;
 import com.ideas2it.training.user.dto.UserUpdateDto;
+import com.ideas2it.training.user.enums.BulkStatus;
+import com.ideas2it.training.user.enums.CountMode;
+import com.ideas2it.training.user.service.UserBulkService;
 import com.ideas2it.training.user.service.UserService;
 import com.ideas2it.training.user.service.caching.UserCacheService;
 import com.ideas2it.training.user.web.rest.controller.UserController;
@@ -20,15 +25,19 @@ import org.springframework.http.MediaType;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class, excludeAutoConfiguration = {OAuth2ResourceServerAutoConfiguration.class})
@@ -48,6 +57,9 @@ class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserBulkService userBulkService;
+
     @MockBean
     private UserCacheService userCacheService;
 
@@ -81,6 +93,24 @@ class UserControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void testCreateAll() throws Exception {
+        List<UserCreateDto> dtos = List.of(UserCreateDto.builder().username("john_doe").password("secret").build(),
+                UserCreateDto.builder().username("jane_doe").password("secret").build());
+        List<BulkUserResult> results = List.of(
+                BulkUserResult.builder().index(0).username("john_doe").status(BulkStatus.CREATED).id(1L).build(),
+                BulkUserResult.builder().index(1).username("jane_doe").status(BulkStatus.FAILED).error("Username already exists").build());
+        when(userBulkService.createAll(anyList())).thenReturn(results);
+
+        String body = mockMvc.perform(post("/api/users/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dtos)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(results.size(), objectMapper.readTree(body).size());
+        assertEquals("FAILED", objectMapper.readTree(body).get(1).get("status").asText());
+    }
+
     @Test
     void testUpdate_ValidInput() throws Exception {
         UserUpdateDto dto = UserUpdateDto.builder().id(1L).build();
@@ -130,6 +160,16 @@ class UserControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testGetByIds() throws Exception {
+        List<UserInfo> users = List.of(UserInfo.builder().id(2L).build(), UserInfo.builder().id(1L).build());
+        when(userService.getByIds(List.of(2L, 1L))).thenReturn(users);
+
+        mockMvc.perform(get("/api/users")
+                        .param("ids", "2,1"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void testGetAll() throws Exception {
         List<UserInfo> users = List.of(UserInfo.builder().build());
@@ -139,10 +179,32 @@ class UserControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testStreamAll_Ndjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserInfo> consumer = invocation.getArgument(0);
+            consumer.accept(UserInfo.builder().id(1L).username("john_doe").build());
+            consumer.accept(UserInfo.builder().id(2L).username("jane_doe").build());
+            return null;
+        }).when(userService).streamAll(any());
+
+        MvcResult result = mockMvc.perform(get("/api/users/all").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("john_doe", objectMapper.readTree(lines[0]).get("username").asText());
+        verify(userService, never()).getAll();
+    }
+
     @Test
     void testGetAllPaged() throws Exception {
         PagedResponse<UserInfo> pagedResponse = new PagedResponse<>();
-        when(userService.getAllPaged(0, 10)).thenReturn(pagedResponse);
+        when(userService.getAllPaged(0, 10, CountMode.EXACT)).thenReturn(pagedResponse);
 
         mockMvc.perform(get("/api/users/paged")
                         .param("offset", "0")
@@ -150,6 +212,28 @@ class UserControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testGetAllPaged_WithoutCount() throws Exception {
+        PagedResponse<UserInfo> pagedResponse = new PagedResponse<>();
+        when(userService.getAllPaged(0, 10, CountMode.NONE)).thenReturn(pagedResponse);
+
+        mockMvc.perform(get("/api/users/paged")
+                        .param("offset", "0")
+                        .param("limit", "10")
+                        .param("countMode", "NONE"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testGetPageAfter() throws Exception {
+        CursorPage<UserInfo> cursorPage = new CursorPage<>(List.of(), null, 0);
+        when(userService.getPageAfter("aWQ6MTA", 10)).thenReturn(cursorPage);
+
+        mockMvc.perform(get("/api/users")
+                        .param("cursor", "aWQ6MTA"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void testDelete_ValidId() throws Exception {
         doNothing().when(userService).delete(1L);
@@ -0,0 +1,87 @@
+package com.ideas2it.training.user.controller;
+
+import com.ideas2it.training.user.config.SecurityConfig;
+import com.ideas2it.training.user.dto.UserExportJobInfo;
+import com.ideas2it.training.user.enums.ExportFormat;
+import com.ideas2it.training.user.enums.ExportStatus;
+import com.ideas2it.training.user.service.UserExportService;
+import com.ideas2it.training.user.web.rest.controller.UserExportController;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = UserExportController.class, excludeAutoConfiguration = {OAuth2ResourceServerAutoConfiguration.class})
+@Import({SecurityConfig.class, JwtDecoder.class})
+@WithMockUser(roles = "ADMIN")
+class UserExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JwtDecoder jwtDecoder;
+
+    @MockBean
+    private UserExportService userExportService;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @Test
+    void testStart_Accepted() throws Exception {
+        // Arrange
+        UserExportJobInfo job = UserExportJobInfo.builder().id("abc").format(ExportFormat.NDJSON)
+                .status(ExportStatus.RUNNING).build();
+        when(userExportService.start(ExportFormat.NDJSON)).thenReturn(job);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/exports").param("format", "NDJSON"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/users/exports/abc"));
+    }
+
+    @Test
+    void testStart_TooManyExports() throws Exception {
+        // Arrange
+        when(userExportService.start(ExportFormat.CSV)).thenThrow(new IllegalStateException("Too many user exports running"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/exports"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void testGetFile_NotCompleted() throws Exception {
+        // Arrange
+        when(userExportService.getFile("abc")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/exports/abc/file"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,89 @@
+package com.ideas2it.training.user.controller;
+
+import com.ideas2it.training.user.config.SecurityConfig;
+import com.ideas2it.training.user.dto.UserImportJobInfo;
+import com.ideas2it.training.user.enums.ImportStatus;
+import com.ideas2it.training.user.service.UserImportService;
+import com.ideas2it.training.user.web.rest.controller.UserImportController;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = UserImportController.class, excludeAutoConfiguration = {OAuth2ResourceServerAutoConfiguration.class})
+@Import({SecurityConfig.class, JwtDecoder.class})
+@WithMockUser(roles = "ADMIN")
+class UserImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JwtDecoder jwtDecoder;
+
+    @MockBean
+    private UserImportService userImportService;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @Test
+    void testStart_Accepted() throws Exception {
+        // Arrange
+        UserImportJobInfo job = UserImportJobInfo.builder().id(1L).status(ImportStatus.QUEUED).build();
+        when(userImportService.start(any(InputStream.class))).thenReturn(job);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/imports")
+                        .contentType("text/csv")
+                        .content("username,password\nalice,secret\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/users/imports/1"));
+    }
+
+    @Test
+    void testRestart_Conflict() throws Exception {
+        // Arrange
+        when(userImportService.restart(1L)).thenThrow(new IllegalStateException("Import job 1 is already running"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/imports/1/restart"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testGetById_NotFound() throws Exception {
+        // Arrange
+        when(userImportService.getById(2L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/imports/2"))
+                .andExpect(status().isNotFound());
+    }
+}
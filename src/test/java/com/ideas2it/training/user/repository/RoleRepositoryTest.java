@@ -1,12 +1,17 @@
 package com.ideas2it.training.user.repository;
 
 import com.ideas2it.training.user.domain.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -20,6 +25,9 @@ class RoleRepositoryTest {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     void testFindByName_ExistingRole() {
         // Arrange
@@ -43,4 +51,32 @@ class RoleRepositoryTest {
         // Assert
         assertFalse(result.isPresent());
     }
-}
\ No newline at end of file
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Cached results are only shared once committed
+    void testFindByName_ServedFromCache() {
+        // Arrange
+        Role role = new Role();
+        role.setName("CACHED_ROLE");
+        role.setCreatedBy("system");
+        role = roleRepository.save(role);
+        try {
+            roleRepository.findByName("CACHED_ROLE");
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            // Act
+            Optional<Role> byName = roleRepository.findByName("CACHED_ROLE");
+            Optional<Role> byId = roleRepository.findById(role.getId());
+
+            // Assert
+            assertEquals("CACHED_ROLE", byName.orElseThrow().getName());
+            assertEquals("CACHED_ROLE", byId.orElseThrow().getName());
+            assertEquals(0, statistics.getPrepareStatementCount());
+            assertEquals(1, statistics.getQueryCacheHitCount());
+            assertEquals(1, statistics.getDomainDataRegionStatistics("roles").getHitCount()); // The query cache holds the role itself
+        } finally {
+            roleRepository.delete(role);
+        }
+    }
+}
@@ -2,22 +2,54 @@ package com.ideas2it.training.user.repository;
 
 import com.ideas2it.training.user.domain.Role;
 import com.ideas2it.training.user.domain.User;
+import com.ideas2it.training.user.dto.UserInfo;
 import com.ideas2it.training.user.enums.RoleType;
+import com.ideas2it.training.user.security.SpringSecurityAuditorAware;
+import com.ideas2it.training.user.service.caching.ApproximateCounter;
+import com.ideas2it.training.user.service.caching.PagedListingCache;
+import com.ideas2it.training.user.service.caching.UserCacheService;
+import com.ideas2it.training.user.service.caching.UserCacheWriter;
+import com.ideas2it.training.user.service.caching.UserLoadCoalescer;
+import com.ideas2it.training.user.service.impl.KnownUsernameFilter;
+import com.ideas2it.training.user.service.impl.RoleRegistry;
+import com.ideas2it.training.user.service.impl.UserServiceImpl;
+import com.ideas2it.training.user.service.mapper.UserMapper;
+import com.ideas2it.training.user.service.mapper.UserMapperImpl;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
 @ImportAutoConfiguration(exclude = {LiquibaseAutoConfiguration.class})
+@Import(UserMapperImpl.class)
 class UserRepositoryTest {
 
     @Autowired
@@ -26,6 +58,21 @@ class UserRepositoryTest {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @TestConfiguration
+    @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
+    static class AuditingConfiguration {
+
+        @Bean
+        SpringSecurityAuditorAware springSecurityAuditorAware() {
+            return new SpringSecurityAuditorAware();
+        }
+    }
 
     @Test
     void testFindByUsername_ExistingUser() {
@@ -122,7 +169,271 @@ class UserRepositoryTest {
         user.setPassword(null);
 
         // Act & Assert
-        assertThrows(Exception.class, () -> userRepository.save(user));
+        assertThrows(Exception.class, () -> {
+            userRepository.save(user);
+            entityManager.flush();
+        });
+    }
+
+    @Test
+    void testFindAllPaged_ConstantStatementCount() {
+        // Arrange
+        saveUsersWithRoles(100);
+        Statistics statistics = statistics();
+
+        // Act
+        Page<User> page = userRepository.findAll(PageRequest.of(0, 100));
+        List<UserInfo> users = page.getContent().stream().map(userMapper::toInfo).toList();
+
+        // Assert
+        assertEquals(100, users.size());
+        assertTrue(users.stream().allMatch(user -> user.getRoles().equals(Set.of(RoleType.USER.name()))));
+        assertEquals(3, statistics.getPrepareStatementCount()); // Page, count and one batch of roles
+    }
+
+    @Test
+    void testFindInfoSlice_SkipsCountAndEntities() {
+        // Arrange
+        saveUsersWithRoles(30);
+        Statistics statistics = statistics();
+
+        // Act
+        Slice<UserInfo> slice = userRepository.findInfoSlice(PageRequest.of(0, 20));
+
+        // Assert
+        assertEquals(20, slice.getContent().size());
+        assertTrue(slice.hasNext());
+        assertEquals(1, statistics.getPrepareStatementCount()); // Page with roles aggregated
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindInfoByIdGreaterThan_KeysetPage() {
+        // Arrange
+        List<Long> ids = saveUsersWithRoles(30);
+        Statistics statistics = statistics();
+
+        // Act
+        List<UserInfo> users = userRepository.findInfoByIdGreaterThan(ids.get(4), Limit.of(20));
+
+        // Assert
+        assertEquals(ids.subList(5, 25), users.stream().map(UserInfo::getId).toList());
+        assertTrue(users.stream().allMatch(user -> user.getRoles().equals(Set.of(RoleType.USER.name()))));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindAllInfo_PagedWithCount() {
+        // Arrange
+        saveUsersWithRoles(30);
+        Statistics statistics = statistics();
+
+        // Act
+        Page<UserInfo> page = userRepository.findAllInfo(PageRequest.of(0, 20));
+
+        // Assert
+        assertEquals(20, page.getContent().size());
+        assertEquals(30, page.getTotalElements());
+        assertEquals(2, statistics.getPrepareStatementCount()); // Page and count
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindAllInfo_PagesInIdOrderWithoutOverlap() {
+        // Arrange
+        List<Long> ids = saveUsersWithRoles(30);
+
+        // Act
+        Page<UserInfo> first = userRepository.findAllInfo(PageRequest.of(0, 20));
+        Page<UserInfo> second = userRepository.findAllInfo(PageRequest.of(1, 20));
+
+        // Assert
+        assertEquals(ids.subList(0, 20), first.getContent().stream().map(UserInfo::getId).toList());
+        assertEquals(ids.subList(20, 30), second.getContent().stream().map(UserInfo::getId).toList());
+    }
+
+    @Test
+    void testFindInfoSlice_PagesInIdOrderWithoutOverlap() {
+        // Arrange
+        List<Long> ids = saveUsersWithRoles(30);
+
+        // Act
+        Slice<UserInfo> first = userRepository.findInfoSlice(PageRequest.of(0, 20));
+        Slice<UserInfo> second = userRepository.findInfoSlice(PageRequest.of(1, 20));
+
+        // Assert
+        assertEquals(ids.subList(0, 20), first.getContent().stream().map(UserInfo::getId).toList());
+        assertEquals(ids.subList(20, 30), second.getContent().stream().map(UserInfo::getId).toList());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void testFindInfoById_AggregatesRoles() {
+        // Arrange
+        Role admin = new Role();
+        admin.setName(RoleType.ADMIN.name());
+        roleRepository.save(admin);
+        Long id = saveUsersWithRoles(2).get(0);
+        User user = userRepository.findById(id).orElseThrow();
+        user.setRoles(new HashSet<>(user.getRoles()));
+        user.getRoles().add(admin);
+        user.setEmail("paged_user_0@example.com");
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        // Act
+        UserInfo result = userRepository.findInfoById(id).orElseThrow();
+        List<UserInfo> all = userRepository.findAllInfo();
+
+        // Assert
+        assertEquals(Set.of(RoleType.ADMIN.name(), RoleType.USER.name()), result.getRoles());
+        assertEquals("paged_user_0", result.getUsername());
+        assertEquals("paged_user_0@example.com", result.getEmail());
+        assertEquals("system", result.getCreatedBy());
+        assertNotNull(result.getCreatedDate());
+        assertEquals(2, all.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(userRepository.findInfoById(999L).isEmpty());
+    }
+
+    @Test
+    void testFindInfoByIdIn_UserWithoutRoles() {
+        // Arrange
+        User user = new User();
+        user.setUsername("no_roles");
+        user.setPassword("password");
+        Long id = userRepository.save(user).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<UserInfo> result = userRepository.findInfoByIdIn(List.of(id));
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(Set.of(), result.get(0).getRoles());
+    }
+
+    @Test
+    void testFindAll_JoinsRoles() {
+        // Arrange
+        saveUsersWithRoles(25);
+        Statistics statistics = statistics();
+
+        // Act
+        List<UserInfo> users = userRepository.findAll().stream().map(userMapper::toInfo).toList();
+
+        // Assert
+        assertEquals(25, users.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindById_JoinsRoles() {
+        // Arrange
+        Long id = saveUsersWithRoles(1).get(0);
+        Statistics statistics = statistics();
+
+        // Act
+        UserInfo user = userRepository.findById(id).map(userMapper::toInfo).orElseThrow();
+
+        // Assert
+        assertEquals(Set.of(RoleType.USER.name()), user.getRoles());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testSaveAll_BatchesInserts() {
+        // Arrange
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            User user = new User();
+            user.setUsername("batched_user_" + i);
+            user.setPassword("password");
+            users.add(user);
+        }
+        Statistics statistics = statistics();
+
+        // Act
+        userRepository.saveAll(users);
+
+        // Assert
+        assertTrue(users.stream().allMatch(user -> user.getId() != null));
+        assertEquals(0, statistics.getEntityInsertCount()); // Deferred to the flush, where they are batched
+        assertTrue(statistics.getPrepareStatementCount() <= 3); // Sequence calls for blocks of 50 IDs, not one per user
+        assertEquals(50, entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getSessionFactoryOptions().getJdbcBatchSize());
+        entityManager.flush();
+        assertEquals(100, statistics.getEntityInsertCount());
+    }
+
+    /**
+     * Streams a million users through the export path and samples the retained heap every
+     * 100,000 users. The embedded H2 database materializes the result set up front, so the
+     * first sample is taken as the baseline; from there the heap must stay flat, whereas
+     * holding the users, as a list does, would grow it by several hundred MB.
+     * Takes about a minute, so it only runs with {@code -Pperf}.
+     */
+    @Test
+    @Tag("perf")
+    void testStreamAll_MillionRowsInBoundedHeap() {
+        // Arrange
+        int rows = 1_000_000;
+        entityManager.getEntityManager().createNativeQuery(
+                "insert into users (id, username, password, created_by, created_date, row_version) "
+                        + "select x, 'stream_user_' || x, 'password', 'system', current_timestamp, 0 from system_range(1, ?)")
+                .setParameter(1, rows)
+                .executeUpdate();
+        UserServiceImpl userService = new UserServiceImpl(userRepository, mock(RoleRegistry.class), userMapper,
+                mock(UserCacheService.class), mock(PasswordEncoder.class), mock(UserLoadCoalescer.class),
+                mock(KnownUsernameFilter.class), mock(UserCacheWriter.class), mock(PagedListingCache.class),
+                mock(ApproximateCounter.class), entityManager.getEntityManager());
+        AtomicLong streamed = new AtomicLong();
+        List<Long> samples = new ArrayList<>();
+
+        // Act
+        userService.streamAll(user -> {
+            if (streamed.incrementAndGet() % 100_000 == 0) {
+                samples.add(retainedHeap());
+            }
+        });
+
+        // Assert
+        assertEquals(rows, streamed.get());
+        long growth = samples.stream().mapToLong(Long::longValue).max().orElseThrow() - samples.get(0);
+        assertTrue(growth < 16L * 1024 * 1024, "Retained heap grew by " + growth / (1024 * 1024) + " MB while streaming");
+    }
+
+    private static long retainedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
     }
 
-}
\ No newline at end of file
+    private List<Long> saveUsersWithRoles(int count) {
+        Role role = new Role();
+        role.setName(RoleType.USER.name());
+        roleRepository.save(role);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUsername("paged_user_" + i);
+            user.setPassword("password");
+            user.setRoles(Set.of(role));
+            ids.add(userRepository.save(user).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,124 @@
+package com.ideas2it.training.user.service.caching;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ApproximateCounterTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ApproximateCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        counter = new ApproximateCounter(stringRedisTemplate, CacheGuard.NONE, jdbcTemplate, new ApplicationProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testCount_SeedsCounterFromExactCount() {
+        // Arrange
+        AtomicInteger exactCounts = new AtomicInteger();
+
+        // Act
+        long count = counter.count("user", "users", () -> {
+            exactCounts.incrementAndGet();
+            return 42L;
+        });
+
+        // Assert
+        assertEquals(42L, count);
+        assertEquals(1, exactCounts.get());
+        verify(valueOperations, times(1)).setIfAbsent("count:user", "42", Duration.ofMinutes(10));
+    }
+
+    @Test
+    void testCount_UsesCounterWithoutCounting() {
+        // Arrange
+        when(valueOperations.get("count:user")).thenReturn("41");
+
+        // Act & Assert
+        assertEquals(41L, counter.count("user", "users", () -> fail("Should not count")));
+    }
+
+    @Test
+    void testCount_RedisFailureCountsExactly() {
+        // Arrange
+        when(valueOperations.get("count:user")).thenThrow(new RedisConnectionFailureException("down"));
+
+        // Act & Assert
+        assertEquals(7L, counter.count("user", "users", () -> 7L));
+    }
+
+    @Test
+    void testCount_PostgresUsesPlannerEstimate() {
+        // Arrange
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("users"))).thenReturn(1_000_000L);
+
+        // Act & Assert
+        assertEquals(1_000_000L, counter.count("user", "users", () -> fail("Should not count")));
+        verifyNoInteractions(valueOperations);
+    }
+
+    @Test
+    void testCount_PostgresNeverAnalyzedFallsBackToCounter() {
+        // Arrange
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("users"))).thenReturn(-1L);
+        when(valueOperations.get("count:user")).thenReturn("5");
+
+        // Act & Assert
+        assertEquals(5L, counter.count("user", "users", () -> fail("Should not count")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAdd_AppliedAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        counter.add("user", -1);
+
+        // Assert
+        verify(stringRedisTemplate, never()).execute(any(RedisScript.class), anyList(), any());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(stringRedisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of("count:user")), eq("-1"));
+    }
+}
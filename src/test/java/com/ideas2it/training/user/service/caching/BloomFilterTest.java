@@ -0,0 +1,40 @@
+package com.ideas2it.training.user.service.caching;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void testMightContain_NoFalseNegatives() {
+        // Arrange
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i));
+
+        // Act & Assert
+        assertTrue(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("user" + i)));
+    }
+
+    @Test
+    void testMightContain_FalsePositiveRateNearTarget() {
+        // Arrange
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i));
+
+        // Act
+        long falsePositives = IntStream.range(0, 100_000).filter(i -> filter.mightContain("unknown" + i)).count();
+
+        // Assert
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void testCreate_InvalidSizing() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1.0));
+    }
+}
@@ -0,0 +1,132 @@
+package com.ideas2it.training.user.service.caching;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.dto.PagedResponse;
+import com.ideas2it.training.user.dto.UserInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PagedListingCacheTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private PagedListingCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        cache = new PagedListingCache(stringRedisTemplate, CacheGuard.NONE, new ApplicationProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testGetPage_MissLoadsAndStoresIds() {
+        // Arrange
+        when(valueOperations.get("page:generation:user")).thenReturn("3");
+        PagedResponse<UserInfo> loaded = new PagedResponse<>(List.of(user(7L), user(9L)), 42, 1, 2);
+
+        // Act
+        PagedResponse<UserInfo> result = cache.getPage("user", 2, 2, ids -> fail("no hydration on a miss"),
+                () -> loaded, UserInfo::getId);
+
+        // Assert
+        assertSame(loaded, result);
+        verify(valueOperations, times(1)).set("page:user:3:2:2", "42:1:2:7,9", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testGetPage_RejectedByGuardLoadsWithoutRedis() {
+        // Arrange
+        CacheGuard rejecting = new CacheGuard() {
+            @Override
+            public <T> T call(Supplier<T> call) {
+                throw new IllegalStateException("Circuit open");
+            }
+        };
+        cache = new PagedListingCache(stringRedisTemplate, rejecting, new ApplicationProperties());
+        PagedResponse<UserInfo> loaded = new PagedResponse<>(List.of(user(7L)), 1, 0, 2);
+
+        // Act
+        PagedResponse<UserInfo> result = cache.getPage("user", 0, 2, ids -> fail("no hydration"),
+                () -> loaded, UserInfo::getId);
+
+        // Assert
+        assertSame(loaded, result);
+        verifyNoInteractions(valueOperations);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetPage_HitHydratesIdsWithoutLoading() {
+        // Arrange
+        when(valueOperations.get("page:generation:user")).thenReturn("3");
+        when(valueOperations.get("page:user:3:2:2")).thenReturn("42:1:2:7,9");
+        Function<List<Long>, List<UserInfo>> hydrate = mock(Function.class);
+        when(hydrate.apply(List.of(7L, 9L))).thenReturn(List.of(user(7L), user(9L)));
+
+        // Act
+        PagedResponse<UserInfo> result = cache.getPage("user", 2, 2, hydrate,
+                () -> fail("no load on a hit"), UserInfo::getId);
+
+        // Assert
+        assertEquals(List.of(7L, 9L), result.getItems().stream().map(UserInfo::getId).toList());
+        assertEquals(42, result.getTotalElements());
+        assertEquals(1, result.getPage());
+        assertEquals(2, result.getSize());
+    }
+
+    @Test
+    void testGetPage_RedisDownFallsBackToLoader() {
+        // Arrange
+        when(valueOperations.get(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+        PagedResponse<UserInfo> loaded = new PagedResponse<>(List.of(), 0, 0, 10);
+
+        // Act & Assert
+        assertSame(loaded, cache.getPage("user", 0, 10, ids -> List.of(), () -> loaded, UserInfo::getId));
+    }
+
+    @Test
+    void testInvalidate_BumpsGenerationAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        cache.invalidate("user");
+
+        // Assert
+        verify(valueOperations, never()).increment(anyString());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(valueOperations, times(1)).increment("page:generation:user");
+    }
+
+    private static UserInfo user(Long id) {
+        return UserInfo.builder().id(id).build();
+    }
+}
@@ -0,0 +1,233 @@
+package com.ideas2it.training.user.service.caching;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.dto.UserInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+class UserCacheWriterTest {
+
+    @Mock
+    private UserCacheService userCacheService;
+
+    @Mock
+    private UserNearCache nearCache;
+
+    private UserCacheWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getCache().getUser().getAsyncWrite().setThreads(1);
+        writer = new UserCacheWriter(properties, userCacheService, nearCache, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        writer.shutdown();
+    }
+
+    @Test
+    void testSaveUser_DeferredUntilCommit() {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(1L).build();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        writer.saveUser(user);
+
+        // Assert
+        verifyNoInteractions(userCacheService);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(userCacheService, timeout(1000)).saveUser(user);
+    }
+
+    @Test
+    void testSaveUser_EvictsNearCacheOnCommit() {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        writer.execute(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        UserInfo user = UserInfo.builder().id(1L).build();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        writer.saveUser(user);
+        verifyNoInteractions(nearCache);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        verify(nearCache, times(1)).invalidate(1L);
+        verify(userCacheService, never()).saveUser(user);
+        release.countDown();
+        verify(userCacheService, timeout(1000)).saveUser(user);
+    }
+
+    @Test
+    void testSaveUser_WriteDuringApplyRunsAfterIt() throws Exception {
+        // Arrange
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getCache().getUser().getAsyncWrite().setThreads(2);
+        writer.shutdown();
+        writer = new UserCacheWriter(properties, userCacheService, nearCache, new SimpleMeterRegistry());
+        UserInfo first = UserInfo.builder().id(1L).firstName("first").build();
+        UserInfo second = UserInfo.builder().id(1L).firstName("second").build();
+        CountDownLatch applying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            applying.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(userCacheService).saveUser(first);
+
+        // Act
+        writer.saveUser(first);
+        applying.await(5, TimeUnit.SECONDS);
+        writer.saveUser(second);
+
+        // Assert
+        verify(userCacheService, after(200).never()).saveUser(second);
+        release.countDown();
+        InOrder inOrder = inOrder(userCacheService);
+        inOrder.verify(userCacheService, timeout(1000)).saveUser(first);
+        inOrder.verify(userCacheService, timeout(1000)).saveUser(second);
+    }
+
+    @Test
+    void testSaveUser_DroppedOnRollback() throws Exception {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(1L).build();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        writer.saveUser(user);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+        writer.shutdown();
+
+        // Assert
+        verifyNoInteractions(userCacheService);
+    }
+
+    @Test
+    void testSaveUser_QueuedWritesToSameUserCoalesce() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        writer.execute(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        UserInfo first = UserInfo.builder().id(1L).firstName("first").build();
+        UserInfo second = UserInfo.builder().id(1L).firstName("second").build();
+        UserInfo other = UserInfo.builder().id(2L).build();
+
+        // Act
+        writer.saveUser(first);
+        writer.saveUser(other);
+        writer.saveUser(second);
+        release.countDown();
+
+        // Assert
+        verify(userCacheService, timeout(1000)).saveUser(second);
+        verify(userCacheService, timeout(1000)).saveUser(other);
+        verify(userCacheService, never()).saveUser(first);
+    }
+
+    @Test
+    void testDeleteUser_SupersedesQueuedSave() {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        writer.execute(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        UserInfo user = UserInfo.builder().id(1L).build();
+
+        // Act
+        writer.saveUser(user);
+        writer.deleteUser(1L);
+        release.countDown();
+
+        // Assert
+        verify(userCacheService, timeout(1000)).deleteUser(1L);
+        verify(userCacheService, never()).saveUser(user);
+    }
+
+    @Test
+    void testSaveUserFields_QueuedPartialWritesMergeFields() {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        writer.execute(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        UserInfo first = UserInfo.builder().id(1L).firstName("first").build();
+        UserInfo second = UserInfo.builder().id(1L).firstName("first").email("second@example.com").build();
+
+        // Act
+        writer.saveUserFields(first, List.of("firstName"));
+        writer.saveUserFields(second, List.of("email"));
+        release.countDown();
+
+        // Assert
+        verify(userCacheService, timeout(1000)).saveUserFields(second, Set.of("firstName", "email"));
+        verify(userCacheService, never()).saveUserFields(eq(first), any());
+    }
+
+    @Test
+    void testSaveUserFields_AfterQueuedSaveStaysFullSave() {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        writer.execute(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        UserInfo first = UserInfo.builder().id(1L).build();
+        UserInfo second = UserInfo.builder().id(1L).firstName("second").build();
+
+        // Act
+        writer.saveUser(first);
+        writer.saveUserFields(second, List.of("firstName"));
+        release.countDown();
+
+        // Assert
+        verify(userCacheService, timeout(1000)).saveUser(second);
+        verify(userCacheService, never()).saveUserFields(any(), any());
+    }
+}
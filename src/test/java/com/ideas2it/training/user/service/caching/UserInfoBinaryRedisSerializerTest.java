@@ -0,0 +1,106 @@
+package com.ideas2it.training.user.service.caching;
+
+import com.ideas2it.training.user.config.RedisCacheConfig;
+import com.ideas2it.training.user.dto.UserInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserInfoBinaryRedisSerializerTest {
+
+    private RedisSerializer<Object> json;
+
+    private UserInfoBinaryRedisSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        json = RedisCacheConfig.jsonRedisSerializer();
+        serializer = new UserInfoBinaryRedisSerializer(json);
+    }
+
+    @Test
+    void testRoundTrip_AllFields() {
+        // Arrange
+        UserInfo user = UserInfo.builder()
+                .id(42L)
+                .username("jöhn_dœ")
+                .firstName("John")
+                .lastName("Doe")
+                .email("john@example.com")
+                .mobile("12345")
+                .address("Street 1")
+                .postalCode("600001")
+                .roles(Set.of("ADMIN", "USER"))
+                .createdDate(Instant.parse("2025-04-21T10:15:30.123456789Z"))
+                .createdBy("system")
+                .lastModifiedDate(Instant.parse("1969-12-31T23:59:59Z"))
+                .lastModifiedBy("admin")
+                .build();
+
+        // Act
+        byte[] bytes = serializer.serialize(user);
+        UserInfo result = (UserInfo) serializer.deserialize(bytes);
+
+        // Assert
+        assertEquals(UserInfoBinaryRedisSerializer.VERSION_1, bytes[0]);
+        assertTrue(bytes.length < json.serialize(user).length);
+        assertEquals(user.getId(), result.getId());
+        assertEquals(user.getUsername(), result.getUsername());
+        assertEquals(user.getPostalCode(), result.getPostalCode());
+        assertEquals(user.getRoles(), result.getRoles());
+        assertEquals(user.getCreatedDate(), result.getCreatedDate());
+        assertEquals(user.getLastModifiedDate(), result.getLastModifiedDate());
+        assertEquals(user.getLastModifiedBy(), result.getLastModifiedBy());
+    }
+
+    @Test
+    void testRoundTrip_NullFieldsStayNull() {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(1L).build();
+
+        // Act
+        UserInfo result = (UserInfo) serializer.deserialize(serializer.serialize(user));
+
+        // Assert
+        assertEquals(1L, result.getId());
+        assertNull(result.getUsername());
+        assertNull(result.getRoles());
+        assertNull(result.getCreatedDate());
+    }
+
+    @Test
+    void testDeserialize_LegacyJsonIsReadThroughFallback() {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(7L).username("legacy").build();
+        byte[] legacy = json.serialize(user);
+
+        // Act
+        UserInfo result = (UserInfo) serializer.deserialize(legacy);
+
+        // Assert
+        assertEquals("legacy", result.getUsername());
+    }
+
+    @Test
+    void testSerialize_OtherValuesUseFallback() {
+        // Act & Assert
+        assertEquals("marker", serializer.deserialize(serializer.serialize("marker")));
+    }
+
+    @Test
+    void testDeserialize_TruncatedPayload() {
+        // Arrange
+        byte[] bytes = serializer.serialize(UserInfo.builder().id(1L).username("john").build());
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 2);
+
+        // Act & Assert
+        assertThrows(SerializationException.class, () -> serializer.deserialize(truncated));
+    }
+}
@@ -0,0 +1,70 @@
+package com.ideas2it.training.user.service.caching;
+
+import com.ideas2it.training.user.dto.UserInfo;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserInfoHashMapperTest {
+
+    @Test
+    void testToHashAndFromHash_RoundTrip() {
+        // Arrange
+        UserInfo user = UserInfo.builder()
+                .id(1L)
+                .username("john_doe")
+                .email("john@example.com")
+                .roles(Set.of("ROLE_USER", "ROLE_ADMIN"))
+                .lastModifiedDate(Instant.parse("2026-10-18T10:15:30Z"))
+                .build();
+
+        // Act
+        Map<String, String> hash = UserInfoHashMapper.toHash(user, UserInfoHashMapper.FIELD_NAMES);
+        Map<String, String> stored = new HashMap<>(hash);
+        stored.values().removeIf(value -> value == null);
+        stored.put(UserInfoHashMapper.VERSION, "4");
+        UserInfo result = UserInfoHashMapper.fromHash(stored);
+
+        // Assert
+        assertNull(hash.get("mobile"));
+        assertTrue(hash.containsKey("mobile"));
+        assertEquals(1L, result.getId());
+        assertEquals("john_doe", result.getUsername());
+        assertEquals("john@example.com", result.getEmail());
+        assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), result.getRoles());
+        assertEquals(Instant.parse("2026-10-18T10:15:30Z"), result.getLastModifiedDate());
+        assertNull(result.getMobile());
+    }
+
+    @Test
+    void testFromHash_EmptyHashIsMiss() {
+        // Act & Assert
+        assertNull(UserInfoHashMapper.fromHash(Map.of()));
+    }
+
+    @Test
+    void testProject_KeepsRequestedFieldsAndId() {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(1L).username("john_doe").email("john@example.com").build();
+
+        // Act
+        UserInfo result = UserInfoHashMapper.project(user, List.of("email"));
+
+        // Assert
+        assertEquals(1L, result.getId());
+        assertEquals("john@example.com", result.getEmail());
+        assertNull(result.getUsername());
+    }
+
+    @Test
+    void testFieldNames_UnknownField() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> UserInfoHashMapper.fieldNames(List.of("password")));
+    }
+}
@@ -0,0 +1,128 @@
+package com.ideas2it.training.user.service.caching;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.dto.UserInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserLoadCoalescerTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private UserCacheService userCacheService;
+
+    private UserLoadCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        ApplicationProperties properties = new ApplicationProperties();
+        ApplicationProperties.Cache.SingleFlight singleFlight = properties.getCache().getUser().getSingleFlight();
+        singleFlight.setMode(ApplicationProperties.Cache.SingleFlight.Mode.REDIS);
+        singleFlight.setWaitTimeout(Duration.ofMillis(200));
+        singleFlight.setPollInterval(Duration.ofMillis(10));
+        coalescer = new UserLoadCoalescer(properties, stringRedisTemplate, CacheGuard.NONE, userCacheService);
+    }
+
+    @Test
+    void testLoad_LockAcquiredRunsLoaderAndReleases() {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(1L).build();
+        when(valueOperations.setIfAbsent(eq("user:lock:1"), anyString(), any(Duration.class))).thenReturn(true);
+
+        // Act
+        Optional<UserInfo> result = coalescer.load(1L, () -> Optional.of(user));
+
+        // Assert
+        assertEquals(Optional.of(user), result);
+        verify(stringRedisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of("user:lock:1")), anyString());
+    }
+
+    @Test
+    void testLoad_LockHeldElsewhereWaitsForCache() {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(1L).build();
+        AtomicInteger loads = new AtomicInteger();
+        when(valueOperations.setIfAbsent(eq("user:lock:1"), anyString(), any(Duration.class))).thenReturn(false);
+        when(userCacheService.getUserEntry(1L)).thenReturn(null, new UserNearCache.Entry(user, Long.MAX_VALUE));
+
+        // Act
+        Optional<UserInfo> result = coalescer.load(1L, () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        // Assert
+        assertEquals(Optional.of(user), result);
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void testLoad_LockHeldElsewhereStopsWaitingAtTombstone() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        when(valueOperations.setIfAbsent(eq("user:lock:1"), anyString(), any(Duration.class))).thenReturn(false);
+        when(userCacheService.getUserEntry(1L)).thenReturn(null, new UserNearCache.Entry(null, Long.MAX_VALUE));
+
+        // Act
+        Optional<UserInfo> result = coalescer.load(1L, () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        // Assert
+        assertEquals(Optional.empty(), result);
+        assertEquals(0, loads.get());
+        verify(userCacheService, times(2)).getUserEntry(1L);
+        verify(userCacheService, never()).isMissingUser(anyLong());
+    }
+
+    @Test
+    void testLoad_LockHeldElsewhereFallsBackAfterTimeout() {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(1L).build();
+        when(valueOperations.setIfAbsent(eq("user:lock:1"), anyString(), any(Duration.class))).thenReturn(false);
+
+        // Act
+        Optional<UserInfo> result = coalescer.load(1L, () -> Optional.of(user));
+
+        // Assert
+        assertEquals(Optional.of(user), result);
+    }
+
+    @Test
+    void testLoad_RedisUnavailableLoadsLocally() {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(1L).build();
+        when(valueOperations.setIfAbsent(eq("user:lock:1"), anyString(), any(Duration.class)))
+                .thenThrow(new QueryTimeoutException("Redis command timed out"));
+
+        // Act
+        Optional<UserInfo> result = coalescer.load(1L, () -> Optional.of(user));
+
+        // Assert
+        assertEquals(Optional.of(user), result);
+        verifyNoInteractions(userCacheService);
+    }
+}
@@ -0,0 +1,109 @@
+package com.ideas2it.training.user.service.caching;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.dto.UserInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserNearCacheTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private ApplicationProperties properties;
+
+    private UserNearCache nearCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new ApplicationProperties();
+        nearCache = new UserNearCache(properties, stringRedisTemplate, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testOnMessage_FromOtherNodeEvicts() {
+        // Arrange
+        nearCache.put(UserInfo.builder().id(7L).build());
+
+        // Act
+        nearCache.onMessage(message("other-node:7"), null);
+
+        // Assert
+        assertNull(nearCache.get(7L));
+    }
+
+    @Test
+    void testOnMessage_FromSameNodeIsIgnored() {
+        // Arrange
+        nearCache.put(UserInfo.builder().id(7L).build());
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        nearCache.publishInvalidation(7L);
+        verify(stringRedisTemplate).convertAndSend(eq("user-cache-invalidation"), published.capture());
+
+        // Act
+        nearCache.onMessage(message(published.getValue()), null);
+
+        // Assert
+        assertNotNull(nearCache.get(7L));
+    }
+
+    @Test
+    void testOnMessage_MalformedIsIgnored() {
+        // Arrange
+        nearCache.put(UserInfo.builder().id(7L).build());
+
+        // Act
+        nearCache.onMessage(message("garbage"), null);
+        nearCache.onMessage(message("node:abc"), null);
+
+        // Assert
+        assertNotNull(nearCache.get(7L));
+    }
+
+    @Test
+    void testHottestIds_SkipsTombstones() {
+        // Arrange
+        nearCache.put(UserInfo.builder().id(1L).build());
+        nearCache.put(UserInfo.builder().id(2L).build());
+        nearCache.putMissing(3L, Long.MAX_VALUE);
+
+        // Act
+        List<Long> ids = nearCache.hottestIds(10);
+
+        // Assert
+        assertEquals(2, ids.size());
+        assertTrue(ids.containsAll(List.of(1L, 2L)));
+    }
+
+    @Test
+    void testDisabled_NeverStores() {
+        // Arrange
+        properties.getCache().getUser().getNearCache().setEnabled(false);
+        UserNearCache disabled = new UserNearCache(properties, stringRedisTemplate, new SimpleMeterRegistry());
+
+        // Act
+        disabled.put(UserInfo.builder().id(7L).build());
+
+        // Assert
+        assertNull(disabled.get(7L));
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("user-cache-invalidation".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
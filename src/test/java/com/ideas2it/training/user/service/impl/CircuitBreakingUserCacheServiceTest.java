@@ -0,0 +1,276 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.config.RedisCacheConfig;
+import com.ideas2it.training.user.dto.UserInfo;
+import com.ideas2it.training.user.service.caching.UserNearCache;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CircuitBreakingUserCacheServiceTest {
+
+    @Mock
+    private UserCacheServiceImpl delegate;
+
+    @Mock
+    private UserNearCache nearCache;
+
+    private ApplicationProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CircuitBreakingUserCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new ApplicationProperties();
+        ApplicationProperties.Cache.CircuitBreaker circuitBreaker = properties.getCache().getCircuitBreaker();
+        circuitBreaker.setMinimumNumberOfCalls(4);
+        circuitBreaker.setSlidingWindowSize(4);
+        circuitBreaker.setWaitDurationInOpenState(Duration.ofMinutes(1));
+        meterRegistry = new SimpleMeterRegistry();
+        cacheService = new CircuitBreakingUserCacheService(delegate, nearCache, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheService.shutdown();
+    }
+
+    @Test
+    void testGetUser_FailureIsReportedAsMiss() {
+        // Arrange
+        when(delegate.getUser(1L)).thenThrow(new QueryTimeoutException("Redis command timed out"));
+
+        // Act
+        UserInfo result = cacheService.getUser(1L);
+
+        // Assert
+        assertNull(result);
+    }
+
+    @Test
+    void testGetUser_OpenBreakerSkipsRedis() {
+        // Arrange
+        when(delegate.getUser(anyLong())).thenThrow(new QueryTimeoutException("Redis command timed out"));
+        for (long id = 1; id <= 4; id++) {
+            cacheService.getUser(id);
+        }
+
+        // Act
+        UserInfo result = cacheService.getUser(5L);
+
+        // Assert
+        assertNull(result);
+        assertEquals(CircuitBreaker.State.OPEN, cacheService.getCircuitBreaker().getState());
+        verify(delegate, never()).getUser(5L);
+        assertEquals(1.0, meterRegistry.get("cache.circuit.transitions")
+                .tag("from", "CLOSED").tag("to", "OPEN").counter().count());
+    }
+
+    @Test
+    void testCall_GuardsOtherRedisCallsWithTheSameBreaker() {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            assertThrows(QueryTimeoutException.class, () -> cacheService.call(() -> {
+                throw new QueryTimeoutException("Redis command timed out");
+            }));
+        }
+        AtomicBoolean called = new AtomicBoolean();
+
+        // Act & Assert
+        assertEquals(CircuitBreaker.State.OPEN, cacheService.getCircuitBreaker().getState());
+        assertThrows(CallNotPermittedException.class, () -> cacheService.call(() -> called.getAndSet(true)));
+        assertFalse(called.get());
+        assertNull(cacheService.getUser(1L));
+        verify(delegate, never()).getUser(1L);
+    }
+
+    @Test
+    void testSaveUser_SkippedWhileOpenAndEvictedOnClose() {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(7L).build();
+        cacheService.getCircuitBreaker().transitionToOpenState();
+
+        // Act
+        cacheService.saveUser(user);
+        cacheService.getCircuitBreaker().transitionToClosedState();
+
+        // Assert
+        verify(delegate, never()).saveUser(user);
+        verify(delegate, timeout(1000).times(1)).deleteUsers(List.of(7L));
+    }
+
+    @Test
+    void testSaveUser_EvictionRunsOffTheClosingThread() {
+        // Arrange
+        AtomicReference<String> evictingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            evictingThread.set(Thread.currentThread().getName());
+            return null;
+        }).when(delegate).deleteUsers(anyCollection());
+        cacheService.getCircuitBreaker().transitionToOpenState();
+        cacheService.saveUser(UserInfo.builder().id(7L).build());
+
+        // Act
+        cacheService.getCircuitBreaker().transitionToClosedState();
+
+        // Assert
+        verify(delegate, timeout(1000).times(1)).deleteUsers(List.of(7L));
+        assertEquals("user-cache-eviction", evictingThread.get());
+    }
+
+    @Test
+    void testSaveUser_StaleUserIsNotReadFromRedisUntilEvictionSucceeds() throws Exception {
+        // Arrange
+        doThrow(new QueryTimeoutException("Redis command timed out")).doNothing()
+                .when(delegate).deleteUsers(anyCollection());
+        cacheService.getCircuitBreaker().transitionToOpenState();
+        cacheService.saveUser(UserInfo.builder().id(7L).build());
+
+        // Act
+        cacheService.getCircuitBreaker().transitionToClosedState();
+        verify(delegate, timeout(1000).times(1)).deleteUsers(List.of(7L));
+        UserInfo whileStale = cacheService.getUser(7L);
+        Map<Long, UserInfo> batchWhileStale = cacheService.getUsers(List.of(7L, 8L));
+
+        // Assert
+        assertNull(whileStale);
+        assertTrue(batchWhileStale.isEmpty());
+        verify(delegate, never()).getUser(7L);
+        verify(delegate, times(1)).getUsers(List.of(8L));
+        verify(nearCache, times(1)).invalidate(7L);
+        verify(delegate, timeout(3000).times(2)).deleteUsers(List.of(7L));
+        long deadline = System.currentTimeMillis() + 1000;
+        while (mockingDetails(delegate).getInvocations().stream()
+                .noneMatch(invocation -> invocation.getMethod().getName().equals("getUser"))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            cacheService.getUser(7L);
+        }
+        verify(delegate, atLeastOnce()).getUser(7L);
+    }
+
+    @Test
+    void testGetUser_OpenBreakerReadsNearCache() {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(1L).firstName("local").build();
+        when(nearCache.get(1L)).thenReturn(user);
+        when(nearCache.getAll(List.of(1L))).thenReturn(Map.of(1L, user));
+        when(nearCache.isMissing(2L)).thenReturn(true);
+        when(nearCache.getEntry(2L)).thenReturn(new UserNearCache.Entry(null, Long.MAX_VALUE));
+        when(nearCache.getEntry(3L)).thenReturn(new UserNearCache.Entry(null, 0L));
+        cacheService.getCircuitBreaker().transitionToOpenState();
+
+        // Act & Assert
+        assertSame(user, cacheService.getUser(1L));
+        assertNull(cacheService.getUserEntry(2L).user());
+        assertNull(cacheService.getUserEntry(3L));
+        assertEquals(Map.of(1L, user), cacheService.getUsers(List.of(1L)));
+        assertTrue(cacheService.isMissingUser(2L));
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void testSaveUser_TooManySkippedWritesClearUserKeySpaceOnClose() {
+        // Arrange
+        cacheService.getCircuitBreaker().transitionToOpenState();
+        List<Long> ids = LongStream.rangeClosed(1, 10_001).boxed().toList();
+
+        // Act
+        ids.forEach(id -> cacheService.deleteUser(id));
+        cacheService.getCircuitBreaker().transitionToClosedState();
+
+        // Assert
+        verify(delegate, timeout(1000).times(1)).deleteAll();
+        verify(delegate, never()).deleteUsers(anyCollection());
+    }
+
+    @Test
+    void testGetUser_NullIdIsNotCountedAsFailure() {
+        // Arrange
+        when(delegate.getUser(null)).thenThrow(new IllegalArgumentException("User ID cannot be null"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> cacheService.getUser(null));
+        assertEquals(0, cacheService.getCircuitBreaker().getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void testGetById_SlowRedisKeepsP99Bounded() throws Exception {
+        // Arrange
+        Duration redisDelay = Duration.ofSeconds(1);
+        Duration commandTimeout = Duration.ofMillis(50);
+        properties.getCache().setCommandTimeout(commandTimeout);
+        properties.getCache().getUser().getEarlyRefresh().setEnabled(false);
+        Map<Long, UserInfo> database = Map.of(1L, UserInfo.builder().id(1L).build());
+        int requests = 500;
+        long[] latencies = new long[requests];
+
+        try (SlowRedisServer slowRedis = new SlowRedisServer(redisDelay)) {
+            LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                    new RedisStandaloneConfiguration("localhost", slowRedis.getPort()),
+                    RedisCacheConfig.lettuceClientConfiguration(properties.getCache()));
+            factory.afterPropertiesSet();
+            factory.start();
+            try {
+                RedisTemplate<String, Object> redisTemplate = new RedisCacheConfig().redisTemplate(factory, properties);
+                redisTemplate.afterPropertiesSet();
+                UserNearCache nearCache = new UserNearCache(properties, mock(StringRedisTemplate.class), meterRegistry);
+                UserCacheServiceImpl redisCache = new UserCacheServiceImpl(redisTemplate, nearCache, properties,
+                        mock(ApplicationEventPublisher.class), meterRegistry);
+                CircuitBreakingUserCacheService resilientCache =
+                        new CircuitBreakingUserCacheService(redisCache, nearCache, properties, meterRegistry);
+
+                // The first request also pays for class loading and connection setup, so it is not timed
+                resilientCache.getUser(1L);
+
+                // Act: each request is a cache read followed by a database fallback on a miss
+                for (int i = 0; i < requests; i++) {
+                    long start = System.nanoTime();
+                    UserInfo cached = resilientCache.getUser(1L);
+                    Optional<UserInfo> user = cached != null ? Optional.of(cached) : Optional.ofNullable(database.get(1L));
+                    latencies[i] = System.nanoTime() - start;
+                    assertTrue(user.isPresent());
+                }
+
+                // Assert
+                Arrays.sort(latencies);
+                Duration p50 = Duration.ofNanos(latencies[requests / 2]);
+                Duration p99 = Duration.ofNanos(latencies[(int) (requests * 0.99)]);
+                Duration max = Duration.ofNanos(latencies[requests - 1]);
+                assertEquals(CircuitBreaker.State.OPEN, resilientCache.getCircuitBreaker().getState());
+                assertTrue(p50.compareTo(Duration.ofMillis(5)) < 0, "p50 " + p50);
+                assertTrue(p99.compareTo(commandTimeout.multipliedBy(4)) < 0, "p99 " + p99);
+                assertTrue(max.compareTo(redisDelay) < 0, "max " + max);
+            } finally {
+                factory.destroy();
+            }
+        }
+    }
+}
@@ -1,11 +1,12 @@
 package com.ideas2it.training.user.service.impl;
 
+import com.ideas2it.training.user.config.ApplicationProperties;
 import com.ideas2it.training.user.domain.Role;
 import com.ideas2it.training.user.domain.User;
 import com.ideas2it.training.user.repository.UserRepository;
+import com.ideas2it.training.user.service.caching.UserCacheService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,12 +23,25 @@ class CustomUserDetailServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    @Mock
+    private UserCacheService userCacheService;
+
+    @Mock
+    private KnownUsernameFilter knownUsernameFilter;
+
+    private ApplicationProperties applicationProperties;
+
     private CustomUserDetailService customUserDetailService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(knownUsernameFilter.mightExist(anyString())).thenReturn(true);
+        when(userCacheService.getUserId(anyString())).thenReturn(null);
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().getUser().getUsernameFilter().setFallbackLookupsPerSecond(0);
+        customUserDetailService = new CustomUserDetailService(userRepository, userCacheService, knownUsernameFilter,
+                applicationProperties);
     }
 
     @Test
@@ -64,6 +78,70 @@ class CustomUserDetailServiceTest {
                 customUserDetailService.loadUserByUsername("nonExistentUser"));
         assertEquals("User not found with username: nonExistentUser", exception.getMessage());
         verify(userRepository, times(1)).findByUsername("nonExistentUser");
+        verify(userCacheService, times(1)).saveMissingUsername("nonExistentUser");
+    }
+
+    @Test
+    void testLoadUserByUsername_FilterMissRejectedWithoutDatabase() {
+        // Arrange
+        when(knownUsernameFilter.mightExist("unknownUser")).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () ->
+                customUserDetailService.loadUserByUsername("unknownUser"));
+        verify(userCacheService, times(1)).getUserId("unknownUser");
+        verify(userCacheService, never()).saveMissingUsername(anyString());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testLoadUserByUsername_NewUserMissingFromFilterIsFoundThroughIndex() {
+        // Arrange
+        User newUser = new User();
+        newUser.setId(7L);
+        newUser.setUsername("newUser");
+        newUser.setPassword("encodedPassword");
+        when(knownUsernameFilter.mightExist("newUser")).thenReturn(false);
+        when(userCacheService.getUserId("newUser")).thenReturn(7L);
+        when(userRepository.findByUsername("newUser")).thenReturn(Optional.of(newUser));
+
+        // Act
+        UserDetails userDetails = customUserDetailService.loadUserByUsername("newUser");
+
+        // Assert
+        assertEquals("newUser", userDetails.getUsername());
+        verify(knownUsernameFilter, times(1)).add("newUser");
+    }
+
+    @Test
+    void testLoadUserByUsername_FilterMissDatabaseFallbackIsRateCapped() {
+        // Arrange
+        applicationProperties.getCache().getUser().getUsernameFilter().setFallbackLookupsPerSecond(2);
+        customUserDetailService = new CustomUserDetailService(userRepository, userCacheService, knownUsernameFilter,
+                applicationProperties);
+        when(knownUsernameFilter.mightExist(anyString())).thenReturn(false);
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.empty());
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            String username = "stuffed" + i;
+            assertThrows(UsernameNotFoundException.class, () -> customUserDetailService.loadUserByUsername(username));
+        }
+
+        // Assert
+        verify(userRepository, atMost(2)).findByUsername(anyString());
+        verify(userRepository, atLeastOnce()).findByUsername(anyString());
+    }
+
+    @Test
+    void testLoadUserByUsername_NegativeEntrySkipsDatabase() {
+        // Arrange
+        when(userCacheService.isMissingUsername("unknownUser")).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () ->
+                customUserDetailService.loadUserByUsername("unknownUser"));
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -81,4 +159,24 @@ class CustomUserDetailServiceTest {
                 customUserDetailService.loadUserByUsername(""));
         verifyNoInteractions(userRepository);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLoadUserByUsername_SkipsUsernameIndex() {
+        // Arrange
+        User mockUser = new User();
+        mockUser.setId(5L);
+        mockUser.setUsername("validUser");
+        mockUser.setPassword("encodedPassword");
+        mockUser.setRoles(Set.of());
+        when(userRepository.findByUsername("validUser")).thenReturn(Optional.of(mockUser));
+
+        // Act
+        UserDetails userDetails = customUserDetailService.loadUserByUsername("validUser");
+
+        // Assert
+        assertEquals("encodedPassword", userDetails.getPassword());
+        verify(userCacheService, never()).getUserId(anyString());
+        verify(userRepository, never()).findById(any());
+        verify(knownUsernameFilter, never()).add(anyString());
+    }
+}
@@ -0,0 +1,119 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class KnownUsernameFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private KnownUsernameFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getCache().getUser().getUsernameFilter().setExpectedInsertions(1_000);
+        filter = new KnownUsernameFilter(properties, userRepository, transactionManager, stringRedisTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        filter.shutdown();
+    }
+
+    @Test
+    void testMightExist_TrueUntilLoaded() {
+        // Act & Assert
+        assertTrue(filter.mightExist("anyone"));
+    }
+
+    @Test
+    void testRebuild_RejectsUnknownUsernames() {
+        // Arrange
+        when(userRepository.streamAllUsernames()).thenReturn(Stream.of("alice", "bob"));
+
+        // Act
+        filter.rebuild();
+
+        // Assert
+        assertTrue(filter.mightExist("alice"));
+        assertTrue(filter.mightExist("bob"));
+        assertFalse(filter.mightExist("mallory"));
+    }
+
+    @Test
+    void testAdd_UpdatesLocallyAndBroadcasts() {
+        // Arrange
+        when(userRepository.streamAllUsernames()).thenReturn(Stream.empty());
+        filter.rebuild();
+
+        // Act
+        filter.add("carol");
+
+        // Assert
+        assertTrue(filter.mightExist("carol"));
+        verify(stringRedisTemplate, times(1)).convertAndSend(eq("user-username-added"), endsWith(":carol"));
+    }
+
+    @Test
+    void testOnMessage_AddsUsernameFromOtherReplica() {
+        // Arrange
+        when(userRepository.streamAllUsernames()).thenReturn(Stream.empty());
+        filter.rebuild();
+        byte[] body = "other-node:dave".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        filter.onMessage(new DefaultMessage("user-username-added".getBytes(StandardCharsets.UTF_8), body), null);
+
+        // Assert
+        assertTrue(filter.mightExist("dave"));
+    }
+
+    @Test
+    void testAddAll_PublishesOneMessage() {
+        // Act
+        filter.addAll(List.of("erin", "frank"));
+
+        // Assert
+        verify(stringRedisTemplate, times(1)).convertAndSend(anyString(),
+                argThat((String body) -> body.endsWith(":erin\nfrank")));
+    }
+
+    @Test
+    void testOnMessage_AddsEveryUsernameOfBatch() {
+        // Arrange
+        when(userRepository.streamAllUsernames()).thenReturn(Stream.empty());
+        filter.rebuild();
+        byte[] body = "other-node:erin\nfrank".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        filter.onMessage(new DefaultMessage("user-username-added".getBytes(StandardCharsets.UTF_8), body), null);
+
+        // Assert
+        assertTrue(filter.mightExist("erin"));
+        assertTrue(filter.mightExist("frank"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PasswordHasherTest {
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private ApplicationProperties applicationProperties;
+
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getBulk().getHashing().setThreads(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void testEncodeAll_HashesOnDedicatedPoolInOrder() {
+        // Arrange
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return "hashed-" + invocation.getArgument(0);
+        });
+        passwordHasher = new PasswordHasher(passwordEncoder, applicationProperties);
+        List<String> passwords = IntStream.range(0, 20).mapToObj(i -> "password" + i).toList();
+
+        // Act
+        List<String> hashes = passwordHasher.encodeAll(passwords);
+
+        // Assert
+        assertEquals(passwords.stream().map(password -> "hashed-" + password).toList(), hashes);
+        assertEquals(Set.of("password-hash"), threads);
+    }
+
+    @Test
+    void testEncodeAll_FullQueueHashesOnCaller() {
+        // Arrange
+        applicationProperties.getBulk().getHashing().setThreads(1);
+        applicationProperties.getBulk().getHashing().setQueueCapacity(1);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            Thread.sleep(20);
+            return "hashed";
+        });
+        passwordHasher = new PasswordHasher(passwordEncoder, applicationProperties);
+
+        // Act
+        List<String> hashes = passwordHasher.encodeAll(List.of("a", "b", "c", "d"));
+
+        // Assert
+        assertEquals(4, hashes.size());
+        assertTrue(threads.contains(Thread.currentThread().getName()));
+    }
+
+    @Test
+    void testEncodeAll_EncoderFailureIsRethrown() {
+        // Arrange
+        when(passwordEncoder.encode(null)).thenThrow(new IllegalArgumentException("rawPassword cannot be null"));
+        passwordHasher = new PasswordHasher(passwordEncoder, applicationProperties);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> passwordHasher.encodeAll(Arrays.asList("a", null)));
+    }
+}
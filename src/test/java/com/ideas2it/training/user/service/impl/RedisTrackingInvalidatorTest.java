@@ -0,0 +1,107 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.service.caching.UserNearCache;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.protocol.CommandArgs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RedisTrackingInvalidatorTest {
+
+    @Mock
+    private UserNearCache nearCache;
+
+    private ApplicationProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new ApplicationProperties();
+        properties.getCache().getUser().getNearCache().setInvalidation(ApplicationProperties.Cache.Invalidation.TRACKING);
+    }
+
+    @Test
+    void testInvalidate_EvictsUserKeysOnly() {
+        // Arrange
+        RedisTrackingInvalidator invalidator = new RedisTrackingInvalidator(properties, nearCache, mock(RedisConnectionFactory.class));
+
+        // Act
+        invalidator.invalidate(List.of("user:5", "user:h:6", "user:warm-up:ids", "user:"));
+
+        // Assert
+        verify(nearCache, times(1)).invalidate(5L);
+        verify(nearCache, times(1)).invalidate(6L);
+        verifyNoMoreInteractions(nearCache);
+    }
+
+    @Test
+    void testInvalidate_FlushInvalidatesEverything() {
+        // Arrange
+        RedisTrackingInvalidator invalidator = new RedisTrackingInvalidator(properties, nearCache, mock(RedisConnectionFactory.class));
+
+        // Act
+        invalidator.invalidate(null);
+
+        // Assert
+        verify(nearCache, times(1)).invalidateAll();
+    }
+
+    @Test
+    void testTrackingArgs_BroadcastsWithNoLoop() {
+        // Arrange
+        CommandArgs<String, String> args = new CommandArgs<>(StringCodec.UTF8);
+
+        // Act
+        RedisTrackingInvalidator.trackingArgs().build(args);
+
+        // Assert
+        String command = args.toCommandString();
+        assertTrue(command.contains("BCAST"));
+        assertTrue(command.contains("NOLOOP"));
+    }
+
+    @Test
+    void testStart_FallsBackWhenServerLacksResp3() throws Exception {
+        // Arrange
+        properties.getCache().setConnectTimeout(Duration.ofMillis(500));
+        try (SlowRedisServer resp2Only = new SlowRedisServer(Duration.ZERO)) {
+            LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                    new RedisStandaloneConfiguration("localhost", resp2Only.getPort()));
+            RedisTrackingInvalidator invalidator = new RedisTrackingInvalidator(properties, nearCache, factory);
+
+            // Act
+            invalidator.start();
+
+            // Assert
+            assertFalse(invalidator.isActive());
+            invalidator.shutdown();
+        }
+    }
+
+    @Test
+    void testStart_PubSubModeOpensNoConnection() {
+        // Arrange
+        properties.getCache().getUser().getNearCache().setInvalidation(ApplicationProperties.Cache.Invalidation.PUBSUB);
+        RedisConnectionFactory factory = mock(RedisConnectionFactory.class);
+        RedisTrackingInvalidator invalidator = new RedisTrackingInvalidator(properties, nearCache, factory);
+
+        // Act
+        invalidator.start();
+
+        // Assert
+        assertFalse(invalidator.isActive());
+        verifyNoInteractions(factory);
+    }
+}
@@ -0,0 +1,120 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.domain.Role;
+import com.ideas2it.training.user.enums.RoleType;
+import com.ideas2it.training.user.repository.RoleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RoleRegistryTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private RoleRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(roleRepository.findAll()).thenReturn(List.of(role(1L, "ADMIN"), role(2L, "USER"), role(3L, "LEGACY")));
+        registry = new RoleRegistry(roleRepository, stringRedisTemplate, new ApplicationProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testResolve_LoadedOnceThenServedFromMemory() {
+        // Arrange
+        registry.start();
+
+        // Act
+        Role admin = registry.resolve(RoleType.ADMIN);
+        Role user = registry.resolve(RoleType.USER);
+        registry.resolve(RoleType.ADMIN);
+
+        // Assert
+        assertEquals(1L, admin.getId());
+        assertEquals(2L, user.getId());
+        verify(roleRepository, times(1)).findAll();
+        verify(roleRepository, never()).findByName(anyString());
+    }
+
+    @Test
+    void testResolve_UnknownRole() {
+        // Arrange
+        when(roleRepository.findByName("MAINTAINER")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> registry.resolve(RoleType.MAINTAINER));
+    }
+
+    @Test
+    void testRefresh_ReloadsAndPublishesAfterCommit() {
+        // Arrange
+        registry.start();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        registry.refresh();
+
+        // Assert
+        verify(roleRepository, times(1)).findAll();
+        verifyNoInteractions(stringRedisTemplate);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(roleRepository, times(2)).findAll();
+        verify(stringRedisTemplate, times(1)).convertAndSend(eq("role-registry-refresh"), anyString());
+    }
+
+    @Test
+    void testOnMessage_ReloadsOnlyForOtherReplicas() {
+        // Arrange
+        registry.refresh();
+        String ownNodeId = captureNodeId();
+
+        // Act
+        registry.onMessage(new DefaultMessage("role-registry-refresh".getBytes(StandardCharsets.UTF_8),
+                ownNodeId.getBytes(StandardCharsets.UTF_8)), null);
+        registry.onMessage(new DefaultMessage("role-registry-refresh".getBytes(StandardCharsets.UTF_8),
+                "other-node".getBytes(StandardCharsets.UTF_8)), null);
+
+        // Assert
+        verify(roleRepository, times(2)).findAll();
+    }
+
+    private String captureNodeId() {
+        ArgumentCaptor<String> nodeId = ArgumentCaptor.forClass(String.class);
+        verify(stringRedisTemplate).convertAndSend(eq("role-registry-refresh"), nodeId.capture());
+        return nodeId.getValue();
+    }
+
+    private static Role role(Long id, String name) {
+        Role role = new Role();
+        role.setId(id);
+        role.setName(name);
+        return role;
+    }
+}
@@ -1,24 +1,28 @@
 package com.ideas2it.training.user.service.impl;
 
 import com.ideas2it.training.user.domain.Role;
+import com.ideas2it.training.user.dto.CursorPage;
 import com.ideas2it.training.user.dto.PagedResponse;
 import com.ideas2it.training.user.dto.RoleCreateDto;
 import com.ideas2it.training.user.dto.RoleInfo;
 import com.ideas2it.training.user.dto.RoleUpdateDto;
 import com.ideas2it.training.user.enums.RoleType;
 import com.ideas2it.training.user.repository.RoleRepository;
+import com.ideas2it.training.user.service.caching.PagedListingCache;
 import com.ideas2it.training.user.service.mapper.RoleMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,12 +35,20 @@ class RoleServiceImplTest {
     @Mock
     private RoleMapper roleMapper;
 
+    @Mock
+    private PagedListingCache pagedListingCache;
+
+    @Mock
+    private RoleRegistry roleRegistry;
+
     @InjectMocks
     private RoleServiceImpl roleService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(pagedListingCache.getPage(anyString(), anyInt(), anyInt(), any(), any(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(4)).get());
     }
 
     @Test
@@ -196,6 +208,25 @@ class RoleServiceImplTest {
         verify(roleMapper, times(roles.size())).toInfo(any(Role.class));
     }
 
+    @Test
+    void testGetPageAfter() {
+        // Arrange
+        Role first = new Role();
+        first.setId(1L);
+        Role second = new Role();
+        second.setId(2L);
+        when(roleRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2))).thenReturn(List.of(first, second));
+        when(roleMapper.toInfo(first)).thenReturn(RoleInfo.builder().id(1L).build());
+
+        // Act
+        CursorPage<RoleInfo> result = roleService.getPageAfter(null, 1);
+
+        // Assert
+        assertEquals(1, result.getItems().size());
+        assertEquals(1L, CursorPage.decodeCursor(result.getNextCursor()));
+        verify(roleMapper, never()).toInfo(second);
+    }
+
     @Test
     void testDelete_ValidId() {
         // Arrange
@@ -208,5 +239,7 @@ class RoleServiceImplTest {
 
         // Assert
         verify(roleRepository, times(1)).deleteById(id);
+        verify(pagedListingCache, times(1)).invalidate("role");
+        verify(roleRegistry, times(1)).refresh();
     }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.ideas2it.training.user.service.impl;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Minimal local stand-in for a degraded Redis server.
+ * <p>
+ * Speaks just enough RESP2 for a Lettuce client to connect: the connection handshake is
+ * answered immediately, every data command is answered with a nil reply after a fixed delay.
+ * </p>
+ */
+class SlowRedisServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Duration delay;
+    private final Thread acceptor;
+
+    SlowRedisServer(Duration delay) throws IOException {
+        this.delay = delay;
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.acceptor = new Thread(this::acceptLoop, "slow-redis-acceptor");
+        this.acceptor.setDaemon(true);
+        this.acceptor.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread handler = new Thread(() -> serve(socket), "slow-redis-connection");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket; InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = socket.getOutputStream()) {
+            while (true) {
+                String command = readCommand(in);
+                if (command == null) {
+                    return;
+                }
+                String reply = switch (command) {
+                    case "HELLO" -> "-ERR unknown command 'HELLO'\r\n";
+                    case "PING" -> "+PONG\r\n";
+                    case "CLIENT", "SELECT", "AUTH" -> "+OK\r\n";
+                    default -> {
+                        Thread.sleep(delay.toMillis());
+                        yield "$-1\r\n";
+                    }
+                };
+                out.write(reply.getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            // connection closed by the client or the server
+        }
+    }
+
+    /**
+     * Reads one RESP array command and returns its name, or null at end of stream.
+     */
+    private static String readCommand(InputStream in) throws IOException {
+        String header = readLine(in);
+        if (header == null) {
+            return null;
+        }
+        int arguments = Integer.parseInt(header.substring(1));
+        String name = null;
+        for (int i = 0; i < arguments; i++) {
+            int length = Integer.parseInt(readLine(in).substring(1));
+            byte[] value = in.readNBytes(length + 2);
+            if (i == 0) {
+                name = new String(value, 0, length, StandardCharsets.UTF_8).toUpperCase(Locale.ROOT);
+            }
+        }
+        return name;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\r') {
+                in.read();
+                return line.toString();
+            }
+            line.append((char) b);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,256 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.domain.Role;
+import com.ideas2it.training.user.domain.User;
+import com.ideas2it.training.user.dto.BulkUserResult;
+import com.ideas2it.training.user.dto.UserCreateDto;
+import com.ideas2it.training.user.dto.UserInfo;
+import com.ideas2it.training.user.enums.BulkStatus;
+import com.ideas2it.training.user.enums.RoleType;
+import com.ideas2it.training.user.repository.UserRepository;
+import com.ideas2it.training.user.service.caching.ApproximateCounter;
+import com.ideas2it.training.user.service.caching.PagedListingCache;
+import com.ideas2it.training.user.service.caching.UserCacheService;
+import com.ideas2it.training.user.service.caching.UserCacheWriter;
+import com.ideas2it.training.user.service.caching.UserNearCache;
+import com.ideas2it.training.user.service.mapper.UserMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserBulkServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoleRegistry roleRegistry;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private UserCacheService userCacheService;
+
+    @Mock
+    private KnownUsernameFilter knownUsernameFilter;
+
+    @Mock
+    private PagedListingCache pagedListingCache;
+
+    @Mock
+    private ApproximateCounter approximateCounter;
+
+    private UserCacheWriter userCacheWriter;
+
+    private PasswordHasher passwordHasher;
+
+    private ApplicationProperties applicationProperties;
+
+    private UserBulkServiceImpl userBulkService;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getBulk().setChunkSize(2);
+        userCacheWriter = new UserCacheWriter(applicationProperties, userCacheService, mock(UserNearCache.class),
+                new SimpleMeterRegistry());
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hashed-" + invocation.getArgument(0));
+        when(userMapper.toEntity(any(UserCreateDto.class))).thenAnswer(invocation -> {
+            UserCreateDto dto = invocation.getArgument(0);
+            User user = new User();
+            user.setUsername(dto.getUsername());
+            user.setPassword(dto.getPassword());
+            return user;
+        });
+        when(userMapper.toInfo(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            return UserInfo.builder().id(user.getId()).username(user.getUsername()).build();
+        });
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(ids.incrementAndGet()));
+            return users;
+        });
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(ids.incrementAndGet());
+            return user;
+        });
+        passwordHasher = new PasswordHasher(passwordEncoder, applicationProperties);
+        userBulkService = new UserBulkServiceImpl(userRepository, roleRegistry, userMapper, passwordHasher,
+                Validation.buildDefaultValidatorFactory().getValidator(), transactionManager, userCacheService,
+                userCacheWriter, knownUsernameFilter, pagedListingCache, approximateCounter, applicationProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userCacheWriter.shutdown();
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void testCreateAll_ChunkedBatches() {
+        // Arrange
+        List<UserCreateDto> dtos = IntStream.range(0, 5).mapToObj(i -> user("user_" + i)).toList();
+
+        // Act
+        List<BulkUserResult> results = userBulkService.createAll(dtos);
+
+        // Assert
+        assertEquals(5, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == BulkStatus.CREATED));
+        assertEquals("user_3", results.get(3).getUsername());
+        assertNotNull(results.get(3).getId());
+        verify(userRepository, times(3)).saveAll(anyList());
+        verify(userRepository, times(3)).findExistingUsernames(anyCollection());
+        verify(transactionManager, times(3)).commit(any());
+        verify(passwordEncoder).encode("secret_user_4");
+        verify(pagedListingCache).invalidate("user");
+        verify(approximateCounter).add("user", 5);
+        verify(userCacheService, timeout(1000).times(3)).saveUsers(anyCollection());
+        verify(knownUsernameFilter, timeout(1000)).addAll(List.of("user_4"));
+    }
+
+    @Test
+    void testCreateAll_InvalidAndDuplicateRowsFail() {
+        // Arrange
+        List<UserCreateDto> dtos = List.of(
+                user("john_doe"),
+                UserCreateDto.builder().password("secret").build(),
+                UserCreateDto.builder().username("no_password").build(),
+                user("john_doe"));
+
+        // Act
+        List<BulkUserResult> results = userBulkService.createAll(dtos);
+
+        // Assert
+        assertEquals(BulkStatus.CREATED, results.get(0).getStatus());
+        assertEquals(BulkStatus.FAILED, results.get(1).getStatus());
+        assertTrue(results.get(1).getError().startsWith("username"));
+        assertEquals(BulkStatus.FAILED, results.get(2).getStatus());
+        assertEquals("password must not be empty", results.get(2).getError());
+        assertEquals(BulkStatus.FAILED, results.get(3).getStatus());
+        assertEquals("Duplicate username in request", results.get(3).getError());
+        verify(userRepository).saveAll(argThat(users -> ((Collection<?>) users).size() == 1));
+        verify(approximateCounter).add("user", 1);
+    }
+
+    @Test
+    void testCreateAll_ExistingUsernameFails() {
+        // Arrange
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of("john_doe"));
+
+        // Act
+        List<BulkUserResult> results = userBulkService.createAll(List.of(user("john_doe"), user("jane_doe")));
+
+        // Assert
+        assertEquals(BulkStatus.FAILED, results.get(0).getStatus());
+        assertEquals("Username already exists", results.get(0).getError());
+        assertEquals(BulkStatus.CREATED, results.get(1).getStatus());
+        verify(passwordEncoder, never()).encode("secret_john_doe");
+    }
+
+    @Test
+    void testCreateAll_RolesResolvedOnce() {
+        // Arrange
+        Role admin = new Role();
+        when(roleRegistry.resolve(RoleType.ADMIN)).thenReturn(admin);
+        List<UserCreateDto> dtos = IntStream.range(0, 4)
+                .mapToObj(i -> UserCreateDto.builder().username("user_" + i).password("secret")
+                        .roles(Set.of(RoleType.ADMIN)).build())
+                .toList();
+        List<User> saved = new ArrayList<>();
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            saved.addAll(users);
+            return users;
+        });
+
+        // Act
+        userBulkService.createAll(dtos);
+
+        // Assert
+        verify(roleRegistry, times(1)).resolve(RoleType.ADMIN);
+        assertEquals(4, saved.size());
+        assertTrue(saved.stream().allMatch(user -> user.getRoles().equals(Set.of(admin))));
+    }
+
+    @Test
+    void testCreateAll_UnknownRoleFails() {
+        // Arrange
+        when(roleRegistry.resolve(RoleType.ADMIN)).thenThrow(new IllegalArgumentException("Invalid role: ADMIN"));
+        UserCreateDto admin = UserCreateDto.builder().username("admin").password("secret")
+                .roles(Set.of(RoleType.ADMIN)).build();
+
+        // Act
+        List<BulkUserResult> results = userBulkService.createAll(List.of(admin, user("john_doe")));
+
+        // Assert
+        assertEquals(BulkStatus.FAILED, results.get(0).getStatus());
+        assertEquals("Invalid role: ADMIN", results.get(0).getError());
+        assertEquals(BulkStatus.CREATED, results.get(1).getStatus());
+    }
+
+    @Test
+    void testCreateAll_FailedChunkRetriedRowByRow() {
+        // Arrange
+        when(userRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(userRepository.save(argThat(user -> user != null && "jane_doe".equals(user.getUsername()))))
+                .thenThrow(new DataIntegrityViolationException("duplicate key jane_doe"));
+
+        // Act
+        List<BulkUserResult> results = userBulkService.createAll(List.of(user("john_doe"), user("jane_doe")));
+
+        // Assert
+        assertEquals(BulkStatus.CREATED, results.get(0).getStatus());
+        assertEquals(BulkStatus.FAILED, results.get(1).getStatus());
+        assertEquals("duplicate key jane_doe", results.get(1).getError());
+        verify(transactionManager, atLeastOnce()).rollback(any());
+        verify(approximateCounter).add("user", 1);
+    }
+
+    @Test
+    void testCreateAll_TooManyRows() {
+        // Arrange
+        applicationProperties.getBulk().setMaxRows(1);
+        List<UserCreateDto> dtos = List.of(user("john_doe"), user("jane_doe"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> userBulkService.createAll(dtos));
+        assertThrows(IllegalArgumentException.class, () -> userBulkService.createAll(List.of()));
+        verifyNoInteractions(userRepository);
+    }
+
+    private static UserCreateDto user(String username) {
+        return UserCreateDto.builder().username(username).password("secret_" + username).build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.dto.UserInfo;
+import com.ideas2it.training.user.repository.UserRepository;
+import com.ideas2it.training.user.service.caching.UserCacheRefreshEvent;
+import com.ideas2it.training.user.service.caching.UserCacheService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+class UserCacheRefresherTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserCacheService userCacheService;
+
+    private UserCacheRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        refresher = new UserCacheRefresher(userRepository, userCacheService, new ApplicationProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        refresher.shutdown();
+    }
+
+    @Test
+    void testOnRefresh_ReloadsAndSaves() {
+        // Arrange
+        UserInfo userInfo = UserInfo.builder().id(1L).build();
+        when(userRepository.findInfoById(1L)).thenReturn(Optional.of(userInfo));
+
+        // Act
+        refresher.onRefresh(new UserCacheRefreshEvent(1L));
+
+        // Assert
+        verify(userCacheService, timeout(1000)).populateUser(userInfo);
+    }
+
+    @Test
+    void testOnRefresh_DeletedUserIsEvicted() {
+        // Arrange
+        when(userRepository.findInfoById(1L)).thenReturn(Optional.empty());
+
+        // Act
+        refresher.onRefresh(new UserCacheRefreshEvent(1L));
+
+        // Assert
+        verify(userCacheService, timeout(1000)).deleteUser(1L);
+    }
+
+    @Test
+    void testOnRefresh_DuplicateRequestsWhileInFlightAreDropped() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findInfoById(1L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+
+        // Act
+        refresher.onRefresh(new UserCacheRefreshEvent(1L));
+        refresher.onRefresh(new UserCacheRefreshEvent(1L));
+        refresher.onRefresh(new UserCacheRefreshEvent(1L));
+        release.countDown();
+
+        // Assert
+        verify(userCacheService, timeout(1000)).deleteUser(1L);
+        verify(userRepository, times(1)).findInfoById(1L);
+    }
+}
@@ -1,15 +1,33 @@
 package com.ideas2it.training.user.service.impl;
 
+import com.ideas2it.training.user.config.ApplicationProperties;
 import com.ideas2it.training.user.dto.UserInfo;
+import com.ideas2it.training.user.service.caching.UserCacheRefreshEvent;
+import com.ideas2it.training.user.service.caching.UserNearCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,13 +40,32 @@ class UserCacheServiceImplTest {
     @Mock
     private ValueOperations<String, Object> valueOperations;
 
-    @InjectMocks
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ApplicationProperties properties;
+
     private UserCacheServiceImpl userCacheService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        properties = new ApplicationProperties();
+        properties.getCache().getUser().setTimeToLiveJitter(Duration.ZERO);
+        properties.getCache().getUser().getEarlyRefresh().setEnabled(false);
+        userCacheService = newUserCacheService();
+    }
+
+    private UserCacheServiceImpl newUserCacheService() {
+        meterRegistry = new SimpleMeterRegistry();
+        UserNearCache nearCache = new UserNearCache(properties, stringRedisTemplate, meterRegistry);
+        return new UserCacheServiceImpl(redisTemplate, nearCache, properties, eventPublisher, meterRegistry);
     }
 
     @Test
@@ -108,4 +145,477 @@ class UserCacheServiceImplTest {
         assertThrows(IllegalArgumentException.class, () -> userCacheService.deleteUser(null));
         verifyNoInteractions(redisTemplate);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSaveUser_PublishesInvalidation() {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(1L).build();
+
+        // Act
+        userCacheService.saveUser(user);
+
+        // Assert
+        verify(stringRedisTemplate, times(1)).convertAndSend(eq("user-cache-invalidation"), endsWith(":1"));
+    }
+
+    @Test
+    void testGetUser_ServedFromNearCacheAfterRedisHit() {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(1L).build();
+        when(valueOperations.get("user:1")).thenReturn(user);
+
+        // Act
+        UserInfo first = userCacheService.getUser(1L);
+        UserInfo second = userCacheService.getUser(1L);
+
+        // Assert
+        assertSame(first, second);
+        verify(valueOperations, times(1)).get("user:1");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "user-l2").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "user-l1").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void testGetUser_RedisMissIsCounted() {
+        // Act
+        userCacheService.getUser(5L);
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "user-l2").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void testDeleteUser_EvictsNearCache() {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(1L).build();
+        userCacheService.saveUser(user);
+
+        // Act
+        userCacheService.deleteUser(1L);
+        UserInfo result = userCacheService.getUser(1L);
+
+        // Assert
+        assertNull(result);
+        verify(valueOperations, times(1)).get("user:1");
+    }
+
+    @Test
+    void testGetUsers_SingleMultiGetForMisses() {
+        // Arrange
+        UserInfo local = UserInfo.builder().id(1L).build();
+        UserInfo remote = UserInfo.builder().id(2L).build();
+        userCacheService.saveUsers(List.of(local));
+        when(valueOperations.multiGet(List.of("user:2", "user:3"))).thenReturn(Arrays.asList(remote, null));
+
+        // Act
+        Map<Long, UserInfo> result = userCacheService.getUsers(List.of(1L, 2L, 3L));
+
+        // Assert
+        assertEquals(Map.of(1L, local, 2L, remote), result);
+        verify(valueOperations, times(1)).multiGet(anyCollection());
+        verify(valueOperations, never()).get(any());
+    }
+
+    @Test
+    void testGetUsers_NullIds() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> userCacheService.getUsers(null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSaveUsers_Pipelined() {
+        // Arrange
+        UserInfo first = UserInfo.builder().id(1L).build();
+        UserInfo second = UserInfo.builder().id(2L).build();
+        RedisOperations<String, Object> operations = mock(RedisOperations.class);
+        when(operations.opsForValue()).thenReturn(valueOperations);
+        ArgumentCaptor<SessionCallback<Object>> callback = ArgumentCaptor.forClass(SessionCallback.class);
+
+        // Act
+        userCacheService.saveUsers(List.of(first, second));
+
+        // Assert
+        verify(redisTemplate, times(1)).executePipelined(callback.capture());
+        callback.getValue().execute(operations);
+        verify(valueOperations).set("user:1", first, Duration.ofMinutes(1));
+        verify(valueOperations).set("user:2", second, Duration.ofMinutes(1));
+        verify(stringRedisTemplate, times(1)).convertAndSend(eq("user-cache-invalidation"), endsWith(":1,2"));
+    }
+
+    @Test
+    void testPopulateUsers_DoesNotNotifyReplicas() {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(1L).build();
+
+        // Act
+        userCacheService.populateUsers(List.of(user));
+        userCacheService.populateUser(user);
+
+        // Assert
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        verify(valueOperations, times(1)).set(eq("user:1"), eq(user), any(Duration.class));
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+        assertEquals(Map.of(1L, user), userCacheService.getUsers(List.of(1L)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDeleteAll_ScansUserKeySpace() {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(1L).build();
+        userCacheService.populateUser(user);
+        Cursor<String> users = mock(Cursor.class);
+        when(users.hasNext()).thenReturn(true, true, false);
+        when(users.next()).thenReturn("user:1", "user:h:2");
+        Cursor<String> empty = mock(Cursor.class);
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(users, empty, empty);
+
+        // Act
+        userCacheService.deleteAll();
+
+        // Assert
+        verify(redisTemplate, times(3)).scan(any(ScanOptions.class));
+        verify(redisTemplate, times(1)).delete(List.of("user:1", "user:h:2"));
+        verify(users, times(1)).close();
+        when(valueOperations.get("user:1")).thenReturn(null);
+        assertNull(userCacheService.getUser(1L));
+    }
+
+    @Test
+    void testDeleteUsers_SingleDelete() {
+        // Act
+        userCacheService.deleteUsers(List.of(1L, 2L));
+
+        // Assert
+        verify(redisTemplate, times(1)).delete(List.of("user:1", "user:2"));
+        verify(stringRedisTemplate, times(1)).convertAndSend(eq("user-cache-invalidation"), endsWith(":1,2"));
+    }
+
+    @Test
+    void testDeleteMissingUsernames_SingleDelete() {
+        // Act
+        userCacheService.deleteMissingUsernames(List.of("john_doe", "jane_doe"));
+
+        // Assert
+        verify(redisTemplate, times(1)).delete(List.of("username:missing:john_doe", "username:missing:jane_doe"));
+    }
+
+    @Test
+    void testSaveUser_TimeToLiveIsJittered() {
+        // Arrange
+        properties.getCache().getUser().setTimeToLiveJitter(Duration.ofSeconds(10));
+        userCacheService = newUserCacheService();
+        UserInfo user = UserInfo.builder().id(1L).build();
+        ArgumentCaptor<Duration> ttl = ArgumentCaptor.forClass(Duration.class);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            userCacheService.saveUser(user);
+        }
+
+        // Assert
+        verify(valueOperations, times(20)).set(eq("user:1"), eq(user), ttl.capture());
+        assertTrue(ttl.getAllValues().stream().allMatch(d -> d.compareTo(Duration.ofMinutes(1)) >= 0
+                && d.compareTo(Duration.ofSeconds(70)) <= 0));
+        assertTrue(ttl.getAllValues().stream().distinct().count() > 1);
+    }
+
+    @Test
+    void testGetUser_NearExpiryRequestsRefresh() {
+        // Arrange
+        properties.getCache().getUser().getEarlyRefresh().setEnabled(true);
+        userCacheService = newUserCacheService();
+        UserInfo user = UserInfo.builder().id(1L).build();
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(user, 0L));
+
+        // Act
+        UserInfo result = userCacheService.getUser(1L);
+
+        // Assert
+        assertSame(user, result);
+        verify(eventPublisher, atLeastOnce()).publishEvent(new UserCacheRefreshEvent(1L));
+    }
+
+    @Test
+    void testGetUser_FarFromExpiryDoesNotRefresh() {
+        // Arrange
+        properties.getCache().getUser().getEarlyRefresh().setEnabled(true);
+        userCacheService = newUserCacheService();
+        UserInfo user = UserInfo.builder().id(1L).build();
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(user, 3_600_000L));
+
+        // Act
+        userCacheService.getUser(1L);
+        userCacheService.getUser(1L);
+
+        // Assert
+        verify(eventPublisher, never()).publishEvent(any());
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    void testGetUser_EarlyRefreshMissIsCounted() {
+        // Arrange
+        properties.getCache().getUser().getEarlyRefresh().setEnabled(true);
+        userCacheService = newUserCacheService();
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(null, -2L));
+
+        // Act
+        UserInfo result = userCacheService.getUser(1L);
+
+        // Assert
+        assertNull(result);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "user-l2").tag("result", "miss").counter().count());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testSaveMissingUser_DoesNotOverwriteRealEntry() {
+        // Act
+        userCacheService.saveMissingUser(1L);
+
+        // Assert
+        verify(valueOperations, times(1)).setIfAbsent(eq("user:1"), any(), eq(Duration.ofSeconds(30)));
+        verify(valueOperations, never()).set(anyString(), any(), any(Duration.class));
+    }
+
+    @Test
+    void testIsMissingUser_TombstoneServedFromNearCache() {
+        // Arrange
+        userCacheService.saveMissingUser(1L);
+
+        // Act
+        boolean missing = userCacheService.isMissingUser(1L);
+
+        // Assert
+        assertTrue(missing);
+        assertNull(userCacheService.getUser(1L));
+        verify(valueOperations, never()).get(anyString());
+    }
+
+    @Test
+    void testGetUser_RedisTombstoneIsAMissAndCachedLocally() {
+        // Arrange
+        ArgumentCaptor<Object> tombstone = ArgumentCaptor.forClass(Object.class);
+        userCacheService.saveMissingUser(1L);
+        verify(valueOperations).setIfAbsent(eq("user:1"), tombstone.capture(), any(Duration.class));
+        userCacheService = newUserCacheService();
+        when(valueOperations.get("user:1")).thenReturn(tombstone.getValue());
+
+        // Act
+        UserNearCache.Entry entry = userCacheService.getUserEntry(1L);
+
+        // Assert
+        assertNotNull(entry);
+        assertNull(entry.user());
+        assertNull(userCacheService.getUser(1L));
+        assertTrue(userCacheService.isMissingUser(1L));
+        verify(valueOperations, times(1)).get("user:1");
+    }
+
+    @Test
+    void testGetUserEntry_MissIsNull() {
+        // Act
+        UserNearCache.Entry entry = userCacheService.getUserEntry(1L);
+
+        // Assert
+        assertNull(entry);
+        verify(valueOperations, times(1)).get("user:1");
+    }
+
+    @Test
+    void testSaveUser_ReplacesLocalTombstone() {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(1L).build();
+        userCacheService.saveMissingUser(1L);
+
+        // Act
+        userCacheService.saveUser(user);
+
+        // Assert
+        assertFalse(userCacheService.isMissingUser(1L));
+        assertSame(user, userCacheService.getUser(1L));
+    }
+
+    @Test
+    void testMissingUsername_RoundTrip() {
+        // Arrange
+        ArgumentCaptor<Object> tombstone = ArgumentCaptor.forClass(Object.class);
+        userCacheService.saveMissingUsername("ghost");
+        verify(valueOperations).setIfAbsent(eq("username:missing:ghost"), tombstone.capture(), eq(Duration.ofSeconds(30)));
+        when(valueOperations.get("username:missing:ghost")).thenReturn(tombstone.getValue());
+
+        // Act & Assert
+        assertTrue(userCacheService.isMissingUsername("ghost"));
+        assertFalse(userCacheService.isMissingUsername("someone"));
+        userCacheService.deleteMissingUsername("ghost");
+        verify(redisTemplate, times(1)).delete("username:missing:ghost");
+    }
+
+    @Test
+    void testSaveUser_HashStorageWritesAllFields() {
+        // Arrange
+        properties.getCache().getUser().setStorage(ApplicationProperties.Cache.Storage.HASH);
+        userCacheService = newUserCacheService();
+        UserInfo user = UserInfo.builder().id(1L).username("john_doe").build();
+        when(redisTemplate.execute(any(RedisScript.class), any(), any(), anyList(), any(Object[].class))).thenReturn(1L);
+
+        // Act
+        userCacheService.saveUser(user);
+
+        // Assert
+        List<Object> args = scriptArgs();
+        assertEquals(List.of("0", "60000", "2"), args.subList(0, 3));
+        assertTrue(args.containsAll(List.of("id", "1", "username", "john_doe", "email", "roles")));
+        verifyNoInteractions(valueOperations);
+    }
+
+    @Test
+    void testSaveUserFields_HashStorageWritesOnlyChangedFields() {
+        // Arrange
+        properties.getCache().getUser().setStorage(ApplicationProperties.Cache.Storage.HASH);
+        userCacheService = newUserCacheService();
+        UserInfo user = UserInfo.builder().id(1L).username("john_doe").email("john@example.com").build();
+        when(redisTemplate.execute(any(RedisScript.class), any(), any(), anyList(), any(Object[].class))).thenReturn(1L);
+
+        // Act
+        userCacheService.saveUserFields(user, List.of("email", "mobile"));
+
+        // Assert
+        assertEquals(List.of("1", "60000", "1", "email", "john@example.com", "mobile"), scriptArgs());
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), any(), any(),
+                eq(List.of("user:h:1", "user:1")), any(Object[].class));
+    }
+
+    @Test
+    void testSaveUserFields_HashStorageRewritesExpiredHash() {
+        // Arrange
+        properties.getCache().getUser().setStorage(ApplicationProperties.Cache.Storage.HASH);
+        userCacheService = newUserCacheService();
+        UserInfo user = UserInfo.builder().id(1L).email("john@example.com").build();
+        when(redisTemplate.execute(any(RedisScript.class), any(), any(), anyList(), any(Object[].class))).thenReturn(0L, 1L);
+
+        // Act
+        userCacheService.saveUserFields(user, List.of("email"));
+
+        // Assert
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), any(), any(), anyList(), any(Object[].class));
+        assertEquals("0", scriptArgs().get(0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetUserFields_HashStorageReadsRequestedFields() {
+        // Arrange
+        properties.getCache().getUser().setStorage(ApplicationProperties.Cache.Storage.HASH);
+        userCacheService = newUserCacheService();
+        HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.multiGet("user:h:1", List.of("id", "email"))).thenReturn(Arrays.asList("1", "john@example.com"));
+
+        // Act
+        UserInfo result = userCacheService.getUserFields(1L, List.of("email"));
+
+        // Assert
+        assertEquals(1L, result.getId());
+        assertEquals("john@example.com", result.getEmail());
+        assertNull(result.getUsername());
+        verify(hashOperations, never()).entries(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetUser_HashStorageReadsHashAndTombstoneInOnePipeline() {
+        // Arrange
+        properties.getCache().getUser().setStorage(ApplicationProperties.Cache.Storage.HASH);
+        userCacheService = newUserCacheService();
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(Arrays.asList(Map.of("id", "1", "username", "john_doe", "version", "3"), null));
+        RedisOperations<String, Object> operations = mock(RedisOperations.class);
+        HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+        when(operations.opsForHash()).thenReturn(hashOperations);
+        when(operations.opsForValue()).thenReturn(valueOperations);
+
+        // Act
+        UserInfo result = userCacheService.getUser(1L);
+
+        // Assert
+        assertEquals("john_doe", result.getUsername());
+        ArgumentCaptor<SessionCallback<Object>> callback = ArgumentCaptor.forClass(SessionCallback.class);
+        verify(redisTemplate, times(1)).executePipelined(callback.capture());
+        callback.getValue().execute(operations);
+        verify(hashOperations, times(1)).entries("user:h:1");
+        verify(valueOperations, times(1)).get("user:1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetUserEntry_HashStorageTombstoneIsReadWithTheHash() {
+        // Arrange
+        properties.getCache().getUser().setStorage(ApplicationProperties.Cache.Storage.HASH);
+        userCacheService = newUserCacheService();
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(Map.of(), "__missing__"));
+
+        // Act
+        UserNearCache.Entry entry = userCacheService.getUserEntry(1L);
+
+        // Assert
+        assertNotNull(entry);
+        assertNull(entry.user());
+        assertTrue(userCacheService.isMissingUser(1L));
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        verifyNoInteractions(valueOperations);
+    }
+
+    @Test
+    void testGetUserFields_ValueStorageProjectsCachedUser() {
+        // Arrange
+        UserInfo user = UserInfo.builder().id(1L).username("john_doe").email("john@example.com").build();
+        when(valueOperations.get("user:1")).thenReturn(user);
+
+        // Act
+        UserInfo result = userCacheService.getUserFields(1L, List.of("username"));
+
+        // Assert
+        assertEquals("john_doe", result.getUsername());
+        assertNull(result.getEmail());
+    }
+
+    private List<Object> scriptArgs() {
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(redisTemplate, atLeastOnce()).execute(any(RedisScript.class), any(), any(), anyList(), args.capture());
+        return Arrays.asList(args.getAllValues().get(args.getAllValues().size() - 1));
+    }
+
+    @Test
+    void testMoveUsername_RenameUpdatesIndexInOneScript() {
+        // Act
+        userCacheService.moveUsername(1L, "old_name", "new_name");
+
+        // Assert
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of("username:id:old_name", "username:id:new_name")), eq("1"), eq("60000"), eq("1"));
+    }
+
+    @Test
+    void testMoveUsername_DeleteOnlyRemovesOldMapping() {
+        // Act
+        userCacheService.moveUsername(1L, "old_name", null);
+
+        // Assert
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of("username:id:old_name", "username:id:old_name")), eq("1"), eq(""), eq("1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetUserId_ReadsIndex() {
+        // Arrange
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn("5".getBytes(StandardCharsets.UTF_8), (Object) null);
+
+        // Act & Assert
+        assertEquals(5L, userCacheService.getUserId("john_doe"));
+        assertNull(userCacheService.getUserId("ghost"));
+    }
+}
@@ -0,0 +1,138 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.dto.UserInfo;
+import com.ideas2it.training.user.repository.UserRepository;
+import com.ideas2it.training.user.service.caching.UserCacheService;
+import com.ideas2it.training.user.service.caching.UserNearCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserCacheWarmerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserCacheService userCacheService;
+
+    @Mock
+    private UserNearCache userNearCache;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private ApplicationProperties properties;
+
+    private UserCacheWarmer warmer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        properties = new ApplicationProperties();
+        properties.getCache().getUser().getWarmUp().setBatchSize(2);
+        warmer = new UserCacheWarmer(userRepository, userCacheService, userNearCache, stringRedisTemplate, properties);
+    }
+
+    @Test
+    void testRun_WarmsSnapshotInBatches() {
+        // Arrange
+        when(valueOperations.get("user:warm-up:ids")).thenReturn("1,2,3");
+        when(userRepository.findInfoByIdIn(List.of(1L, 2L))).thenReturn(List.of(user(1L), user(2L)));
+        when(userRepository.findInfoByIdIn(List.of(3L))).thenReturn(List.of(user(3L)));
+
+        // Act
+        warmer.run(null);
+
+        // Assert
+        verify(userCacheService, times(1)).populateUsers(argThat(users -> ids(users).equals(List.of(1L, 2L))));
+        verify(userCacheService, times(1)).populateUsers(argThat(users -> ids(users).equals(List.of(3L))));
+        verify(userRepository, never()).findRecentlyModifiedIds(any());
+    }
+
+    @Test
+    void testRun_FallsBackToRecentlyModifiedWithoutSnapshot() {
+        // Arrange
+        when(valueOperations.get("user:warm-up:ids")).thenThrow(new RedisConnectionFailureException("down"));
+        when(userRepository.findRecentlyModifiedIds(PageRequest.of(0, 10_000))).thenReturn(List.of(5L));
+        when(userRepository.findInfoByIdIn(List.of(5L))).thenReturn(List.of(user(5L)));
+
+        // Act
+        warmer.run(null);
+
+        // Assert
+        verify(userCacheService, times(1)).populateUsers(argThat(users -> ids(users).equals(List.of(5L))));
+    }
+
+    @Test
+    void testRun_StopsWhenTimeBudgetIsUsedUp() {
+        // Arrange
+        properties.getCache().getUser().getWarmUp().setTimeBudget(Duration.ZERO);
+        when(valueOperations.get("user:warm-up:ids")).thenReturn("1,2,3");
+
+        // Act
+        warmer.run(null);
+
+        // Assert
+        verifyNoInteractions(userCacheService);
+    }
+
+    @Test
+    void testRun_Disabled() {
+        // Arrange
+        properties.getCache().getUser().getWarmUp().setEnabled(false);
+
+        // Act
+        warmer.run(null);
+
+        // Assert
+        verifyNoInteractions(userRepository, userCacheService, stringRedisTemplate);
+    }
+
+    @Test
+    void testSnapshot_StoresHottestIds() {
+        // Arrange
+        when(userNearCache.hottestIds(10_000)).thenReturn(List.of(3L, 1L));
+
+        // Act
+        warmer.snapshot();
+
+        // Assert
+        verify(valueOperations, times(1)).set("user:warm-up:ids", "3,1", Duration.ofDays(7));
+    }
+
+    @Test
+    void testHotIds_SnapshotIsCappedAtMaxUsers() {
+        // Arrange
+        properties.getCache().getUser().getWarmUp().setMaxUsers(2);
+        when(valueOperations.get("user:warm-up:ids")).thenReturn("1,2,3");
+
+        // Act & Assert
+        assertEquals(List.of(1L, 2L), warmer.hotIds());
+    }
+
+    private static List<Long> ids(Collection<UserInfo> users) {
+        return users.stream().map(UserInfo::getId).toList();
+    }
+
+    private static UserInfo user(Long id) {
+        return UserInfo.builder().id(id).build();
+    }
+}
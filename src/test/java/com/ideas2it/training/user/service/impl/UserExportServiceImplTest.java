@@ -0,0 +1,243 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.dto.UserExportJobInfo;
+import com.ideas2it.training.user.enums.ExportFormat;
+import com.ideas2it.training.user.enums.ExportStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserExportServiceImplTest {
+
+    private static final int USERS = 12;
+
+    @TempDir
+    private Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private DriverManagerDataSource dataSource;
+
+    private ApplicationProperties applicationProperties;
+
+    private ObjectMapper objectMapper;
+
+    private UserExportServiceImpl userExportService;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:user-export;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table users (id bigint primary key, username varchar(255) not null unique, "
+                + "password varchar(255) not null, first_name varchar(255), last_name varchar(255), email varchar(255), "
+                + "mobile varchar(255), address varchar(255), postal_code varchar(255), created_by varchar(50) not null, "
+                + "created_date timestamp(6) with time zone, last_modified_by varchar(50), "
+                + "last_modified_date timestamp(6) with time zone, row_version bigint)");
+        jdbcTemplate.execute("create table roles (id bigint primary key, name varchar(255))");
+        jdbcTemplate.execute("create table user_roles (user_id bigint not null, role_id bigint not null)");
+        jdbcTemplate.update("insert into roles (id, name) values (1, 'ADMIN'), (2, 'USER')");
+        for (int i = 1; i <= USERS; i++) {
+            jdbcTemplate.update("insert into users (id, username, password, first_name, email, created_by, created_date) "
+                    + "values (?, ?, 'hash', ?, ?, 'system', current_timestamp)", i, "user_" + i, "First, " + i, "user_" + i + "@example.com");
+            jdbcTemplate.update("insert into user_roles (user_id, role_id) values (?, 2)", i);
+        }
+        jdbcTemplate.update("insert into user_roles (user_id, role_id) values (1, 1)");
+
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getBulk().getExport().setDirectory(directory.toString());
+        applicationProperties.getBulk().getExport().setFetchSize(4);
+        applicationProperties.getBulk().getExport().setChunkSize(5);
+        applicationProperties.getBulk().getExport().setThreads(2);
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        userExportService = new UserExportServiceImpl(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                objectMapper, applicationProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userExportService.shutdown();
+        jdbcTemplate.execute("drop all objects");
+    }
+
+    @Test
+    void testStart_ExportsCsvInOrder() throws Exception {
+        // Act
+        UserExportJobInfo job = await(userExportService.start(ExportFormat.CSV));
+
+        // Assert
+        assertEquals(ExportStatus.COMPLETED, job.getStatus());
+        assertEquals(USERS, job.getRows());
+        assertTrue(job.getRowsPerSecond() > 0);
+        Path file = userExportService.getFile(job.getId()).orElseThrow();
+        assertTrue(file.getFileName().toString().endsWith(".csv.gz"));
+        List<String> lines = readLines(file);
+        assertEquals(USERS + 1, lines.size());
+        assertTrue(lines.get(0).startsWith("id,username,first_name,last_name,email,mobile,address,postal_code,roles"));
+        assertTrue(lines.get(1).startsWith("1,user_1,\"First, 1\",,user_1@example.com,,,,ADMIN|USER,system,"));
+        assertTrue(lines.get(2).startsWith("2,user_2,\"First, 2\",,user_2@example.com,,,,USER,system,"));
+        assertTrue(lines.get(USERS).startsWith(USERS + ",user_" + USERS + ","));
+    }
+
+    @Test
+    void testStart_ExportsNdjsonWithGroupedRoles() throws Exception {
+        // Act
+        UserExportJobInfo job = await(userExportService.start(ExportFormat.NDJSON));
+
+        // Assert
+        assertEquals(ExportStatus.COMPLETED, job.getStatus());
+        List<String> lines = readLines(userExportService.getFile(job.getId()).orElseThrow());
+        assertEquals(USERS, lines.size());
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(1, first.get("id").asLong());
+        assertEquals("user_1", first.get("username").asText());
+        assertEquals(2, first.get("roles").size());
+        assertFalse(first.has("password"));
+        for (int i = 0; i < USERS; i++) {
+            assertEquals(i + 1, objectMapper.readTree(lines.get(i)).get("id").asLong());
+        }
+    }
+
+    @Test
+    void testStart_FailureLeavesNoFile() throws Exception {
+        // Arrange
+        jdbcTemplate.execute("drop table user_roles");
+
+        // Act
+        UserExportJobInfo job = await(userExportService.start(ExportFormat.CSV));
+
+        // Assert
+        assertEquals(ExportStatus.FAILED, job.getStatus());
+        assertNotNull(job.getError());
+        assertTrue(userExportService.getFile(job.getId()).isEmpty());
+        try (var files = Files.list(directory.resolve("."))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testStart_FinishedJobExpiresAfterRetention() throws Exception {
+        // Arrange
+        userExportService.shutdown();
+        applicationProperties.getBulk().getExport().setRetention(Duration.ofMillis(200));
+        userExportService = new UserExportServiceImpl(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                objectMapper, applicationProperties);
+
+        // Act
+        UserExportJobInfo job = await(userExportService.start(ExportFormat.CSV));
+        Path file = userExportService.getFile(job.getId()).orElseThrow();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (userExportService.getById(job.getId()).isPresent() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        // Assert
+        assertTrue(userExportService.getById(job.getId()).isEmpty());
+        assertTrue(userExportService.getFile(job.getId()).isEmpty());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void testConstructor_DeletesExpiredFilesOfEarlierRuns() throws Exception {
+        // Arrange
+        userExportService.shutdown();
+        Path expired = Files.writeString(directory.resolve("users-expired.csv.gz"), "expired");
+        Files.setLastModifiedTime(expired, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        Path recent = Files.writeString(directory.resolve("users-recent.csv.gz"), "recent");
+        Path other = Files.writeString(directory.resolve("other.txt"), "other");
+        Files.setLastModifiedTime(other, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+        // Act
+        userExportService = new UserExportServiceImpl(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                objectMapper, applicationProperties);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (Files.exists(expired) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        // Assert
+        assertFalse(Files.exists(expired));
+        assertTrue(Files.exists(recent));
+        assertTrue(Files.exists(other));
+    }
+
+    @Test
+    void testStart_RejectedWhenJobsAndQueueAreFull() throws Exception {
+        // Arrange
+        userExportService.shutdown();
+        CountDownLatch release = new CountDownLatch(1);
+        JdbcTemplate blockingTemplate = new JdbcTemplate(dataSource) {
+            @Override
+            public void query(PreparedStatementCreator creator, RowCallbackHandler handler) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.query(creator, handler);
+            }
+        };
+        applicationProperties.getBulk().getExport().setJobs(1);
+        applicationProperties.getBulk().getExport().setQueueCapacity(1);
+        userExportService = new UserExportServiceImpl(blockingTemplate, new DataSourceTransactionManager(dataSource),
+                objectMapper, applicationProperties);
+        UserExportJobInfo running = userExportService.start(ExportFormat.CSV);
+        UserExportJobInfo queued = userExportService.start(ExportFormat.CSV);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> userExportService.start(ExportFormat.CSV));
+        release.countDown();
+        assertEquals(ExportStatus.COMPLETED, await(running).getStatus());
+        assertEquals(ExportStatus.COMPLETED, await(queued).getStatus());
+        assertEquals(ExportStatus.COMPLETED, await(userExportService.start(ExportFormat.CSV)).getStatus());
+    }
+
+    @Test
+    void testGetById_UnknownJob() {
+        // Act & Assert
+        assertTrue(userExportService.getById("unknown").isEmpty());
+        assertTrue(userExportService.getFile("unknown").isEmpty());
+    }
+
+    private UserExportJobInfo await(UserExportJobInfo started) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        UserExportJobInfo job = started;
+        while (job.getStatus() == ExportStatus.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            job = userExportService.getById(started.getId()).orElseThrow();
+        }
+        return job;
+    }
+
+    private static List<String> readLines(Path file) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.domain.Role;
+import com.ideas2it.training.user.domain.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserImportLoaderTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private UserImportLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:user-import;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("create sequence sequence_generator start with 1050 increment by 50");
+        jdbcTemplate.execute("create table users (id bigint primary key, username varchar(255) not null unique, "
+                + "password varchar(255) not null, first_name varchar(255), last_name varchar(255), email varchar(255), "
+                + "mobile varchar(255), address varchar(255), postal_code varchar(255), created_by varchar(50) not null, "
+                + "created_date timestamp(6) with time zone, last_modified_by varchar(50), "
+                + "last_modified_date timestamp(6) with time zone, row_version bigint)");
+        jdbcTemplate.execute("create table user_roles (user_id bigint not null, role_id bigint not null)");
+        loader = new UserImportLoader(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop all objects");
+    }
+
+    @Test
+    void testInsert_AssignsPooledIdsAndInsertsRoles() {
+        // Arrange
+        Role admin = new Role();
+        admin.setId(7L);
+        List<User> users = new ArrayList<>(IntStream.range(0, 120).mapToObj(i -> user("user_" + i)).toList());
+        users.get(0).setRoles(Set.of(admin));
+        users.get(0).setEmail("user_0@example.com");
+
+        // Act
+        loader.insert(users);
+
+        // Assert
+        assertEquals(120, jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+        assertEquals(120, jdbcTemplate.queryForObject("select count(distinct id) from users", Integer.class));
+        assertEquals(1001L, users.get(0).getId());
+        assertEquals(1120L, users.get(119).getId());
+        Map<String, Object> first = jdbcTemplate.queryForMap("select * from users where id = ?", users.get(0).getId());
+        assertEquals("user_0", first.get("USERNAME"));
+        assertEquals("hash", first.get("PASSWORD"));
+        assertEquals("user_0@example.com", first.get("EMAIL"));
+        assertNull(first.get("MOBILE"));
+        assertEquals("system", first.get("CREATED_BY"));
+        assertEquals(0L, ((Number) first.get("ROW_VERSION")).longValue());
+        assertEquals(List.of(7L), jdbcTemplate.queryForList(
+                "select role_id from user_roles where user_id = ?", Long.class, users.get(0).getId()));
+    }
+
+    @Test
+    void testInsert_BlocksNeverOverlap() {
+        // Arrange
+        List<User> first = List.of(user("alice"), user("bob"));
+        List<User> second = List.of(user("carol"));
+
+        // Act
+        loader.insert(first);
+        loader.insert(second);
+
+        // Assert
+        assertTrue(second.get(0).getId() > first.get(1).getId() + 48);
+        assertEquals(3, jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("hash");
+        return user;
+    }
+}
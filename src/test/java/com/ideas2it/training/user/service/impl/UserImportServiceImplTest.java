@@ -0,0 +1,333 @@
+package com.ideas2it.training.user.service.impl;
+
+import com.ideas2it.training.user.config.ApplicationProperties;
+import com.ideas2it.training.user.domain.Role;
+import com.ideas2it.training.user.domain.User;
+import com.ideas2it.training.user.domain.UserImportJob;
+import com.ideas2it.training.user.dto.UserCreateDto;
+import com.ideas2it.training.user.dto.UserImportJobInfo;
+import com.ideas2it.training.user.enums.ImportStatus;
+import com.ideas2it.training.user.enums.RoleType;
+import com.ideas2it.training.user.repository.UserImportJobRepository;
+import com.ideas2it.training.user.repository.UserRepository;
+import com.ideas2it.training.user.service.caching.ApproximateCounter;
+import com.ideas2it.training.user.service.caching.PagedListingCache;
+import com.ideas2it.training.user.service.caching.UserCacheService;
+import com.ideas2it.training.user.service.caching.UserCacheWriter;
+import com.ideas2it.training.user.service.caching.UserNearCache;
+import com.ideas2it.training.user.service.mapper.UserImportJobMapper;
+import com.ideas2it.training.user.service.mapper.UserMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserImportServiceImplTest {
+
+    private static final String HEADER = "username,password,first_name,roles\n";
+
+    @Mock
+    private UserImportJobRepository jobRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserImportLoader loader;
+
+    @Mock
+    private RoleRegistry roleRegistry;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private UserCacheService userCacheService;
+
+    @Mock
+    private KnownUsernameFilter knownUsernameFilter;
+
+    @Mock
+    private PagedListingCache pagedListingCache;
+
+    @Mock
+    private ApproximateCounter approximateCounter;
+
+    @TempDir
+    private Path directory;
+
+    private UserCacheWriter userCacheWriter;
+
+    private PasswordHasher passwordHasher;
+
+    private UserImportServiceImpl userImportService;
+
+    private final UserImportJob job = new UserImportJob();
+
+    private final List<String> inserted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getBulk().getCsvImport().setDirectory(directory.toString());
+        applicationProperties.getBulk().getCsvImport().setChunkSize(2);
+        applicationProperties.getBulk().getCsvImport().setQueueCapacity(1);
+        userCacheWriter = new UserCacheWriter(applicationProperties, userCacheService, mock(UserNearCache.class),
+                new SimpleMeterRegistry());
+        job.setStatus(ImportStatus.QUEUED);
+        when(jobRepository.save(any(UserImportJob.class))).thenAnswer(invocation -> {
+            UserImportJob saved = invocation.getArgument(0);
+            job.setFile(saved.getFile());
+            job.setId(1L);
+            return job;
+        });
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(jobRepository.claim(eq(1L), eq(ImportStatus.RUNNING), any(), any())).thenReturn(1);
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hashed-" + invocation.getArgument(0));
+        when(userMapper.toEntity(any(UserCreateDto.class))).thenAnswer(invocation -> {
+            UserCreateDto dto = invocation.getArgument(0);
+            User user = new User();
+            user.setUsername(dto.getUsername());
+            user.setFirstName(dto.getFirstName());
+            return user;
+        });
+        doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> inserted.add(user.getUsername() + ":" + user.getPassword()));
+            return null;
+        }).when(loader).insert(anyList());
+        passwordHasher = new PasswordHasher(passwordEncoder, applicationProperties);
+        userImportService = new UserImportServiceImpl(jobRepository, userRepository, loader, roleRegistry, userMapper,
+                mock(UserImportJobMapper.class), passwordHasher, Validation.buildDefaultValidatorFactory().getValidator(),
+                transactionManager, userCacheService, userCacheWriter, knownUsernameFilter, pagedListingCache,
+                approximateCounter, applicationProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportService.shutdown();
+        userCacheWriter.shutdown();
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void testStart_ImportsInCheckpointedChunks() {
+        // Arrange
+        String csv = HEADER + "alice,secret1,Alice,\nbob,secret2,Bob,\ncarol,secret3,Carol,\n";
+
+        // Act
+        userImportService.start(csv(csv));
+
+        // Assert
+        verify(jobRepository, timeout(5000)).finish(eq(1L), eq(ImportStatus.COMPLETED), isNull(), any());
+        assertEquals(List.of("alice:hashed-secret1", "bob:hashed-secret2", "carol:hashed-secret3"), inserted);
+        verify(jobRepository).checkpoint(eq(1L), eq(2L), eq(2L), eq(0L), any());
+        verify(jobRepository).checkpoint(eq(1L), eq(3L), eq(1L), eq(0L), any());
+        verify(transactionManager, times(2)).commit(any());
+        verify(approximateCounter).add("user", 2);
+        verify(knownUsernameFilter, timeout(1000)).addAll(List.of("carol"));
+        assertTrue(Files.exists(Path.of(job.getFile())));
+    }
+
+    @Test
+    void testStart_RejectsInvalidRows() throws Exception {
+        // Arrange
+        Role admin = new Role();
+        admin.setName("ADMIN");
+        Role user = new Role();
+        user.setName("USER");
+        when(roleRegistry.resolve(RoleType.ADMIN)).thenReturn(admin);
+        when(roleRegistry.resolve(RoleType.USER)).thenReturn(user);
+        when(userRepository.findExistingUsernames(anyCollection())).thenAnswer(invocation -> {
+            List<String> usernames = new ArrayList<>(invocation.getArgument(0));
+            usernames.removeIf(username -> !username.equals("dave") && !inserted.contains(username + ":hashed-secret"));
+            return Set.copyOf(usernames);
+        });
+        String csv = HEADER
+                + "alice,secret,Alice,admin\n"
+                + "bob,,Bob,\n"
+                + "carol,secret,Carol,janitor\n"
+                + "alice,secret,Alice,\n"
+                + "dave,secret,Dave,ADMIN|USER\n";
+
+        // Act
+        userImportService.start(csv(csv));
+
+        // Assert
+        verify(jobRepository, timeout(5000)).finish(eq(1L), eq(ImportStatus.COMPLETED), isNull(), any());
+        assertEquals(List.of("alice:hashed-secret"), inserted);
+        verify(roleRegistry, times(1)).resolve(RoleType.ADMIN);
+        List<String> rejects = Files.readAllLines(Path.of(job.getFile().replace(".csv", "-rejected.csv")));
+        assertEquals("row,username,error", rejects.get(0));
+        assertEquals(5, rejects.size());
+        assertTrue(rejects.get(1).startsWith("2,bob,") && rejects.get(1).contains("password must not be empty"));
+        assertTrue(rejects.get(2).startsWith("3,carol,") && rejects.get(2).contains("Invalid role: janitor"));
+        assertTrue(rejects.get(3).startsWith("4,alice,") && rejects.get(3).contains("Username already exists"));
+        assertTrue(rejects.get(4).startsWith("5,dave,") && rejects.get(4).contains("Username already exists"));
+    }
+
+    @Test
+    void testRestart_ResumesAfterCheckpoint() throws Exception {
+        // Arrange
+        Path file = directory.resolve("users-1.csv");
+        Files.writeString(file, HEADER + "alice,secret1,Alice,\nbob,secret2,Bob,\ncarol,secret3,Carol,\n");
+        job.setId(1L);
+        job.setFile(file.toString());
+        job.setStatus(ImportStatus.FAILED);
+        job.setProcessedRows(2);
+
+        // Act
+        userImportService.restart(1L);
+
+        // Assert
+        verify(jobRepository, timeout(5000)).finish(eq(1L), eq(ImportStatus.COMPLETED), isNull(), any());
+        assertEquals(List.of("carol:hashed-secret3"), inserted);
+        verify(passwordEncoder, never()).encode("secret1");
+        verify(jobRepository).checkpoint(eq(1L), eq(3L), eq(1L), eq(0L), any());
+    }
+
+    @Test
+    void testStart_FailedChunkFailsJobWithoutCheckpoint() {
+        // Arrange
+        doThrow(new QueryTimeoutException("statement timeout")).when(loader).insert(anyList());
+
+        // Act
+        userImportService.start(csv(HEADER + "alice,secret,Alice,\n"));
+
+        // Assert
+        ArgumentCaptor<String> error = ArgumentCaptor.forClass(String.class);
+        verify(jobRepository, timeout(5000)).finish(eq(1L), eq(ImportStatus.FAILED), error.capture(), any());
+        assertEquals("statement timeout", error.getValue());
+        verify(jobRepository, never()).checkpoint(anyLong(), anyLong(), anyLong(), anyLong(), any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void testStart_DuplicateKeyRetriesChunkRowByRow() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            if (users.stream().anyMatch(user -> user.getUsername().equals("bob"))) {
+                throw new DuplicateKeyException("duplicate key value violates unique constraint \"ux_user_username\"");
+            }
+            users.forEach(user -> inserted.add(user.getUsername() + ":" + user.getPassword()));
+            return null;
+        }).when(loader).insert(anyList());
+        String csv = HEADER + "alice,secret1,Alice,\nbob,secret2,Bob,\ncarol,secret3,Carol,\n";
+
+        // Act
+        userImportService.start(csv(csv));
+
+        // Assert
+        verify(jobRepository, timeout(5000)).finish(eq(1L), eq(ImportStatus.COMPLETED), isNull(), any());
+        assertEquals(List.of("alice:hashed-secret1", "carol:hashed-secret3"), inserted);
+        InOrder checkpoints = inOrder(jobRepository);
+        checkpoints.verify(jobRepository).checkpoint(eq(1L), eq(1L), eq(1L), eq(0L), any());
+        checkpoints.verify(jobRepository).checkpoint(eq(1L), eq(2L), eq(0L), eq(1L), any());
+        checkpoints.verify(jobRepository).checkpoint(eq(1L), eq(3L), eq(1L), eq(0L), any());
+        List<String> rejects = Files.readAllLines(Path.of(job.getFile().replace(".csv", "-rejected.csv")));
+        assertEquals(2, rejects.size());
+        assertTrue(rejects.get(1).startsWith("2,bob,") && rejects.get(1).contains("Username already exists"));
+    }
+
+    @Test
+    void testRestart_DropsRejectsAfterCheckpoint() throws Exception {
+        // Arrange
+        Path file = directory.resolve("users-1.csv");
+        Files.writeString(file, HEADER + "alice,secret1,Alice,\nbob,,Bob,\ncarol,,Carol,\n");
+        Path rejects = directory.resolve("users-1-rejected.csv");
+        Files.writeString(rejects, "row,username,error\n2,bob,\"password must not be empty\"\n"
+                + "3,carol,\"password must not be empty\"\n");
+        job.setId(1L);
+        job.setFile(file.toString());
+        job.setStatus(ImportStatus.FAILED);
+        job.setProcessedRows(2);
+
+        // Act
+        userImportService.restart(1L);
+
+        // Assert
+        verify(jobRepository, timeout(5000)).finish(eq(1L), eq(ImportStatus.COMPLETED), isNull(), any());
+        List<String> lines = Files.readAllLines(rejects);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(1).startsWith("2,bob,"));
+        assertTrue(lines.get(2).startsWith("3,carol,"));
+        verify(jobRepository).checkpoint(eq(1L), eq(3L), eq(0L), eq(1L), any());
+    }
+
+    @Test
+    void testStart_MissingPasswordColumnFailsJob() {
+        // Act
+        userImportService.start(csv("username,first_name\nalice,Alice\n"));
+
+        // Assert
+        verify(jobRepository, timeout(5000)).finish(eq(1L), eq(ImportStatus.FAILED),
+                eq("The CSV header must name the username and password columns"), any());
+        verifyNoInteractions(loader);
+    }
+
+    @Test
+    void testRestart_RunningJobRejected() {
+        // Arrange
+        job.setId(1L);
+        job.setStatus(ImportStatus.RUNNING);
+        when(jobRepository.claim(eq(1L), eq(ImportStatus.RUNNING), any(), any())).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> userImportService.restart(1L));
+    }
+
+    @Test
+    void testRestart_CompletedJobRejected() {
+        // Arrange
+        job.setId(1L);
+        job.setStatus(ImportStatus.COMPLETED);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> userImportService.restart(1L));
+        verify(jobRepository, never()).claim(any(), any(), any(), any());
+    }
+
+    @Test
+    void testRestart_UnknownJob() {
+        // Act
+        Optional<UserImportJobInfo> result = userImportService.restart(2L);
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    private static ByteArrayInputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
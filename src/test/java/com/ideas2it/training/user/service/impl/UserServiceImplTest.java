@@ -1,26 +1,51 @@
 package com.ideas2it.training.user.service.impl;
 
+import com.ideas2it.training.user.config.ApplicationProperties;
 import com.ideas2it.training.user.domain.User;
+import com.ideas2it.training.user.dto.CursorPage;
 import com.ideas2it.training.user.dto.PagedResponse;
 import com.ideas2it.training.user.dto.UserCreateDto;
 import com.ideas2it.training.user.dto.UserInfo;
 import com.ideas2it.training.user.dto.UserUpdateDto;
-import com.ideas2it.training.user.repository.RoleRepository;
+import com.ideas2it.training.user.enums.CountMode;
 import com.ideas2it.training.user.repository.UserRepository;
+import com.ideas2it.training.user.service.caching.ApproximateCounter;
+import com.ideas2it.training.user.service.caching.CacheGuard;
+import com.ideas2it.training.user.service.caching.PagedListingCache;
 import com.ideas2it.training.user.service.caching.UserCacheService;
+import com.ideas2it.training.user.service.caching.UserCacheWriter;
+import com.ideas2it.training.user.service.caching.UserLoadCoalescer;
+import com.ideas2it.training.user.service.caching.UserNearCache;
 import com.ideas2it.training.user.service.mapper.UserMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,7 +56,7 @@ class UserServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private RoleRepository roleRepository;
+    private RoleRegistry roleRegistry;
 
     @Mock
     private UserMapper userMapper;
@@ -42,12 +67,40 @@ class UserServiceImplTest {
     @Mock
     private UserCacheService userCacheService;
 
-    @InjectMocks
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private KnownUsernameFilter knownUsernameFilter;
+
+    @Mock
+    private PagedListingCache pagedListingCache;
+
+    @Mock
+    private ApproximateCounter approximateCounter;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private UserCacheWriter userCacheWriter;
+
     private UserServiceImpl userService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        UserLoadCoalescer userLoadCoalescer = new UserLoadCoalescer(new ApplicationProperties(), stringRedisTemplate, CacheGuard.NONE,
+                userCacheService);
+        userCacheWriter = new UserCacheWriter(new ApplicationProperties(), userCacheService, mock(UserNearCache.class),
+                new SimpleMeterRegistry());
+        when(pagedListingCache.getPage(anyString(), anyInt(), anyInt(), any(), any(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(4)).get());
+        userService = new UserServiceImpl(userRepository, roleRegistry, userMapper, userCacheService, passwordEncoder, userLoadCoalescer, knownUsernameFilter, userCacheWriter, pagedListingCache, approximateCounter, entityManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userCacheWriter.shutdown();
     }
 
     @Test
@@ -73,7 +126,49 @@ class UserServiceImplTest {
         verify(userMapper, times(1)).toEntity(dto);
         verify(passwordEncoder, times(1)).encode(user.getPassword());
         verify(userRepository, times(1)).save(user);
-        verify(userCacheService, times(1)).saveUser(userInfo);
+        verify(userCacheService, timeout(1000)).saveUser(userInfo);
+        verify(approximateCounter, times(1)).add("user", 1);
+    }
+
+    @Test
+    void testCreate_ClearsNegativeUsernameEntry() {
+        // Arrange
+        UserCreateDto dto = UserCreateDto.builder().build();
+        User user = new User();
+        User savedUser = new User();
+        UserInfo userInfo = UserInfo.builder().id(1L).username("newUser").build();
+
+        when(userMapper.toEntity(dto)).thenReturn(user);
+        when(userRepository.save(user)).thenReturn(savedUser);
+        when(userMapper.toInfo(savedUser)).thenReturn(userInfo);
+
+        // Act
+        userService.create(dto);
+
+        // Assert
+        verify(userCacheService, timeout(1000)).saveUser(userInfo);
+        verify(userCacheService, timeout(1000)).deleteMissingUsername("newUser");
+        verify(knownUsernameFilter, timeout(1000)).add("newUser");
+        verify(userCacheService, timeout(1000)).moveUsername(1L, null, "newUser");
+        verify(pagedListingCache, times(1)).invalidate("user");
+    }
+
+    @Test
+    void testUpdate_RenameMovesUsernameIndex() {
+        // Arrange
+        UserUpdateDto dto = UserUpdateDto.builder().id(1L).username("renamed").build();
+        User user = new User();
+        user.setUsername("original");
+        UserInfo userInfo = UserInfo.builder().id(1L).username("renamed").build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+        when(userMapper.toInfo(user)).thenReturn(userInfo);
+
+        // Act
+        userService.update(dto);
+
+        // Assert
+        verify(userCacheService, timeout(1000)).moveUsername(1L, "original", "renamed");
     }
 
     @Test
@@ -96,7 +191,7 @@ class UserServiceImplTest {
         assertEquals(userInfo, result);
         verify(userRepository, times(1)).findById(dto.getId());
         verify(userRepository, times(1)).save(user);
-        verify(userCacheService, times(1)).saveUser(userInfo);
+        verify(userCacheService, timeout(1000)).saveUser(userInfo);
     }
 
     @Test
@@ -111,12 +206,31 @@ class UserServiceImplTest {
         verifyNoMoreInteractions(userRepository);
     }
 
+    @Test
+    void testPartialUpdate_CachesOnlyChangedFields() {
+        // Arrange
+        UserUpdateDto dto = UserUpdateDto.builder().id(1L).email("john@example.com").password("secret").build();
+        User user = new User();
+        UserInfo userInfo = UserInfo.builder().id(1L).build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+        when(userMapper.toInfo(user)).thenReturn(userInfo);
+
+        // Act
+        userService.partialUpdate(dto);
+
+        // Assert
+        assertEquals("john@example.com", user.getEmail());
+        verify(userCacheService, timeout(1000)).saveUserFields(userInfo,
+                Set.of("email", "lastModifiedDate", "lastModifiedBy"));
+    }
+
     @Test
     void testGetById_UserInCache() {
         // Arrange
         Long id = 1L;
         UserInfo cachedUser = UserInfo.builder().build();
-        when(userCacheService.getUser(id)).thenReturn(cachedUser);
+        when(userCacheService.getUserEntry(id)).thenReturn(new UserNearCache.Entry(cachedUser, Long.MAX_VALUE));
 
         // Act
         Optional<UserInfo> result = userService.getById(id);
@@ -124,7 +238,7 @@ class UserServiceImplTest {
         // Assert
         assertTrue(result.isPresent());
         assertEquals(cachedUser, result.get());
-        verify(userCacheService, times(1)).getUser(id);
+        verify(userCacheService, times(1)).getUserEntry(id);
         verifyNoInteractions(userRepository);
     }
 
@@ -132,11 +246,9 @@ class UserServiceImplTest {
     void testGetById_UserNotInCache() {
         // Arrange
         Long id = 1L;
-        User user = new User();
         UserInfo userInfo = UserInfo.builder().build();
-        when(userCacheService.getUser(id)).thenReturn(null);
-        when(userRepository.findById(id)).thenReturn(Optional.of(user));
-        when(userMapper.toInfo(user)).thenReturn(userInfo);
+        when(userCacheService.getUserEntry(id)).thenReturn(null);
+        when(userRepository.findInfoById(id)).thenReturn(Optional.of(userInfo));
 
         // Act
         Optional<UserInfo> result = userService.getById(id);
@@ -144,18 +256,119 @@ class UserServiceImplTest {
         // Assert
         assertTrue(result.isPresent());
         assertEquals(userInfo, result.get());
-        verify(userCacheService, times(1)).getUser(id);
-        verify(userRepository, times(1)).findById(id);
-        verify(userCacheService, times(1)).saveUser(userInfo);
+        verify(userCacheService, times(1)).getUserEntry(id);
+        verify(userCacheService, never()).isMissingUser(any());
+        verify(userRepository, times(1)).findInfoById(id);
+        verify(userRepository, never()).findById(any());
+        verifyNoInteractions(userMapper);
+        verify(userCacheService, times(1)).populateUser(userInfo);
+    }
+
+    @Test
+    void testGetById_UnknownIdCachesTombstone() {
+        // Arrange
+        Long id = 1L;
+        when(userRepository.findInfoById(id)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<UserInfo> result = userService.getById(id);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(userCacheService, times(1)).saveMissingUser(id);
+        verify(userCacheService, never()).populateUser(any());
+    }
+
+    @Test
+    void testGetById_TombstoneSkipsDatabase() {
+        // Arrange
+        Long id = 1L;
+        when(userCacheService.getUserEntry(id)).thenReturn(new UserNearCache.Entry(null, Long.MAX_VALUE));
+
+        // Act
+        Optional<UserInfo> result = userService.getById(id);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(userCacheService, times(1)).getUserEntry(id);
+        verify(userCacheService, never()).isMissingUser(any());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testGetById_ConcurrentMissesQueryDatabaseOnce() throws Exception {
+        // Arrange
+        int callers = 16;
+        Long id = 1L;
+        UserInfo userInfo = UserInfo.builder().id(id).build();
+        CountDownLatch allMissed = new CountDownLatch(callers);
+        AtomicInteger queries = new AtomicInteger();
+        when(userCacheService.getUserEntry(id)).thenAnswer(invocation -> {
+            allMissed.countDown();
+            return null;
+        });
+        when(userRepository.findInfoById(id)).thenAnswer(invocation -> {
+            queries.incrementAndGet();
+            allMissed.await(5, TimeUnit.SECONDS);
+            Thread.sleep(50); // let every caller join the in-flight load
+            return Optional.of(userInfo);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        // Act
+        List<Future<Optional<UserInfo>>> results;
+        try {
+            results = executor.invokeAll(Collections.nCopies(callers, () -> userService.getById(id)));
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        for (Future<Optional<UserInfo>> result : results) {
+            assertEquals(Optional.of(userInfo), result.get());
+        }
+        assertEquals(1, queries.get());
+        verify(userRepository, times(1)).findInfoById(id);
+        verify(userCacheService, times(1)).populateUser(userInfo);
+    }
+
+    @Test
+    void testGetByIds_CacheFirstThenSingleQuery() {
+        // Arrange
+        UserInfo cached = UserInfo.builder().id(1L).build();
+        UserInfo loaded = UserInfo.builder().id(2L).build();
+        when(userCacheService.getUsers(List.of(2L, 1L, 3L))).thenReturn(Map.of(1L, cached));
+        when(userRepository.findInfoByIdIn(List.of(2L, 3L))).thenReturn(List.of(loaded));
+
+        // Act
+        List<UserInfo> result = userService.getByIds(List.of(2L, 1L, 3L));
+
+        // Assert
+        assertEquals(List.of(loaded, cached), result);
+        verify(userRepository, times(1)).findInfoByIdIn(List.of(2L, 3L));
+        verify(userRepository, never()).findById(any());
+        verify(userCacheService, times(1)).populateUsers(List.of(loaded));
+    }
+
+    @Test
+    void testGetByIds_AllCached() {
+        // Arrange
+        UserInfo cached = UserInfo.builder().id(1L).build();
+        when(userCacheService.getUsers(List.of(1L))).thenReturn(Map.of(1L, cached));
+
+        // Act
+        List<UserInfo> result = userService.getByIds(List.of(1L));
+
+        // Assert
+        assertEquals(List.of(cached), result);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     void testGetAll() {
         // Arrange
-        List<User> users = List.of(new User());
         List<UserInfo> userInfos = List.of(UserInfo.builder().build());
-        when(userRepository.findAll()).thenReturn(users);
-        when(userMapper.toInfo(any(User.class))).thenReturn(userInfos.get(0));
+        when(userRepository.findAllInfo()).thenReturn(userInfos);
 
         // Act
         List<UserInfo> result = userService.getAll();
@@ -163,8 +376,27 @@ class UserServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(userInfos.size(), result.size());
-        verify(userRepository, times(1)).findAll();
-        verify(userMapper, times(users.size())).toInfo(any(User.class));
+        verify(userRepository, times(1)).findAllInfo();
+        verify(userRepository, never()).findAll();
+        verifyNoInteractions(userMapper);
+    }
+
+    @Test
+    void testStreamAll_MapsAndDetachesInChunks() {
+        // Arrange
+        List<User> users = LongStream.rangeClosed(1, 250).mapToObj(UserServiceImplTest::user).toList();
+        when(userRepository.streamAll()).thenReturn(users.stream());
+        when(userMapper.toInfo(any(User.class))).thenAnswer(invocation ->
+                UserInfo.builder().id(((User) invocation.getArgument(0)).getId()).build());
+        List<Long> streamed = new ArrayList<>();
+
+        // Act
+        userService.streamAll(user -> streamed.add(user.getId()));
+
+        // Assert
+        assertEquals(LongStream.rangeClosed(1, 250).boxed().toList(), streamed);
+        verify(entityManager, times(3)).clear();
+        verify(userRepository, never()).findAll();
     }
 
     @Test
@@ -173,12 +405,10 @@ class UserServiceImplTest {
         int offset = 0;
         int limit = 10;
         PageRequest pageRequest = PageRequest.of(offset / limit, limit);
-        List<User> users = List.of(new User());
-        Page<User> page = new PageImpl<>(users, pageRequest, users.size());
         List<UserInfo> userInfos = List.of(UserInfo.builder().build());
+        Page<UserInfo> page = new PageImpl<>(userInfos, pageRequest, userInfos.size());
 
-        when(userRepository.findAll(pageRequest)).thenReturn(page);
-        when(userMapper.toInfo(any(User.class))).thenReturn(userInfos.get(0));
+        when(userRepository.findAllInfo(pageRequest)).thenReturn(page);
 
         // Act
         PagedResponse<UserInfo> result = userService.getAllPaged(offset, limit);
@@ -186,8 +416,82 @@ class UserServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(userInfos.size(), result.getItems().size());
-        verify(userRepository, times(1)).findAll(pageRequest);
-        verify(userMapper, times(users.size())).toInfo(any(User.class));
+        verify(userRepository, times(1)).findAllInfo(pageRequest);
+        verifyNoInteractions(userMapper);
+        verify(userCacheService, times(1)).populateUsers(result.getItems());
+    }
+
+    @Test
+    void testGetAllPaged_WithoutCount() {
+        // Arrange
+        PageRequest pageRequest = PageRequest.of(1, 2);
+        when(userRepository.findInfoSlice(pageRequest)).thenReturn(new SliceImpl<>(List.of(info(3L), info(4L)), pageRequest, true));
+
+        // Act
+        PagedResponse<UserInfo> result = userService.getAllPaged(2, 2, CountMode.NONE);
+
+        // Assert
+        assertEquals(2, result.getItems().size());
+        assertNull(result.getTotalElements());
+        assertTrue(result.isHasNext());
+        verify(userRepository, never()).count();
+        verify(userRepository, never()).findAllInfo(any(PageRequest.class));
+        verifyNoInteractions(pagedListingCache, approximateCounter);
+    }
+
+    @Test
+    void testGetAllPaged_ApproximateCount() {
+        // Arrange
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        when(userRepository.findInfoSlice(pageRequest)).thenReturn(new SliceImpl<>(List.of(info(1L)), pageRequest, false));
+        when(approximateCounter.count(eq("user"), eq("users"), any())).thenReturn(1_000_000L);
+
+        // Act
+        PagedResponse<UserInfo> result = userService.getAllPaged(0, 10, CountMode.APPROXIMATE);
+
+        // Assert
+        assertEquals(1_000_000L, result.getTotalElements());
+        assertTrue(result.isTotalApproximate());
+        assertFalse(result.isHasNext());
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    void testGetPageAfter_ReturnsNextCursor() {
+        // Arrange
+        String cursor = CursorPage.encodeCursor(10L);
+        when(userRepository.findInfoByIdGreaterThan(10L, Limit.of(3)))
+                .thenReturn(List.of(info(11L), info(12L), info(13L)));
+
+        // Act
+        CursorPage<UserInfo> result = userService.getPageAfter(cursor, 2);
+
+        // Assert
+        assertEquals(List.of(11L, 12L), result.getItems().stream().map(UserInfo::getId).toList());
+        assertEquals(2, result.getSize());
+        assertEquals(12L, CursorPage.decodeCursor(result.getNextCursor()));
+        verify(userCacheService, times(1)).populateUsers(result.getItems());
+    }
+
+    @Test
+    void testGetPageAfter_LastPageHasNoCursor() {
+        // Arrange
+        when(userRepository.findInfoByIdGreaterThan(0L, Limit.of(3))).thenReturn(List.of(info(1L)));
+
+        // Act
+        CursorPage<UserInfo> result = userService.getPageAfter(null, 2);
+
+        // Assert
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void testGetPageAfter_InvalidCursor() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> userService.getPageAfter("not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> userService.getPageAfter(null, 0));
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -200,6 +504,35 @@ class UserServiceImplTest {
 
         // Assert
         verify(userRepository, times(1)).deleteById(id);
-        verify(userCacheService, times(1)).deleteUser(id);
+        verify(userCacheService, timeout(1000)).deleteUser(id);
+        verify(userCacheService, never()).moveUsername(any(), any(), any());
+        verify(approximateCounter, never()).add(anyString(), anyLong());
+    }
+
+    @Test
+    void testDelete_RemovesUsernameIndex() {
+        // Arrange
+        User user = new User();
+        user.setUsername("john_doe");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        // Act
+        userService.delete(1L);
+
+        // Assert
+        verify(userCacheService, timeout(1000)).deleteUser(1L);
+        verify(userCacheService, timeout(1000)).moveUsername(1L, "john_doe", null);
+        verify(pagedListingCache, times(1)).invalidate("user");
+        verify(approximateCounter, times(1)).add("user", -1);
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static UserInfo info(Long id) {
+        return UserInfo.builder().id(id).build();
     }
-}
\ No newline at end of file
+}